@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.example"
@@ -17,6 +18,15 @@ repositories {
     mavenCentral()
 }
 
+// End-to-end load-test harness (src/loadTest): boots the app against local stubs, run with ./gradlew loadTest
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadTest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("com.google.firebase:firebase-admin:9.6.0")
     implementation("com.vladmihalcea:hibernate-types-60:2.21.1")
@@ -28,12 +38,24 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-cache")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    implementation("io.micrometer:micrometer-tracing-bridge-otel")
+    implementation("io.opentelemetry:opentelemetry-exporter-otlp")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("org.apache.httpcomponents.client5:httpclient5")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("at.yawk.lz4:lz4-java:1.10.1") // Maintained fork of org.lz4:lz4-java, same net.jpountz API
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     runtimeOnly("org.postgresql:postgresql")
+    implementation("org.flywaydb:flyway-core")
+    runtimeOnly("org.flywaydb:flyway-database-postgresql")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
     testImplementation("com.h2database:h2")// Use embedded H2 for JPA repository tests
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    jmh("com.h2database:h2") // Metadata-only database for ProblemSpecificationBenchmark
+    "loadTestRuntimeOnly"("com.h2database:h2") // Default database of the app under load
 }
 
 tasks.withType<Test> {
@@ -43,3 +65,29 @@ tasks.withType<Test> {
         html.required.set(true)      // optional human-readable HTML report
     }
 }
+
+// Options are passed as -Ploadtest.<name>=<value>, see LoadTestSettings
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the app against local Together/LeetCode/Firebase stand-ins under a mobile traffic mix " +
+            "(needs a real Redis at SPRING_REDIS_HOST; evaluation calls are only in the default mix on PostgreSQL)"
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.example.leetnote_backend.loadtest.LoadTestHarness")
+    javaLauncher.set(javaToolchains.launcherFor(java.toolchain))
+    systemProperty("loadtest.report", layout.buildDirectory.file("reports/loadtest/summary.json").get().asFile.path)
+    systemProperties(providers.gradlePropertiesPrefixedBy("loadtest.").get())
+}
+
+jmh {
+    // Benchmarks live in src/jmh/java; run with ./gradlew jmh (-PjmhIncludes=<regex> for a subset).
+    // Results are written as JSON so runs can be diffed or loaded into jmh.morethan.io
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    // Keep test classes and their logback-test.xml out of the benchmark jar; src/jmh/resources has its own
+    includeTests.set(false)
+    zip64.set(true)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.set(listOf(it)) }
+}
@@ -0,0 +1,44 @@
+package com.example.leetnote_backend.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request: full signature verification vs. a verified-token cache hit
+ * Uses the local signing-key stand-in, so no Firebase credentials or network are needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenVerificationBenchmark {
+
+    private LocalIdTokenVerifier signatureVerifier;
+    private CachingIdTokenVerifier cachingVerifier;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        signatureVerifier = LocalIdTokenVerifier.withGeneratedKey("leetnote-bench");
+        cachingVerifier = new CachingIdTokenVerifier(signatureVerifier, 10_000);
+        token = signatureVerifier.issue("firebase-123", "bench@example.com", Duration.ofHours(1));
+        cachingVerifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifySignature() {
+        return signatureVerifier.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cachingVerifier.verify(token);
+    }
+}
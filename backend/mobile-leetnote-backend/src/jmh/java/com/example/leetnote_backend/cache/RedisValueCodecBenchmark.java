@@ -0,0 +1,143 @@
+package com.example.leetnote_backend.cache;
+
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.SolutionDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the cached problem values under each Redis value codec
+ * Encoded sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class RedisValueCodecBenchmark {
+
+    @Param({"json", "smile", "smile-lz4"})
+    public String codec;
+
+    private RedisSerializer<Object> pageSerializer;
+    private RedisSerializer<Object> detailSerializer;
+    private Page<ProblemListDTO> page;
+    private ProblemDetailDTO detail;
+    private byte[] encodedPage;
+    private byte[] encodedDetail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        page = samplePage();
+        detail = sampleDetail();
+
+        switch (codec) {
+            case "json" -> {
+                // The previous default config (GenericJackson2JsonRedisSerializer cannot read PageImpl back,
+                // so pages are measured as the same snapshot shape in plain JSON)
+                pageSerializer = new JsonPageSerializer();
+                detailSerializer = new GenericJackson2JsonRedisSerializer();
+            }
+            case "smile" -> {
+                pageSerializer = erase(new PageRedisSerializer<>(ProblemListDTO.class, -1));
+                detailSerializer = erase(new SmileRedisSerializer<>(ProblemDetailDTO.class, -1));
+            }
+            case "smile-lz4" -> {
+                pageSerializer = erase(new PageRedisSerializer<>(ProblemListDTO.class, 1024));
+                detailSerializer = erase(new SmileRedisSerializer<>(ProblemDetailDTO.class, 1024));
+            }
+            default -> throw new IllegalArgumentException(codec);
+        }
+
+        encodedPage = pageSerializer.serialize(page);
+        encodedDetail = detailSerializer.serialize(detail);
+        System.out.printf("%n[%s] page=%d bytes, detail=%d bytes%n", codec, encodedPage.length, encodedDetail.length);
+    }
+
+    @Benchmark
+    public byte[] encodePage() {
+        return pageSerializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object decodePage() {
+        return pageSerializer.deserialize(encodedPage);
+    }
+
+    @Benchmark
+    public byte[] encodeDetail() {
+        return detailSerializer.serialize(detail);
+    }
+
+    @Benchmark
+    public Object decodeDetail() {
+        return detailSerializer.deserialize(encodedDetail);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisSerializer<Object> erase(RedisSerializer<?> serializer) {
+        return (RedisSerializer<Object>) serializer;
+    }
+
+    private static Page<ProblemListDTO> samplePage() {
+        List<ProblemListDTO> content = new ArrayList<>();
+        String[] difficulties = {"Easy", "Medium", "Hard"};
+        for (long i = 1; i <= 20; i++) {
+            content.add(new ProblemListDTO(i, "Problem title number " + i, difficulties[(int) (i % 3)], i % 4 == 0, i % 3 == 0));
+        }
+        return new PageImpl<>(content, PageRequest.of(0, 20), 3_000);
+    }
+
+    private static ProblemDetailDTO sampleDetail() {
+        String description = "Given an array of integers nums and an integer target, return indices of the two numbers "
+                + "such that they add up to target. You may assume that each input would have exactly one solution. ";
+        String code = """
+                def two_sum(nums, target):
+                    seen = {}
+                    for i, n in enumerate(nums):
+                        if target - n in seen:
+                            return [seen[target - n], i]
+                        seen[n] = i
+                """;
+        return new ProblemDetailDTO(1L, "Two Sum", "Easy", description.repeat(4), true, false,
+                new SolutionDTO("Hash map of complements", code, "O(n)", "O(n)"));
+    }
+
+    private static final class JsonPageSerializer implements RedisSerializer<Object> {
+        private final ObjectMapper mapper = new ObjectMapper();
+        private final JavaType type = mapper.getTypeFactory()
+                .constructParametricType(PageRedisSerializer.PageSnapshot.class, ProblemListDTO.class);
+
+        @Override
+        public byte[] serialize(Object value) {
+            Page<?> page = (Page<?>) value;
+            try {
+                return mapper.writeValueAsBytes(new PageRedisSerializer.PageSnapshot<>(
+                        page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements()));
+            } catch (IOException e) {
+                throw new SerializationException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) {
+            try {
+                PageRedisSerializer.PageSnapshot<ProblemListDTO> snapshot = mapper.readValue(bytes, type);
+                return new PageImpl<>(snapshot.content(), PageRequest.of(snapshot.page(), snapshot.size()), snapshot.total());
+            } catch (IOException e) {
+                throw new SerializationException(e.getMessage(), e);
+            }
+        }
+    }
+}
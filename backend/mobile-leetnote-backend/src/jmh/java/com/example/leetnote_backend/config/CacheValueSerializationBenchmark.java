@@ -0,0 +1,102 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.model.DTO.HeatmapDTO;
+import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.SolutionDTO;
+import com.example.leetnote_backend.model.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of a typical value in each Redis cache, with the codec RedisConfig actually
+ * registers for it. Encoded sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CacheValueSerializationBenchmark {
+
+    @Param({"leetcodeApiStats", "userLeetcodeStats", "leetcodeHeatmap", "leetcodeMissingUsers",
+            "problemLists", "problemCatalog", "problemDetails", "problemContent", "users"})
+    public String cache;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        serializer = (RedisSerializer<Object>) RedisConfig.valueSerializers().get(cache);
+        value = switch (cache) {
+            case "leetcodeApiStats", "userLeetcodeStats" -> new LeetcodeStatsDTO("leetnote-user", 412, 180, 190, 42);
+            case "leetcodeHeatmap" -> sampleHeatmap();
+            case "leetcodeMissingUsers" -> Boolean.TRUE;
+            case "problemLists", "problemCatalog" -> samplePage();
+            case "problemDetails", "problemContent" -> sampleDetail();
+            case "users" -> new User(1L, "firebase-uid-0123456789", "leetnote-user", "user@example.com",
+                    LocalDateTime.of(2025, 1, 1, 12, 0), "https://leetcode.com/u/leetnote-user/");
+            default -> throw new IllegalArgumentException(cache);
+        };
+
+        encoded = serializer.serialize(value);
+        System.out.printf("%n[%s] %d bytes%n", cache, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static HeatmapDTO sampleHeatmap() {
+        int[] counts = new int[365];
+        int total = 0;
+        int active = 0;
+        int max = 0;
+        for (int day = 0; day < counts.length; day++) {
+            counts[day] = day % 3 == 0 ? 0 : (day * 7) % 11;
+            total += counts[day];
+            active += counts[day] > 0 ? 1 : 0;
+            max = Math.max(max, counts[day]);
+        }
+        return new HeatmapDTO("leetnote-user", 2025, counts, total, active, max);
+    }
+
+    private static PageImpl<ProblemListDTO> samplePage() {
+        List<ProblemListDTO> content = new ArrayList<>();
+        String[] difficulties = {"Easy", "Medium", "Hard"};
+        for (long i = 1; i <= 20; i++) {
+            content.add(new ProblemListDTO(i, "Problem title number " + i, difficulties[(int) (i % 3)], i % 4 == 0, i % 3 == 0));
+        }
+        return new PageImpl<>(content, PageRequest.of(0, 20), 3_000);
+    }
+
+    private static ProblemDetailDTO sampleDetail() {
+        String description = "Given an array of integers nums and an integer target, return indices of the two numbers "
+                + "such that they add up to target. You may assume that each input would have exactly one solution. ";
+        String code = """
+                def two_sum(nums, target):
+                    seen = {}
+                    for i, n in enumerate(nums):
+                        if target - n in seen:
+                            return [seen[target - n], i]
+                        seen[n] = i
+                """;
+        return new ProblemDetailDTO(1L, "Two Sum", "Easy", description.repeat(4), true, false,
+                new SolutionDTO("Hash map of complements", code, "O(n)", "O(n)"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.db.AdmissionControlledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs. virtual thread request handling under a burst of slow-upstream requests
+ *
+ * Each simulated request makes a blocking outbound call (LeetCode / Together AI latency) and
+ * then holds a database connection briefly behind the admission limit, like getUserStats or an
+ * evaluation. "platform" mirrors Tomcat's default 200-thread pool; "virtual" is what
+ * spring.threads.virtual.enabled=true gives. Score is the wall time to drain the whole burst.
+ * The virtual mode needs JDK 21+ (the app's Java 24 toolchain).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ThreadModeLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"100"})
+    public long outboundMillis;
+
+    @Param({"2"})
+    public long queryMillis;
+
+    private Executor executor;
+    private AdmissionControlledDataSource dataSource;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? new VirtualThreadTaskExecutor("bench-vt-")
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        dataSource = new AdmissionControlledDataSource(new StubDataSource(), POOL_SIZE, Duration.ofSeconds(30));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(outboundMillis);
+                    try (Connection ignored = dataSource.getConnection()) {
+                        Thread.sleep(queryMillis);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return dataSource.getRejected();
+    }
+
+    /**
+     * Hands out inert connections; the query time is simulated by the caller
+     */
+    private static final class StubDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.leetnote_backend.model.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.leetnote_backend.model.entity.ProblemSpecification.*;
+
+/**
+ * Cost of a filtered problem list before any SQL runs: composing the specification the way
+ * ProblemService does, and turning it into a Hibernate criteria query
+ *
+ * The entity model is bootstrapped against an empty in-memory database only so Hibernate has
+ * metadata; nothing is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProblemSpecificationBenchmark {
+
+    private static final Long USER_ID = 1L;
+    private static final String KEYWORD = "two sum ii - input array";
+    private static final List<String> DIFFICULTIES = List.of("Easy", "Medium");
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:spec-bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPersistenceProvider(new HibernatePersistenceProvider());
+        factory.setPackagesToScan(Problem.class.getPackageName());
+        factory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        factory.afterPropertiesSet();
+
+        entityManagerFactory = factory.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Specification<Problem> composeSpecification() {
+        return specification();
+    }
+
+    @Benchmark
+    public TypedQuery<Problem> buildCriteriaQuery() {
+        CriteriaQuery<Problem> query = criteriaBuilder.createQuery(Problem.class);
+        Root<Problem> root = query.from(Problem.class);
+        query.where(specification().toPredicate(root, query, criteriaBuilder));
+        return entityManager.createQuery(query);
+    }
+
+    // Every filter on, as in ProblemService.getAllProblems
+    private static Specification<Problem> specification() {
+        return hasKeyword(KEYWORD)
+                .and(hasDifficulty(DIFFICULTIES))
+                .and(isSolved(true, USER_ID))
+                .and(isFavorited(false, USER_ID));
+    }
+}
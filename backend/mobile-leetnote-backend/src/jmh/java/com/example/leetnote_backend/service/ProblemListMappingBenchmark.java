@@ -0,0 +1,103 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.entity.Problem;
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
+import com.example.leetnote_backend.repository.ProblemRepository;
+import com.example.leetnote_backend.repository.UserProblemStatusRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProblemService.getAllProblems without the database or caches: the user's statuses are turned
+ * into a lookup map and layered onto one page of problems
+ *
+ * The repositories are stubs returning prepared results, so the score is the service's own
+ * mapping work, which grows with how many problems the user has touched (statuses).
+ * "catalog" is the unfiltered path over the shared catalog page, "filtered" the specification path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProblemListMappingBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    @Param({"100", "3000"})
+    public int statuses;
+
+    @Param({"catalog", "filtered"})
+    public String path;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private ProblemService problemService;
+
+    @Setup
+    public void setUp() {
+        List<UserProblemStatus> userStatuses = new ArrayList<>(statuses);
+        for (long problemId = 1; problemId <= statuses; problemId++) {
+            userStatuses.add(new UserProblemStatus(USER_ID, problemId, problemId % 2 == 0, problemId % 5 == 0));
+        }
+        List<Problem> problems = new ArrayList<>();
+        for (long id = 1; id <= pageable.getPageSize(); id++) {
+            Problem problem = new Problem();
+            problem.setId(id);
+            problem.setTitle("Problem title number " + id);
+            problem.setDifficulty(DIFFICULTIES[(int) (id % 3)]);
+            problems.add(problem);
+        }
+        Page<Problem> page = new PageImpl<>(problems, pageable, 3_000);
+
+        ProblemRepository problemRepository = stub(ProblemRepository.class, "findAll", page);
+        problemService = new ProblemService();
+        inject(problemService, "problemRepository", problemRepository);
+        inject(problemService, "userProblemStatusRepository",
+                stub(UserProblemStatusRepository.class, "findAllByUserId", userStatuses));
+        inject(problemService, "problemCatalogService", new ProblemCatalogService(problemRepository));
+    }
+
+    @Benchmark
+    public Page<ProblemListDTO> getAllProblems() {
+        return "catalog".equals(path)
+                ? problemService.getAllProblems(USER_ID, null, null, null, null, pageable)
+                : problemService.getAllProblems(USER_ID, "two sum", List.of("Easy", "Medium"), null, null, pageable);
+    }
+
+    // ProblemService takes its collaborators by field injection
+    private static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * Repository stand-in answering a single method (any overload) with a fixed result
+     */
+    private static <T> T stub(Class<T> type, String methodName, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals(methodName)) {
+                        return result;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.leetnote_backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the model's evaluation out of its raw output
+ *
+ * "json" is a clean reply, "wrapped" the usual prose and code fence around it, "invalid" falls
+ * back to the default evaluation. Its warning is switched off in the benchmark logback.xml, so
+ * neither the terminal nor the log message is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TogetherAiResponseBenchmark {
+
+    private static final String EVALUATION = """
+            {"rating": 3,
+             "issue": ["Does not handle the case where no pair adds up to target"],
+             "feedback": ["Return an empty result after the loop", "Name the map after what it stores"]}
+            """;
+
+    @Param({"json", "wrapped", "invalid"})
+    public String output;
+
+    private final TogetherAiService service = new TogetherAiService();
+    private String rawOutput;
+
+    @Setup
+    public void setUp() {
+        rawOutput = switch (output) {
+            case "json" -> EVALUATION;
+            case "wrapped" -> "Here is my evaluation of the pseudocode:\n\n```json\n" + EVALUATION
+                    + "```\n\nLet me know if you have questions.";
+            case "invalid" -> "I cannot evaluate this submission {rating: three";
+            default -> throw new IllegalArgumentException(output);
+        };
+    }
+
+    @Benchmark
+    public Map<String, Object> parseResponse() {
+        return service.parseResponse(rawOutput);
+    }
+}
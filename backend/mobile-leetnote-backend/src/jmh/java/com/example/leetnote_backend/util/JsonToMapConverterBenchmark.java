@@ -0,0 +1,56 @@
+package com.example.leetnote_backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON column round trips through JsonToMapConverter, sized like a submission calendar
+ * (epoch-second day keys to counts) from a few weeks up to a full year of activity
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonToMapConverterBenchmark {
+
+    @Param({"30", "365"})
+    public int entries;
+
+    private final JsonToMapConverter converter = new JsonToMapConverter();
+    private Map<String, Integer> calendar;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        calendar = new LinkedHashMap<>();
+        long day = 1_704_067_200L;
+        for (int i = 0; i < entries; i++) {
+            calendar.put(Long.toString(day + i * 86_400L), 1 + i % 7);
+        }
+        json = converter.convertToDatabaseColumn(calendar);
+    }
+
+    @Benchmark
+    public String toColumn() {
+        return converter.convertToDatabaseColumn(calendar);
+    }
+
+    @Benchmark
+    public Map<String, Integer> fromColumn() {
+        return converter.convertToEntityAttribute(json);
+    }
+
+    @Benchmark
+    public Map<String, Integer> roundTrip() {
+        return converter.convertToEntityAttribute(converter.convertToDatabaseColumn(calendar));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.leetnote_backend.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the evaluation prompt for a problem description and a user's pseudocode
+ * descriptionRepeats scales the description from a short statement to a long one with examples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PromptBuilderBenchmark {
+
+    @Param({"1", "10"})
+    public int descriptionRepeats;
+
+    private final PromptBuilder promptBuilder = new PromptBuilder();
+    private String problemText;
+    private String pseudocode;
+
+    @Setup
+    public void setUp() {
+        problemText = ("Given an array of integers nums and an integer target, return indices of the two numbers "
+                + "such that they add up to target. You may assume that each input would have exactly one solution, "
+                + "and you may not use the same element twice. ").repeat(descriptionRepeats);
+        pseudocode = """
+                create empty map seen
+                for i from 0 to length of nums - 1:
+                    complement = target - nums[i]
+                    if complement in seen:
+                        return [seen[complement], i]
+                    seen[nums[i]] = i
+                return []
+                """;
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return promptBuilder.buildPrompt(problemText, pseudocode);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.leetnote_backend.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills the app's database with problems and load-test users before anything else runs
+ *
+ * Registered into the app's context and ordered ahead of ProblemCacheWarmer, so warm-up caches
+ * the seeded catalog rather than an empty one. Existing data is kept: problems are only added to
+ * an empty catalog, and only missing load-test users (and their LeetCode profiles) are created.
+ */
+class DataSeeder implements ApplicationRunner, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+    private static final String[] TOPICS = {"array", "tree", "sum", "string", "graph", "window", "heap", "interval"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int problems;
+    private final int users;
+    private volatile List<Long> problemIds = List.of();
+
+    DataSeeder(DataSource dataSource, int problems, int users) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.problems = problems;
+        this.users = users;
+    }
+
+    static String firebaseUid(int user) {
+        return "load-user-" + user;
+    }
+
+    static String email(int user) {
+        return "load-user-" + user + "@loadtest.local";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM problems", Integer.class);
+        if (existing == null || existing == 0) {
+            seedProblems();
+        }
+        seedUsers();
+        problemIds = jdbcTemplate.queryForList("SELECT id FROM problems ORDER BY id", Long.class);
+        log.info("Load-test data ready: {} problems, {} users", problemIds.size(), users);
+    }
+
+    List<Long> problemIds() {
+        return problemIds;
+    }
+
+    private void seedProblems() {
+        String json = jsonParameter();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= problems; i++) {
+            String topic = TOPICS[i % TOPICS.length];
+            rows.add(new Object[]{
+                    "Load test " + topic + " problem " + i,
+                    "load-test-" + topic + "-" + i,
+                    DIFFICULTIES[i % DIFFICULTIES.length],
+                    description(topic, i),
+                    """
+                    {"approach": "Walk the %s once, keeping what was seen in a hash map",
+                     "code": "seen = {}\\nfor i, x in enumerate(items):\\n    if target - x in seen:\\n        return [seen[target - x], i]\\n    seen[x] = i",
+                     "time_complexity": "O(n)", "space_complexity": "O(n)"}
+                    """.formatted(topic)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO problems (title, slug, difficulty, description, solution) "
+                + "VALUES (?, ?, ?, ?, " + json + ")", rows);
+
+        List<Object[]> examples = new ArrayList<>();
+        List<Object[]> constraints = new ArrayList<>();
+        int row = 1;
+        for (Long problemId : jdbcTemplate.queryForList("SELECT id FROM problems ORDER BY id", Long.class)) {
+            for (int k = 1; k <= 2; k++, row++) {
+                examples.add(new Object[]{row, problemId, "nums = [2,7,11,15], target = " + (9 + k), "[0," + k + "]",
+                        "Because nums[0] + nums[" + k + "] == " + (9 + k)});
+                constraints.add(new Object[]{row, problemId, k == 1 ? "2 <= nums.length <= 10^4" : "-10^9 <= nums[i] <= 10^9"});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO examples (id, problem_id, input, output, explanation) VALUES (?, ?, ?, ?, ?)",
+                examples);
+        jdbcTemplate.batchUpdate("INSERT INTO constraints (id, problem_id, constraint_text) VALUES (?, ?, ?)",
+                constraints);
+    }
+
+    /**
+     * Users load-user-0..n-1, each linked to a LeetCode account the stub knows; the profiles
+     * start without stats or heatmap, so first views and refreshes go out to LeetCode
+     */
+    private void seedUsers() {
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT firebase_uid FROM users WHERE firebase_uid LIKE 'load-user-%'", String.class));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            if (!present.contains(firebaseUid(i))) {
+                rows.add(new Object[]{firebaseUid(i), "load_user_" + i, email(i)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (firebase_uid, username, email) VALUES (?, ?, ?)", rows);
+
+        // user_leetcode_profiles.id has no default in the schema, so ids continue from the current maximum
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM user_leetcode_profiles", Long.class);
+        List<Object[]> profiles = new ArrayList<>();
+        long nextId = maxId == null ? 1 : maxId + 1;
+        for (var user : jdbcTemplate.queryForList("SELECT u.id, u.username FROM users u "
+                + "WHERE u.firebase_uid LIKE 'load-user-%' "
+                + "AND NOT EXISTS (SELECT 1 FROM user_leetcode_profiles p WHERE p.user_id = u.id)")) {
+            profiles.add(new Object[]{nextId++, user.get("id"), "lc_" + user.get("username")});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_leetcode_profiles (id, user_id, leetcode_username, last_updated) "
+                + "VALUES (?, ?, ?, NULL)", profiles);
+    }
+
+    private String jsonParameter() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "H2".equals(product) ? "? FORMAT JSON" : "CAST(? AS jsonb)";
+    }
+
+    private static String description(String topic, int i) {
+        return ("Given an %s of integers and a target, return the positions of the two elements that add up to "
+                + "the target (problem %d). Each input has exactly one solution and the same element may not "
+                + "be used twice. Return the answer in any order. ").formatted(topic, i).repeat(5);
+    }
+}
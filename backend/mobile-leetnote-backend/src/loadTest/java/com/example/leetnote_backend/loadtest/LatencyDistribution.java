@@ -0,0 +1,83 @@
+package com.example.leetnote_backend.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random delay in milliseconds, parsed from a short spec:
+ *
+ * none | fixed:200 | uniform:100-400 | exponential:500 (mean) | lognormal:800,3000 (median, p99)
+ *
+ * Log-normal fits upstream latency well: most calls near the median with a long right tail.
+ */
+public final class LatencyDistribution {
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final String spec;
+    private final Sampler sampler;
+
+    private LatencyDistribution(String spec, Sampler sampler) {
+        this.spec = spec;
+        this.sampler = sampler;
+    }
+
+    public static LatencyDistribution parse(String spec) {
+        String trimmed = spec.trim();
+        int colon = trimmed.indexOf(':');
+        String kind = colon < 0 ? trimmed : trimmed.substring(0, colon);
+        String args = colon < 0 ? "" : trimmed.substring(colon + 1);
+        try {
+            return switch (kind) {
+                case "none" -> new LatencyDistribution(trimmed, random -> 0);
+                case "fixed" -> {
+                    long millis = Long.parseLong(args);
+                    yield new LatencyDistribution(trimmed, random -> millis);
+                }
+                case "uniform" -> {
+                    String[] bounds = args.split("-");
+                    long min = Long.parseLong(bounds[0]);
+                    long max = Long.parseLong(bounds[1]);
+                    yield new LatencyDistribution(trimmed, random -> random.nextLong(min, max + 1));
+                }
+                case "exponential" -> {
+                    double mean = Double.parseDouble(args);
+                    yield new LatencyDistribution(trimmed, random -> Math.round(-mean * Math.log(1 - random.nextDouble())));
+                }
+                case "lognormal" -> {
+                    String[] params = args.split(",");
+                    double mu = Math.log(Double.parseDouble(params[0]));
+                    double sigma = (Math.log(Double.parseDouble(params[1])) - mu) / Z_99;
+                    yield new LatencyDistribution(trimmed, random -> Math.round(Math.exp(mu + sigma * random.nextGaussian())));
+                }
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed latency distribution: " + spec, e);
+        }
+    }
+
+    public long sampleMillis() {
+        return Math.max(0, sampler.sample(ThreadLocalRandom.current()));
+    }
+
+    /**
+     * Sleep for one sampled delay
+     */
+    public void pause() throws InterruptedException {
+        long millis = sampleMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    @FunctionalInterface
+    private interface Sampler {
+        long sample(ThreadLocalRandom random);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.leetnote_backend.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint response times and outcomes, kept exactly (every sample) so the reported
+ * percentiles are not bucket approximations. Only requests started inside the measurement
+ * window are recorded, so warm-up traffic does not count.
+ */
+final class LatencyRecorder {
+
+    static final String TOTAL = "total";
+
+    private final Map<String, EndpointSamples> endpoints = new ConcurrentHashMap<>();
+    private final EndpointSamples total = new EndpointSamples();
+    private final long measureFromNanos;
+    private final long measureUntilNanos;
+
+    LatencyRecorder(long measureFromNanos, long measureUntilNanos) {
+        this.measureFromNanos = measureFromNanos;
+        this.measureUntilNanos = measureUntilNanos;
+    }
+
+    void record(String endpoint, int status, long startNanos, long endNanos) {
+        if (inWindow(startNanos)) {
+            add(endpoint, endNanos - startNanos, Outcome.of(status));
+        }
+    }
+
+    /**
+     * No response at all: connection refused, reset or timed out
+     */
+    void recordFailure(String endpoint, long startNanos, long endNanos) {
+        if (inWindow(startNanos)) {
+            add(endpoint, endNanos - startNanos, Outcome.FAILED);
+        }
+    }
+
+    /**
+     * One summary per endpoint, busiest first
+     */
+    List<EndpointSummary> summarize() {
+        double seconds = measuredSeconds();
+        return endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().summarize(entry.getKey(), seconds))
+                .sorted((a, b) -> Long.compare(b.requests(), a.requests()))
+                .toList();
+    }
+
+    /**
+     * All endpoints together
+     */
+    EndpointSummary summarizeTotal() {
+        return total.summarize(TOTAL, measuredSeconds());
+    }
+
+    private double measuredSeconds() {
+        return (measureUntilNanos - measureFromNanos) / 1e9;
+    }
+
+    private boolean inWindow(long startNanos) {
+        return startNanos >= measureFromNanos && startNanos < measureUntilNanos;
+    }
+
+    private void add(String endpoint, long elapsedNanos, Outcome outcome) {
+        endpoints.computeIfAbsent(endpoint, name -> new EndpointSamples()).add(elapsedNanos, outcome);
+        total.add(elapsedNanos, outcome);
+    }
+
+    enum Outcome {
+        OK, CLIENT_ERROR, SERVER_ERROR, FAILED;
+
+        static Outcome of(int status) {
+            if (status >= 500) {
+                return SERVER_ERROR;
+            }
+            return status >= 400 ? CLIENT_ERROR : OK;
+        }
+    }
+
+    record EndpointSummary(String endpoint, long requests, long ok, long clientErrors, long serverErrors,
+                           long failed, double throughputPerSecond,
+                           double p50Ms, double p90Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    private static final class EndpointSamples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private final long[] outcomes = new long[Outcome.values().length];
+
+        synchronized void add(long elapsedNanos, Outcome outcome) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = elapsedNanos;
+            outcomes[outcome.ordinal()]++;
+        }
+
+        synchronized EndpointSummary summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointSummary(endpoint, size,
+                    outcomes[Outcome.OK.ordinal()],
+                    outcomes[Outcome.CLIENT_ERROR.ordinal()],
+                    outcomes[Outcome.SERVER_ERROR.ordinal()],
+                    outcomes[Outcome.FAILED.ordinal()],
+                    seconds > 0 ? size / seconds : 0,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        // Nearest-rank percentile in milliseconds
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.leetnote_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * LeetCode GraphQL stand-in for the queries LeetcodeCacheService sends
+ *
+ * Answers both the single getUserProfile query ($username) and the aliased batch query
+ * (u0: matchedUser(username: $u0) ...), with the calendar only when userCalendar is selected.
+ * Profiles are derived from the username, so repeated lookups see stable numbers; usernames
+ * starting with "missing-" do not exist.
+ */
+class LeetcodeStub extends StubServer {
+
+    static final String MISSING_PREFIX = "missing-";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    LeetcodeStub(LatencyDistribution latency) throws IOException {
+        super("/graphql", latency);
+    }
+
+    @Override
+    String name() {
+        return "leetcode";
+    }
+
+    @Override
+    byte[] respond(byte[] requestBody) throws IOException {
+        JsonNode request = MAPPER.readTree(requestBody);
+        String query = request.path("query").asText();
+        JsonNode variables = request.path("variables");
+        boolean withCalendar = query.contains("userCalendar");
+
+        ObjectNode data = MAPPER.createObjectNode();
+        if (variables.has("username")) {
+            data.set("matchedUser", matchedUser(variables.get("username").asText(), withCalendar));
+        } else {
+            for (Map.Entry<String, JsonNode> alias : variables.properties()) {
+                data.set(alias.getKey(), matchedUser(alias.getValue().asText(), withCalendar));
+            }
+        }
+        return MAPPER.writeValueAsBytes(Map.of("data", data));
+    }
+
+    private static JsonNode matchedUser(String username, boolean withCalendar) throws IOException {
+        if (username.startsWith(MISSING_PREFIX)) {
+            return MAPPER.nullNode();
+        }
+        SplittableRandom random = new SplittableRandom(username.hashCode());
+        int easy = random.nextInt(20, 400);
+        int medium = random.nextInt(10, 600);
+        int hard = random.nextInt(0, 150);
+
+        ObjectNode user = MAPPER.createObjectNode();
+        ObjectNode submitStats = user.putObject("submitStats");
+        var counts = submitStats.putArray("acSubmissionNum");
+        counts.add(count("All", easy + medium + hard));
+        counts.add(count("Easy", easy));
+        counts.add(count("Medium", medium));
+        counts.add(count("Hard", hard));
+
+        if (withCalendar) {
+            // A year of activity: most days idle, bursts of a few submissions otherwise
+            Map<String, Integer> calendar = new LinkedHashMap<>();
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            for (int day = 0; day < 365; day++) {
+                if (random.nextInt(3) == 0) {
+                    long epochSeconds = today.minusDays(day).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+                    calendar.put(Long.toString(epochSeconds), random.nextInt(1, 12));
+                }
+            }
+            user.putObject("userCalendar").put("submissionCalendar", MAPPER.writeValueAsString(calendar));
+        }
+        return user;
+    }
+
+    private static ObjectNode count(String difficulty, int count) {
+        return MAPPER.createObjectNode()
+                .put("difficulty", difficulty)
+                .put("count", count)
+                .put("submissions", count * 2);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.leetnote_backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one run: the settings it ran with, per-endpoint throughput and latency percentiles,
+ * and how often each stub was called. Printed as a table and written as JSON for comparing runs.
+ */
+record LoadReport(
+        Map<String, Object> settings,
+        LatencyRecorder.EndpointSummary total,
+        List<LatencyRecorder.EndpointSummary> endpoints,
+        Map<String, StubStats> stubs) {
+
+    private static final String ROW = "%-20s %9s %9s %7s %7s %7s %9s %9s %9s %9s %9s%n";
+
+    void print(PrintStream out) {
+        out.printf("%nLoad test: %s%n%n", settings);
+        out.printf(ROW, "endpoint", "requests", "req/s", "4xx", "5xx", "failed", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.EndpointSummary endpoint : endpoints) {
+            printRow(out, endpoint);
+        }
+        printRow(out, total);
+        out.printf("%nStubs: %s%n", stubs);
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    private static void printRow(PrintStream out, LatencyRecorder.EndpointSummary summary) {
+        out.printf(ROW, summary.endpoint(), summary.requests(), "%.1f".formatted(summary.throughputPerSecond()),
+                summary.clientErrors(), summary.serverErrors(), summary.failed(),
+                ms(summary.p50Ms()), ms(summary.p90Ms()), ms(summary.p95Ms()), ms(summary.p99Ms()), ms(summary.maxMs()));
+    }
+
+    private static String ms(double millis) {
+        return "%.1f".formatted(millis);
+    }
+
+    record StubStats(long requests, long failures, String latency) {
+
+        static StubStats of(StubServer stub) {
+            return new StubStats(stub.requests(), stub.failures(), stub.latency().toString());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.leetnote_backend.loadtest;
+
+import com.example.leetnote_backend.LeetnoteBackendApplication;
+import com.example.leetnote_backend.auth.LocalIdTokenVerifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the backend with every external dependency replaced locally
+ *
+ * Starts the Together and LeetCode stubs, boots the app against them (tokens verified with a
+ * local key pair instead of Firebase, embedded H2 unless loadtest.app.spring.datasource.url says
+ * otherwise), seeds problems and users, and then
+ * runs closed-loop virtual users through the traffic mix: each sends a request, waits for the
+ * response, pauses for a think time and repeats. Results are reported per endpoint.
+ *
+ * Redis is not stubbed: caches, rate limits and leases need a real server at SPRING_REDIS_HOST
+ * (localhost by default), and the app fails to serve without one.
+ *
+ * Evaluations the app writes during the run only read back on PostgreSQL (the jsonb mapping
+ * does not round-trip through H2), so on embedded H2 the default mix drops the evaluations.*
+ * operations and the report's mix says so; pass a PostgreSQL datasource to measure them.
+ * 404s from evaluations.last are expected for problems not yet evaluated.
+ *
+ * Run with ./gradlew loadTest; see LoadTestSettings for the options.
+ */
+public final class LoadTestHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private static final String PROJECT_ID = "leetnote-loadtest";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LocalIdTokenVerifier tokenIssuer = LocalIdTokenVerifier.withGeneratedKey(PROJECT_ID);
+
+        try (TogetherStub together = new TogetherStub(settings.togetherLatency(), settings.togetherResponses());
+             LeetcodeStub leetcode = new LeetcodeStub(settings.leetcodeLatency());
+             ConfigurableApplicationContext app = startApp(settings, together, leetcode, tokenIssuer)) {
+
+            URI baseUri = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port"));
+            List<Long> problemIds = app.getBean(DataSeeder.class).problemIds();
+            if (problemIds.isEmpty()) {
+                throw new IllegalStateException("No problems to request");
+            }
+
+            LatencyRecorder recorder = run(settings, new TrafficMix.Target(baseUri, problemIds), tokenIssuer);
+
+            LoadReport report = new LoadReport(
+                    describe(settings),
+                    recorder.summarizeTotal(),
+                    recorder.summarize(),
+                    stubStats(together, leetcode));
+            report.print(System.out);
+            report.write(settings.report());
+            log.info("Report written to {}", settings.report().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApp(LoadTestSettings settings, TogetherStub together,
+                                                           LeetcodeStub leetcode, LocalIdTokenVerifier tokenIssuer) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("management.server.port", "0");
+        properties.put("auth.provider", "local");
+        properties.put("auth.local.project-id", PROJECT_ID);
+        properties.put("auth.local.public-key", tokenIssuer.encodedPublicKey());
+        properties.put("together.api.url", together.apiUrl());
+        properties.put("together.api.key", "load-test");
+        properties.put("leetcode.api.base-url", leetcode.baseUrl());
+        if (settings.embeddedDatabase()) {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        properties.putAll(settings.appProperties());
+
+        // As command-line arguments they take precedence over application.properties and the environment
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(LeetnoteBackendApplication.class)
+                .initializers(context -> ((GenericApplicationContext) context).registerBean(DataSeeder.class,
+                        () -> new DataSeeder(context.getBean(DataSource.class), settings.problems(), settings.users())))
+                .run(args);
+    }
+
+    private static LatencyRecorder run(LoadTestSettings settings, TrafficMix.Target target,
+                                       LocalIdTokenVerifier tokenIssuer) throws InterruptedException {
+        Duration validFor = settings.warmup().plus(settings.duration()).plusHours(1);
+        List<String> tokens = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            tokens.add(tokenIssuer.issue(DataSeeder.firebaseUid(i), DataSeeder.email(i), validFor));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long measureFrom = System.nanoTime() + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        LatencyRecorder recorder = new LatencyRecorder(measureFrom, end);
+
+        log.info("Warming up for {}s, then measuring for {}s with {} virtual users (mix {})",
+                settings.warmup().toSeconds(), settings.duration().toSeconds(), settings.concurrency(), settings.mix());
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(settings.concurrency());
+        for (int i = 0; i < settings.concurrency(); i++) {
+            int slot = i;
+            virtualUsers.execute(() -> {
+                int account = slot % tokens.size();
+                while (System.nanoTime() < end) {
+                    if (!send(client, settings.mix(), target, tokens.get(account), recorder)) {
+                        return;
+                    }
+                    // Each virtual user takes turns among its share of the accounts, so per-user
+                    // caches and rows see as many distinct users as the real app would
+                    account = (account + settings.concurrency()) % tokens.size();
+                    try {
+                        settings.thinkTime().pause();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+        virtualUsers.shutdown();
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime()) + REQUEST_TIMEOUT.toMillis();
+        if (!virtualUsers.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)) {
+            virtualUsers.shutdownNow();
+        }
+        return recorder;
+    }
+
+    /**
+     * One request of the mix; false once the thread has been interrupted
+     */
+    private static boolean send(HttpClient client, TrafficMix mix, TrafficMix.Target target, String token,
+                                LatencyRecorder recorder) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TrafficMix.Operation operation = mix.next(random);
+        HttpRequest request = operation.requests().create(target, random)
+                .header("Authorization", "Bearer " + token)
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            recorder.record(operation.name(), response.statusCode(), startNanos, System.nanoTime());
+        } catch (IOException e) {
+            recorder.recordFailure(operation.name(), startNanos, System.nanoTime());
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private static Map<String, Object> describe(LoadTestSettings settings) {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("warmupSeconds", settings.warmup().toSeconds());
+        described.put("durationSeconds", settings.duration().toSeconds());
+        described.put("concurrency", settings.concurrency());
+        described.put("users", settings.users());
+        described.put("database", settings.embeddedDatabase() ? "embedded H2" : "external");
+        described.put("mix", settings.mix().toString());
+        described.put("thinkTime", settings.thinkTime().toString());
+        described.put("togetherLatency", settings.togetherLatency().toString());
+        described.put("leetcodeLatency", settings.leetcodeLatency().toString());
+        return described;
+    }
+
+    private static Map<String, LoadReport.StubStats> stubStats(StubServer... stubs) {
+        Map<String, LoadReport.StubStats> stats = new LinkedHashMap<>();
+        for (StubServer stub : stubs) {
+            stats.put(stub.name(), LoadReport.StubStats.of(stub));
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.leetnote_backend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Harness options, read from loadtest.* system properties (./gradlew loadTest -Ploadtest.<name>=...)
+ *
+ * loadtest.app.<property> overrides any application property of the app under test, e.g.
+ * loadtest.app.spring.datasource.url to run against a real database instead of embedded H2.
+ * On embedded H2 the default mix leaves out the evaluation operations, see LoadTestHarness.
+ */
+record LoadTestSettings(
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        int users,
+        int problems,
+        TrafficMix mix,
+        LatencyDistribution thinkTime,
+        LatencyDistribution togetherLatency,
+        LatencyDistribution leetcodeLatency,
+        Path togetherResponses,
+        Path report,
+        Map<String, String> appProperties) {
+
+    private static final String PREFIX = "loadtest.";
+    private static final String APP_PREFIX = PREFIX + "app.";
+
+    static LoadTestSettings fromSystemProperties() {
+        Properties props = System.getProperties();
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                appProperties.put(name.substring(APP_PREFIX.length()), props.getProperty(name));
+            }
+        }
+        String togetherResponses = props.getProperty(PREFIX + "together-responses");
+        return new LoadTestSettings(
+                Duration.ofSeconds(Long.parseLong(props.getProperty(PREFIX + "warmup-seconds", "15"))),
+                Duration.ofSeconds(Long.parseLong(props.getProperty(PREFIX + "duration-seconds", "60"))),
+                Integer.parseInt(props.getProperty(PREFIX + "concurrency", "50")),
+                Integer.parseInt(props.getProperty(PREFIX + "users", "500")),
+                Integer.parseInt(props.getProperty(PREFIX + "problems", "300")),
+                mix(props.getProperty(PREFIX + "mix", "mobile"), !appProperties.containsKey("spring.datasource.url")),
+                // Pause between a user's requests (reading a problem, typing pseudocode)
+                LatencyDistribution.parse(props.getProperty(PREFIX + "think-time", "exponential:500")),
+                // Small-model chat completion: about a second, with a multi-second tail
+                LatencyDistribution.parse(props.getProperty(PREFIX + "together-latency", "lognormal:1200,5000")),
+                LatencyDistribution.parse(props.getProperty(PREFIX + "leetcode-latency", "lognormal:150,800")),
+                togetherResponses == null || togetherResponses.isBlank() ? null : Path.of(togetherResponses),
+                Path.of(props.getProperty(PREFIX + "report", "build/reports/loadtest/summary.json")),
+                appProperties);
+    }
+
+    /**
+     * Whether the app runs on embedded H2 rather than the database named by loadtest.app.spring.datasource.url
+     */
+    boolean embeddedDatabase() {
+        return !appProperties.containsKey("spring.datasource.url");
+    }
+
+    // Evaluations do not read back on H2, so the default mix only measures them on a real database;
+    // a mix that names them explicitly is run as given
+    private static TrafficMix mix(String spec, boolean embeddedDatabase) {
+        TrafficMix mix = TrafficMix.parse(spec);
+        return embeddedDatabase && mix.isDefault() ? mix.without("evaluations.") : mix;
+    }
+}
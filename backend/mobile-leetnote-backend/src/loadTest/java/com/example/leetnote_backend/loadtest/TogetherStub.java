@@ -0,0 +1,84 @@
+package com.example.leetnote_backend.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Together chat-completions stand-in that replays recorded response bodies in rotation
+ *
+ * With no directory given, the bundled responses are used: well-formed ratings plus the
+ * prose-wrapped and unparseable outputs the small model produces now and then.
+ */
+class TogetherStub extends StubServer {
+
+    static final String PATH = "/v1/chat/completions";
+
+    private static final List<String> BUNDLED = List.of(
+            "rating-2.json", "rating-4.json", "rating-1.json", "rating-5.json", "wrapped.json", "invalid.json");
+
+    private final List<byte[]> responses;
+    private final AtomicInteger next = new AtomicInteger();
+
+    TogetherStub(LatencyDistribution latency, Path responseDir) throws IOException {
+        super(PATH, latency);
+        this.responses = responseDir == null ? bundled() : load(responseDir);
+    }
+
+    @Override
+    String name() {
+        return "together";
+    }
+
+    @Override
+    byte[] respond(byte[] requestBody) {
+        return responses.get(Math.floorMod(next.getAndIncrement(), responses.size()));
+    }
+
+    String apiUrl() {
+        return baseUrl() + PATH;
+    }
+
+    int responseCount() {
+        return responses.size();
+    }
+
+    private static List<byte[]> bundled() throws IOException {
+        List<byte[]> bodies = new ArrayList<>();
+        for (String name : BUNDLED) {
+            try (InputStream in = TogetherStub.class.getResourceAsStream("/loadtest/together/" + name)) {
+                if (in == null) {
+                    throw new IOException("Missing bundled Together response " + name);
+                }
+                bodies.add(in.readAllBytes());
+            }
+        }
+        return bodies;
+    }
+
+    private static List<byte[]> load(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<byte[]> bodies = files
+                    .filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .map(file -> {
+                        try {
+                            return Files.readAllBytes(file);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+            if (bodies.isEmpty()) {
+                throw new IOException("No *.json Together responses in " + dir);
+            }
+            return bodies;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.leetnote_backend.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted mix of the requests the mobile app sends, one entry per endpoint
+ *
+ * "mobile" is the default: mostly browsing the catalog and opening problems, some status toggles
+ * and LeetCode stats, and the occasional pseudocode evaluation (the only Together call). Custom
+ * mixes name the operations to run with their weights, e.g. "problems.detail:3,evaluations.create:1".
+ */
+final class TrafficMix {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] KEYWORDS = {"array", "tree", "sum", "string", "graph", "window"};
+
+    private static final String[] PSEUDOCODE = {
+            """
+            create an empty map from value to index
+            for each index i and value v in nums:
+                if target - v is in the map, return [map[target - v], i]
+                store map[v] = i
+            """,
+            """
+            sort the intervals by start
+            walk them keeping the last merged interval; extend it when the next one overlaps,
+            otherwise append the next one to the result
+            """,
+            "use a while loop",
+    };
+
+    private static final Map<String, Operation> OPERATIONS = new LinkedHashMap<>();
+
+    static {
+        define("problems.catalog", 30, (target, random) ->
+                get(target, "/problems?page=" + skewed(random, 5, 2) + "&size=20"));
+        define("problems.search", 8, (target, random) ->
+                get(target, "/problems?keyword=" + KEYWORDS[random.nextInt(KEYWORDS.length)]
+                        + "&difficulties=Easy&difficulties=Medium&page=0&size=20"));
+        define("problems.filter", 4, (target, random) ->
+                get(target, "/problems?" + (random.nextBoolean() ? "isSolved=true" : "isFavorite=true") + "&page=0&size=20"));
+        define("problems.detail", 25, (target, random) ->
+                get(target, "/problems/" + target.popularProblem(random)));
+        define("problems.status", 6, (target, random) ->
+                HttpRequest.newBuilder(target.uri("/problems/" + target.popularProblem(random)
+                                + "/status?isSolved=" + random.nextBoolean() + "&isFavorite=" + random.nextBoolean()))
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+        define("evaluations.all", 5, (target, random) -> get(target, "/evaluations/all"));
+        define("evaluations.last", 4, (target, random) ->
+                get(target, "/evaluations/last?problemId=" + target.popularProblem(random)));
+        define("evaluations.create", 3, (target, random) ->
+                HttpRequest.newBuilder(target.uri("/evaluations"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json(Map.of(
+                                "problemId", target.popularProblem(random),
+                                "solutionText", PSEUDOCODE[random.nextInt(PSEUDOCODE.length)])))));
+        define("leetcode.profile", 7, (target, random) -> get(target, "/api/leetcode/profile"));
+        define("leetcode.heatmap", 4, (target, random) -> get(target, "/api/leetcode/heatmap"));
+        define("leetcode.history", 1, (target, random) -> get(target, "/api/leetcode/history"));
+        define("leetcode.refresh", 1, (target, random) ->
+                HttpRequest.newBuilder(target.uri("/api/leetcode/refresh")).POST(HttpRequest.BodyPublishers.noBody()));
+        define("users.profile", 2, (target, random) -> get(target, "/api/users/profile"));
+    }
+
+    private final String spec;
+    private final List<Operation> operations;
+    private final int totalWeight;
+
+    private TrafficMix(String spec, List<Operation> operations) {
+        this.spec = spec;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Traffic mix has no weight: " + spec);
+        }
+    }
+
+    /**
+     * This mix minus the operations whose name starts with prefix, e.g. "evaluations."
+     */
+    TrafficMix without(String prefix) {
+        return new TrafficMix(spec + " without " + prefix + "*", operations.stream()
+                .filter(operation -> !operation.name().startsWith(prefix))
+                .toList());
+    }
+
+    boolean isDefault() {
+        return spec.equals("mobile");
+    }
+
+    static TrafficMix parse(String spec) {
+        if (spec.equals("mobile")) {
+            return new TrafficMix(spec, List.copyOf(OPERATIONS.values()));
+        }
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Operation operation = OPERATIONS.get(parts[0]);
+            if (operation == null || parts.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry '" + entry + "', expected <operation>:<weight> with "
+                        + "operation one of " + OPERATIONS.keySet());
+            }
+            operations.add(new Operation(operation.name(), Integer.parseInt(parts[1]), operation.requests()));
+        }
+        return new TrafficMix(spec, operations);
+    }
+
+    Operation next(ThreadLocalRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    List<Operation> operations() {
+        return operations;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private static void define(String name, int weight, RequestFactory requests) {
+        OPERATIONS.put(name, new Operation(name, weight, requests));
+    }
+
+    private static HttpRequest.Builder get(Target target, String path) {
+        return HttpRequest.newBuilder(target.uri(path)).GET();
+    }
+
+    // Index in [0, bound), biased towards 0 the way views fall off; higher exponents skew harder
+    private static int skewed(ThreadLocalRandom random, int bound, int exponent) {
+        return (int) (bound * Math.pow(random.nextDouble(), exponent));
+    }
+
+    private static String json(Map<String, Object> body) {
+        try {
+            return MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record Operation(String name, int weight, RequestFactory requests) {
+    }
+
+    /**
+     * Request for one operation, without the Authorization header (added per virtual user)
+     */
+    @FunctionalInterface
+    interface RequestFactory {
+        HttpRequest.Builder create(Target target, ThreadLocalRandom random);
+    }
+
+    /**
+     * The app under test and the problems it serves
+     */
+    record Target(URI baseUri, List<Long> problemIds) {
+
+        URI uri(String path) {
+            return baseUri.resolve(path);
+        }
+
+        // A few problems get most of the views
+        long popularProblem(ThreadLocalRandom random) {
+            return problemIds.get(skewed(random, problemIds.size(), 3));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.leetnote_backend.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Remembers successfully verified tokens until they expire
+ *
+ * A repeat request with the same token costs a SHA-256 and a map lookup instead of a
+ * signature check. Tokens are keyed by their hash so raw credentials are never retained;
+ * each entry lives exactly until the token's own exp claim. Failures are never cached.
+ */
+public class CachingIdTokenVerifier implements IdTokenVerifier {
+
+    private final IdTokenVerifier delegate;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> verified;
+
+    public CachingIdTokenVerifier(IdTokenVerifier delegate, long maximumSize) {
+        this(delegate, maximumSize, Clock.systemUTC());
+    }
+
+    CachingIdTokenVerifier(IdTokenVerifier delegate, long maximumSize, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<String, VerifiedToken>creating((hash, token) -> timeLeft(token)))
+                .build();
+    }
+
+    @Override
+    public VerifiedToken verify(String idToken) {
+        if (idToken == null || idToken.isBlank()) {
+            return delegate.verify(idToken);
+        }
+
+        String hash = sha256(idToken);
+        VerifiedToken cached = verified.getIfPresent(hash);
+        // Caffeine's expiry uses its own ticker; re-check against the wall clock the exp claim is in
+        if (cached != null && isLive(cached)) {
+            return cached;
+        }
+
+        VerifiedToken token = delegate.verify(idToken);
+        if (isLive(token)) {
+            verified.put(hash, token);
+        }
+        return token;
+    }
+
+    long size() {
+        verified.cleanUp();
+        return verified.estimatedSize();
+    }
+
+    private boolean isLive(VerifiedToken token) {
+        return token.expiresAt().isAfter(clock.instant());
+    }
+
+    private Duration timeLeft(VerifiedToken token) {
+        return Duration.between(clock.instant(), token.expiresAt());
+    }
+
+    private static String sha256(String idToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(idToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
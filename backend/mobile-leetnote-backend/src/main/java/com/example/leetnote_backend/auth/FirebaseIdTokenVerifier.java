@@ -0,0 +1,32 @@
+package com.example.leetnote_backend.auth;
+
+import com.example.leetnote_backend.exception.UnauthorizedException;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthException;
+import com.google.firebase.auth.FirebaseToken;
+
+import java.time.Instant;
+
+/**
+ * Verifies tokens with the Firebase Admin SDK (RSA signature check against Google's keys)
+ */
+public class FirebaseIdTokenVerifier implements IdTokenVerifier {
+
+    @Override
+    public VerifiedToken verify(String idToken) {
+        if (idToken == null || idToken.isBlank()) {
+            throw new UnauthorizedException("Missing Firebase token");
+        }
+        try {
+            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(idToken);
+            Object exp = decodedToken.getClaims().get("exp");
+            if (!(exp instanceof Number expSeconds)) {
+                throw new UnauthorizedException("Firebase token has no expiry");
+            }
+            return new VerifiedToken(decodedToken.getUid(), decodedToken.getEmail(),
+                    Instant.ofEpochSecond(expSeconds.longValue()));
+        } catch (FirebaseAuthException | IllegalArgumentException e) {
+            throw new UnauthorizedException("Invalid Firebase token", e);
+        }
+    }
+}
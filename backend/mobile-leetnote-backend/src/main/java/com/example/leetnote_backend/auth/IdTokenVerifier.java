@@ -0,0 +1,14 @@
+package com.example.leetnote_backend.auth;
+
+import com.example.leetnote_backend.exception.UnauthorizedException;
+
+/**
+ * Verifies a bearer ID token and returns its claims
+ */
+public interface IdTokenVerifier {
+
+    /**
+     * @throws UnauthorizedException if the token is missing, malformed, expired or badly signed
+     */
+    VerifiedToken verify(String idToken);
+}
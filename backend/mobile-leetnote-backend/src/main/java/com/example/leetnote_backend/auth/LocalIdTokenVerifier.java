@@ -0,0 +1,160 @@
+package com.example.leetnote_backend.auth;
+
+import com.example.leetnote_backend.exception.UnauthorizedException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Offline stand-in for Firebase token verification, backed by a local RSA signing key
+ *
+ * Issues and verifies RS256 JWTs with the same shape of work as verifyIdToken (base64url
+ * decoding, an RSA-2048 signature check, claim parsing and exp/iss/aud checks) so the auth
+ * path can be benchmarked and load-tested without Google's keys or network access.
+ * The app side can be given only the public key (auth.provider=local), with the issuing half
+ * held by the load-test harness.
+ */
+public class LocalIdTokenVerifier implements IdTokenVerifier {
+
+    private static final String ISSUER = "https://securetoken.google.com/";
+    private static final String HEADER = base64Url("{\"alg\":\"RS256\",\"typ\":\"JWT\"}"
+            .getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final PublicKey publicKey;
+    private final PrivateKey privateKey;
+    private final String projectId;
+    private final Clock clock;
+
+    public LocalIdTokenVerifier(KeyPair keyPair, String projectId, Clock clock) {
+        this(keyPair.getPublic(), keyPair.getPrivate(), projectId, clock);
+    }
+
+    /**
+     * Verify-only instance: accepts tokens signed by the holder of the matching private key
+     */
+    public LocalIdTokenVerifier(PublicKey publicKey, String projectId, Clock clock) {
+        this(publicKey, null, projectId, clock);
+    }
+
+    private LocalIdTokenVerifier(PublicKey publicKey, PrivateKey privateKey, String projectId, Clock clock) {
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.projectId = projectId;
+        this.clock = clock;
+    }
+
+    /**
+     * Verifier with a freshly generated RSA-2048 key pair
+     */
+    public static LocalIdTokenVerifier withGeneratedKey(String projectId) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return new LocalIdTokenVerifier(generator.generateKeyPair(), projectId, Clock.systemUTC());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("RSA not available", e);
+        }
+    }
+
+    /**
+     * Base64 (X.509) public key, the form decodePublicKey reads back
+     */
+    public String encodedPublicKey() {
+        return Base64.getEncoder().encodeToString(publicKey.getEncoded());
+    }
+
+    public static PublicKey decodePublicKey(String base64) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Not a base64 X.509 RSA public key", e);
+        }
+    }
+
+    /**
+     * Mint a token signed with the local key, valid for the given time
+     */
+    public String issue(String uid, String email, Duration validFor) {
+        if (privateKey == null) {
+            throw new IllegalStateException("Verify-only instance cannot issue tokens");
+        }
+        Instant now = clock.instant();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", ISSUER + projectId);
+        claims.put("aud", projectId);
+        claims.put("sub", uid);
+        claims.put("email", email);
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(validFor).getEpochSecond());
+
+        try {
+            String signingInput = HEADER + "." + base64Url(mapper.writeValueAsBytes(claims));
+            Signature signer = Signature.getInstance("SHA256withRSA");
+            signer.initSign(privateKey);
+            signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + base64Url(signer.sign());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to sign local token", e);
+        }
+    }
+
+    @Override
+    public VerifiedToken verify(String idToken) {
+        if (idToken == null || idToken.isBlank()) {
+            throw new UnauthorizedException("Missing token");
+        }
+        String[] parts = idToken.split("\\.");
+        if (parts.length != 3 || !HEADER.equals(parts[0])) {
+            throw new UnauthorizedException("Malformed token");
+        }
+
+        JsonNode claims;
+        try {
+            Signature verifier = Signature.getInstance("SHA256withRSA");
+            verifier.initVerify(publicKey);
+            verifier.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!verifier.verify(Base64.getUrlDecoder().decode(parts[2]))) {
+                throw new UnauthorizedException("Invalid token signature");
+            }
+            claims = mapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        } catch (UnauthorizedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UnauthorizedException("Malformed token", e);
+        }
+
+        Instant expiresAt = Instant.ofEpochSecond(claims.path("exp").asLong());
+        if (!expiresAt.isAfter(clock.instant())) {
+            throw new UnauthorizedException("Token expired");
+        }
+        if (!projectId.equals(claims.path("aud").asText())
+                || !(ISSUER + projectId).equals(claims.path("iss").asText())) {
+            throw new UnauthorizedException("Token issued for another project");
+        }
+        String uid = claims.path("sub").asText();
+        if (uid.isEmpty()) {
+            throw new UnauthorizedException("Token has no subject");
+        }
+        return new VerifiedToken(uid, claims.path("email").asText(null), expiresAt);
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
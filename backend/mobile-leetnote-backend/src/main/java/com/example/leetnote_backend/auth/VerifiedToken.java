@@ -0,0 +1,9 @@
+package com.example.leetnote_backend.auth;
+
+import java.time.Instant;
+
+/**
+ * Claims the app needs from a verified ID token
+ */
+public record VerifiedToken(String uid, String email, Instant expiresAt) {
+}
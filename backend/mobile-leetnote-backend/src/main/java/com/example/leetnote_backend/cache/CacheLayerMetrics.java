@@ -0,0 +1,72 @@
+package com.example.leetnote_backend.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-layer hit/miss metrics for every cache handed out by a TwoLevelCacheManager
+ *
+ * cache.gets{cache, layer=l1|redis, result=hit|miss}: an L1 miss falls through to Redis,
+ * so the overall hit ratio is (l1 hits + redis hits) / (l1 hits + redis gets).
+ * Load times and single-flight counts come from StampedeProtectedCache itself.
+ */
+public class CacheLayerMetrics implements MeterBinder {
+
+    private final TwoLevelCacheManager cacheManager;
+
+    public CacheLayerMetrics(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TwoLevelCache twoLevel) {
+                bindLocal(registry, name, twoLevel.getLocalCache());
+                cache = twoLevel.getRemoteCache();
+            }
+            if (cache instanceof StampedeProtectedCache protectedCache) {
+                cache = protectedCache.getDelegate();
+            }
+            if (cache instanceof RedisCache redisCache) {
+                bindRedis(registry, name, redisCache);
+            }
+        }
+    }
+
+    private static void bindLocal(MeterRegistry registry, String name,
+                                  com.github.benmanes.caffeine.cache.Cache<String, Object> local) {
+        counter(registry, "cache.gets", name, "l1", "hit", local, c -> c.stats().hitCount());
+        counter(registry, "cache.gets", name, "l1", "miss", local, c -> c.stats().missCount());
+        counter(registry, "cache.evictions", name, "l1", null, local, c -> c.stats().evictionCount());
+        Gauge.builder("cache.size", local, c -> c.estimatedSize())
+                .description("Approximate number of entries in the near-cache")
+                .tags("cache", name, "layer", "l1")
+                .register(registry);
+    }
+
+    private static void bindRedis(MeterRegistry registry, String name, RedisCache cache) {
+        // Counts stay at zero unless the RedisCacheManager was built with enableStatistics()
+        counter(registry, "cache.gets", name, "redis", "hit", cache, c -> c.getStatistics().getHits());
+        counter(registry, "cache.gets", name, "redis", "miss", cache, c -> c.getStatistics().getMisses());
+        counter(registry, "cache.puts", name, "redis", null, cache, c -> c.getStatistics().getPuts());
+        counter(registry, "cache.evictions", name, "redis", null, cache, c -> c.getStatistics().getDeletes());
+    }
+
+    private static <T> void counter(MeterRegistry registry, String meter, String name, String layer,
+                                    String result, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.Builder<T> builder = FunctionCounter.builder(meter, source, count)
+                .tags("cache", name, "layer", layer);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.leetnote_backend.cache;
+
+import java.time.Duration;
+
+/**
+ * Short-lived, cluster-wide leases used to elect a single loader per cache key
+ */
+public interface CacheLeases {
+
+    /**
+     * @return a token identifying the lease, or null if another holder already has it
+     */
+    String tryAcquire(String leaseKey, Duration leaseTime);
+
+    /**
+     * Release the lease if it is still held with the given token
+     */
+    void release(String leaseKey, String token);
+}
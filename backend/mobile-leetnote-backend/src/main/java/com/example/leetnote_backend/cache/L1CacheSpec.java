@@ -0,0 +1,12 @@
+package com.example.leetnote_backend.cache;
+
+import java.time.Duration;
+
+/**
+ * Bounds for the in-process (L1) copy of a cache
+ *
+ * @param ttl           how long an entry may live locally; keep it below the Redis TTL
+ * @param maximumWeight upper bound on the summed entry weight (see TwoLevelCache#weigh)
+ */
+public record L1CacheSpec(Duration ttl, long maximumWeight) {
+}
@@ -0,0 +1,76 @@
+package com.example.leetnote_backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Remembers keys an upstream confirmed do not exist, so repeated lookups fail without calling it
+ *
+ * Kept in its own short-TTL cache rather than as null values in the positive cache, which
+ * disables caching nulls. Besides the per-layer cache.gets metrics of the backing cache it
+ * counts cache.negative.hits (lookups answered here) and cache.negative.stores.
+ * A failing cache never blocks a lookup: errors read as "not known missing".
+ */
+public class NegativeLookupCache {
+
+    private static final Logger log = LoggerFactory.getLogger(NegativeLookupCache.class);
+
+    private final Cache cache;
+    private final Counter hits;
+    private final Counter stores;
+
+    public NegativeLookupCache(Cache cache, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.hits = Counter.builder("cache.negative.hits")
+                .description("Lookups rejected because the key is known not to exist")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+        this.stores = Counter.builder("cache.negative.stores")
+                .description("Keys recorded as not existing")
+                .tag("cache", cache.getName())
+                .register(meterRegistry);
+    }
+
+    private NegativeLookupCache() {
+        this.cache = null;
+        this.hits = null;
+        this.stores = null;
+    }
+
+    /**
+     * A negative cache that never remembers anything
+     */
+    public static NegativeLookupCache disabled() {
+        return new NegativeLookupCache();
+    }
+
+    public boolean isKnownMissing(Object key) {
+        if (cache == null) {
+            return false;
+        }
+        try {
+            if (cache.get(key) != null) {
+                hits.increment();
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.debug("Negative cache {} unavailable: {}", cache.getName(), e.getMessage());
+        }
+        return false;
+    }
+
+    public void recordMissing(Object key) {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.put(key, Boolean.TRUE);
+            stores.increment();
+        } catch (RuntimeException e) {
+            log.debug("Negative cache {} unavailable: {}", cache.getName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.leetnote_backend.cache;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager handed to the caching interceptor so every @Cacheable lookup is observed
+ *
+ * Each get becomes a cache.lookup observation (a span when tracing is on, plus a timer) tagged
+ * with the cache name and whether it was a hit. With sync=true the loader runs inside the
+ * lookup, so the statements and calls it makes show up as its children. Writes and evictions
+ * are passed through untouched, as are caches obtained from the wrapped manager directly.
+ */
+public class ObservedCacheManager implements CacheManager {
+
+    static final String OBSERVATION_NAME = "cache.lookup";
+
+    private final CacheManager delegate;
+    private final ObservationRegistry observationRegistry;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public ObservedCacheManager(CacheManager delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new ObservedCache(target, observationRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    static final class ObservedCache implements Cache {
+
+        private final Cache delegate;
+        private final ObservationRegistry observationRegistry;
+
+        ObservedCache(Cache delegate, ObservationRegistry observationRegistry) {
+            this.delegate = delegate;
+            this.observationRegistry = observationRegistry;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            Observation observation = start(key);
+            try (Observation.Scope scope = observation.openScope()) {
+                ValueWrapper hit = delegate.get(key);
+                observation.lowCardinalityKeyValue("result", hit != null ? "hit" : "miss");
+                return hit;
+            } catch (RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            Observation observation = start(key);
+            try (Observation.Scope scope = observation.openScope()) {
+                T value = delegate.get(key, type);
+                observation.lowCardinalityKeyValue("result", value != null ? "hit" : "miss");
+                return value;
+            } catch (RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            Observation observation = start(key);
+            // A hit unless our loader ends up running
+            observation.lowCardinalityKeyValue("result", "hit");
+            try (Observation.Scope scope = observation.openScope()) {
+                return delegate.get(key, () -> {
+                    observation.lowCardinalityKeyValue("result", "miss");
+                    return valueLoader.call();
+                });
+            } catch (RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return delegate.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return delegate.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return delegate.invalidate();
+        }
+
+        private Observation start(Object key) {
+            return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                    .lowCardinalityKeyValue("cache", delegate.getName())
+                    .highCardinalityKeyValue("cache.key", String.valueOf(key))
+                    .start();
+        }
+    }
+}
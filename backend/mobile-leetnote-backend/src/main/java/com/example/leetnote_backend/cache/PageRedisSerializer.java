@@ -0,0 +1,59 @@
+package com.example.leetnote_backend.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+
+/**
+ * Redis serializer for cached Page values
+ * PageImpl has no Jackson-friendly constructor, so only content and paging numbers are stored.
+ */
+public class PageRedisSerializer<E> implements RedisSerializer<Page<E>> {
+
+    private final SmileRedisSerializer<PageSnapshot<E>> delegate;
+
+    public PageRedisSerializer(Class<E> elementType, int compressionThreshold) {
+        JavaType snapshotType = SmileRedisSerializer.mapper().getTypeFactory()
+                .constructParametricType(PageSnapshot.class, elementType);
+        this.delegate = new SmileRedisSerializer<>(snapshotType, compressionThreshold);
+    }
+
+    @Override
+    public byte[] serialize(Page<E> page) throws SerializationException {
+        if (page == null) {
+            return null;
+        }
+        return delegate.serialize(new PageSnapshot<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements()
+        ));
+    }
+
+    @Override
+    public Page<E> deserialize(byte[] bytes) throws SerializationException {
+        PageSnapshot<E> snapshot = delegate.deserialize(bytes);
+        if (snapshot == null) {
+            return null;
+        }
+        return new PageImpl<>(
+                snapshot.content(),
+                PageRequest.of(snapshot.page(), Math.max(1, snapshot.size())),
+                snapshot.total()
+        );
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return Page.class;
+    }
+
+    public record PageSnapshot<E>(List<E> content, int page, int size, long total) {
+    }
+}
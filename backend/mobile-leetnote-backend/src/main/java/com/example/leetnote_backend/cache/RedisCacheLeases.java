@@ -0,0 +1,54 @@
+package com.example.leetnote_backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cache leases backed by Redis SET NX PX
+ * If Redis cannot be reached the lease is granted, so loading degrades to per-instance single-flight.
+ */
+public class RedisCacheLeases implements CacheLeases {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheLeases.class);
+
+    // Only delete the lease if we still own it (it may have expired and been re-acquired)
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheLeases(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String tryAcquire(String leaseKey, Duration leaseTime) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, leaseTime);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.debug("Lease {} not coordinated through Redis: {}", leaseKey, e.getMessage());
+            return token;
+        }
+    }
+
+    @Override
+    public void release(String leaseKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), token);
+        } catch (RuntimeException e) {
+            // The lease expires on its own
+            log.debug("Failed to release lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+}
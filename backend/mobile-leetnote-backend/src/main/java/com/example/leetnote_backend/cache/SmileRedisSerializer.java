@@ -0,0 +1,138 @@
+package com.example.leetnote_backend.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Typed Redis value serializer using Jackson Smile (binary JSON)
+ * Payloads larger than the compression threshold are LZ4-compressed.
+ *
+ * Layout: one format byte, then either the raw Smile document or
+ * a 4-byte uncompressed length followed by the LZ4 block.
+ * Values written by any other serializer read back as a cache miss. The length header is not
+ * trusted: blocks claiming more than MAX_UNCOMPRESSED_LENGTH are rejected before allocating, and
+ * decompression is bounds-checked against the actual input.
+ */
+public class SmileRedisSerializer<T> implements RedisSerializer<T> {
+
+    static final byte FORMAT_RAW = 0x01;
+    static final byte FORMAT_LZ4 = 0x02;
+    // Far above any cached value; larger documents are stored uncompressed
+    static final int MAX_UNCOMPRESSED_LENGTH = 16 * 1024 * 1024;
+
+    private static final ObjectMapper MAPPER = SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final JavaType type;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4.safeDecompressor();
+
+    /**
+     * @param type                 the exact type stored in the cache
+     * @param compressionThreshold payload size in bytes above which LZ4 is applied; negative disables it
+     */
+    public SmileRedisSerializer(JavaType type, int compressionThreshold) {
+        this.type = type;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public SmileRedisSerializer(Class<T> type, int compressionThreshold) {
+        this(MAPPER.constructType(type), compressionThreshold);
+    }
+
+    static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        byte[] smile;
+        try {
+            smile = MAPPER.writerFor(type).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+
+        if (compressionThreshold < 0 || smile.length <= compressionThreshold
+                || smile.length > MAX_UNCOMPRESSED_LENGTH) {
+            byte[] out = new byte[smile.length + 1];
+            out[0] = FORMAT_RAW;
+            System.arraycopy(smile, 0, out, 1, smile.length);
+            return out;
+        }
+
+        int maxLength = compressor.maxCompressedLength(smile.length);
+        byte[] out = new byte[5 + maxLength];
+        out[0] = FORMAT_LZ4;
+        ByteBuffer.wrap(out, 1, 4).putInt(smile.length);
+        int compressedLength = compressor.compress(smile, 0, smile.length, out, 5, maxLength);
+        byte[] trimmed = new byte[5 + compressedLength];
+        System.arraycopy(out, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        try {
+            return switch (bytes[0]) {
+                case FORMAT_RAW -> MAPPER.readValue(bytes, 1, bytes.length - 1, type);
+                case FORMAT_LZ4 -> MAPPER.readValue(decompress(bytes), type);
+                // Written by the previous JSON/JDK serializers - treat as a miss so it is reloaded
+                default -> null;
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < 5) {
+            throw new SerializationException("Truncated LZ4 value: " + bytes.length + " bytes");
+        }
+        int length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+        if (length < 0 || length > MAX_UNCOMPRESSED_LENGTH) {
+            throw new SerializationException("LZ4 value claims " + length + " uncompressed bytes");
+        }
+        byte[] smile = new byte[length];
+        try {
+            int decompressed = decompressor.decompress(bytes, 5, bytes.length - 5, smile, 0, length);
+            if (decompressed != length) {
+                throw new SerializationException("LZ4 value decompressed to " + decompressed + " of " + length + " bytes");
+            }
+        } catch (LZ4Exception e) {
+            throw new SerializationException("Corrupt LZ4 value: " + e.getMessage(), e);
+        }
+        return smile;
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type.getRawClass();
+    }
+}
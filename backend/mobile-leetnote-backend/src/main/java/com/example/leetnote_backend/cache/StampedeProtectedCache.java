@@ -0,0 +1,388 @@
+package com.example.leetnote_backend.cache;
+
+import com.example.leetnote_backend.diagnostics.CacheLoadEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator that protects the backing store from stampedes
+ *
+ * Single-flight: on a miss one caller per key (per instance, and per cluster via a short lease)
+ * loads the value; everyone else waits for it to land instead of hitting the database.
+ * Only @Cacheable(sync = true) lookups are coordinated, since the loader runs here and its
+ * flight always ends. Plain lookups pass straight through: a caller handed a miss may throw or
+ * never put, and nothing would finish its flight.
+ *
+ * Early refresh: hits of synchronized lookups are refreshed in the background ahead of their
+ * TTL, with probability that grows as expiry nears and with how long the value took to
+ * compute (XFetch). The refresh runs on another thread, outside the caller's transaction, so it
+ * gets its own (read-only) transaction; the caller's user travels with the thread context.
+ *
+ * Null results are handed to the callers that waited for them but not stored, since the Redis
+ * caches reject nulls; the next lookup loads again.
+ *
+ * Metrics (tagged by cache): cache.load timer (result=success|failure), cache.load.coalesced
+ * for callers served by someone else's load, and cache.refresh.early for early refreshes.
+ * Every load is also a leetnote.CacheLoad JFR event.
+ */
+public class StampedeProtectedCache implements Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(StampedeProtectedCache.class);
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private final Cache delegate;
+    private final CacheLeases leases;
+    private final Duration ttl;
+    private final Duration leaseTime;
+    private final double beta;
+    private final Executor refreshExecutor;
+    private final TransactionOperations refreshTransaction;
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+    private final Counter coalesced;
+    private final Counter earlyRefreshes;
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    // When this instance last stored each key and how long computing it took
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadRecord> loads;
+
+    /**
+     * @param ttl       the backing cache's entry TTL; zero disables early refresh
+     * @param leaseTime how long a loader may hold the key before others stop waiting for it
+     * @param beta      early refresh aggressiveness; 1.0 is the usual XFetch setting
+     */
+    public StampedeProtectedCache(Cache delegate, CacheLeases leases, Duration ttl, Duration leaseTime,
+                                  double beta, Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this(delegate, leases, ttl, leaseTime, beta, refreshExecutor, TransactionOperations.withoutTransaction(),
+                meterRegistry);
+    }
+
+    /**
+     * @param refreshTransaction wraps each background refresh, e.g. a read-only TransactionTemplate
+     */
+    public StampedeProtectedCache(Cache delegate, CacheLeases leases, Duration ttl, Duration leaseTime,
+                                  double beta, Executor refreshExecutor, TransactionOperations refreshTransaction,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.leases = leases;
+        this.ttl = ttl;
+        this.leaseTime = leaseTime;
+        this.beta = beta;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshTransaction = refreshTransaction;
+        this.loads = Caffeine.newBuilder()
+                .expireAfterWrite(ttl.isZero() ? Duration.ofMinutes(1) : ttl)
+                .maximumSize(10_000)
+                .build();
+
+        String cacheName = delegate.getName();
+        this.loadSuccess = Timer.builder("cache.load")
+                .description("Time spent computing values on a cache miss")
+                .tags("cache", cacheName, "result", "success")
+                .register(meterRegistry);
+        this.loadFailure = Timer.builder("cache.load")
+                .description("Time spent computing values on a cache miss")
+                .tags("cache", cacheName, "result", "failure")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.load.coalesced")
+                .description("Misses served by another caller's in-flight load")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("cache.refresh.early")
+                .description("Hits recomputed ahead of their TTL")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String flightKey = flightKey(key);
+        ValueWrapper hit = delegate.get(key);
+        if (hit != null) {
+            if (shouldRefreshEarly(flightKey)) {
+                refreshInBackground(key, flightKey, valueLoader);
+            }
+            return (T) hit.get();
+        }
+
+        Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            ValueWrapper shared = coalesce(existing.await(flightKey));
+            if (shared != null) {
+                return (T) shared.get();
+            }
+            // The leader is stuck or gone - load without coordination rather than wait longer
+            T value = timed(flightKey, false, () -> call(key, valueLoader));
+            store(key, value);
+            return value;
+        }
+
+        return (T) load(key, flightKey, flight, valueLoader, false).get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        loads.invalidate(flightKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        loads.invalidate(flightKey(key));
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        loads.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        loads.invalidateAll();
+        return delegate.invalidate();
+    }
+
+    private ValueWrapper load(Object key, String flightKey, Flight flight, Callable<?> loader, boolean refresh) {
+        String token = leases.tryAcquire(leaseKey(flightKey), leaseTime);
+        if (token == null) {
+            if (refresh) {
+                // Someone else is already refreshing this key
+                finish(flightKey, flight, null);
+                return null;
+            }
+            ValueWrapper polled = pollDelegate(key);
+            if (polled != null) {
+                finish(flightKey, flight, polled);
+                return coalesce(polled);
+            }
+            // The other loader is slow or died; load it ourselves
+        }
+
+        flight.leaseToken = token;
+        try {
+            Object value = timed(flightKey, refresh, () -> call(key, loader));
+            store(key, value);
+            record(flightKey, flight);
+            ValueWrapper wrapper = new SimpleValueWrapper(value);
+            finish(flightKey, flight, wrapper);
+            return wrapper;
+        } catch (RuntimeException e) {
+            fail(flightKey, flight, e);
+            throw e;
+        }
+    }
+
+    private void refreshInBackground(Object key, String flightKey, Callable<?> loader) {
+        Flight flight = new Flight();
+        if (flights.putIfAbsent(flightKey, flight) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                earlyRefreshes.increment();
+                try {
+                    Callable<?> inTransaction = () -> refreshTransaction.execute(status -> call(key, loader));
+                    load(key, flightKey, flight, inTransaction, true);
+                } catch (RuntimeException e) {
+                    log.debug("Early refresh of {}::{} failed: {}", getName(), flightKey, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            finish(flightKey, flight, null);
+        }
+    }
+
+    /**
+     * XFetch: refresh when now - delta * beta * ln(rand) passes the expiry time
+     */
+    boolean shouldRefreshEarly(String flightKey) {
+        if (ttl.isZero()) {
+            return false;
+        }
+        LoadRecord record = loads.getIfPresent(flightKey);
+        if (record == null || record.computeNanos() <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double gap = record.computeNanos() * beta * -Math.log(random);
+        return System.nanoTime() + gap >= record.storedAtNanos() + ttl.toNanos();
+    }
+
+    private void store(Object key, Object value) {
+        if (value != null) {
+            delegate.put(key, value);
+        }
+    }
+
+    private void record(String flightKey, Flight flight) {
+        long now = System.nanoTime();
+        loads.put(flightKey, new LoadRecord(now, now - flight.startedNanos));
+    }
+
+    private <T> T timed(String flightKey, boolean refresh, Supplier<T> loader) {
+        CacheLoadEvent event = new CacheLoadEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        try {
+            T value = loader.get();
+            loadSuccess.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            event.complete(getName(), flightKey, refresh, false);
+            return value;
+        } catch (RuntimeException e) {
+            loadFailure.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            event.complete(getName(), flightKey, refresh, true);
+            throw e;
+        }
+    }
+
+    private ValueWrapper coalesce(ValueWrapper shared) {
+        if (shared != null) {
+            coalesced.increment();
+        }
+        return shared;
+    }
+
+    private ValueWrapper pollDelegate(Object key) {
+        long deadline = System.nanoTime() + leaseTime.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper value = delegate.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private void finish(String flightKey, Flight flight, ValueWrapper value) {
+        flights.remove(flightKey, flight);
+        flight.result.complete(value);
+        flight.releaseLease(leaseKey(flightKey));
+    }
+
+    private void fail(String flightKey, Flight flight, RuntimeException error) {
+        flights.remove(flightKey, flight);
+        flight.result.completeExceptionally(error);
+        flight.releaseLease(leaseKey(flightKey));
+    }
+
+    private static <T> T call(Object key, Callable<T> loader) {
+        try {
+            return loader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, loader, e);
+        }
+    }
+
+    private static String flightKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private String leaseKey(String flightKey) {
+        return "lease::" + getName() + "::" + flightKey;
+    }
+
+    private record LoadRecord(long storedAtNanos, long computeNanos) {
+    }
+
+    /**
+     * One in-progress load of a key that other callers can wait on
+     */
+    private final class Flight {
+        final CompletableFuture<ValueWrapper> result = new CompletableFuture<>();
+        final long startedNanos = System.nanoTime();
+        volatile String leaseToken;
+
+        ValueWrapper await(String flightKey) {
+            try {
+                return result.get(leaseTime.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Leader is stuck past its lease - let the next miss elect a new one
+                if (flights.remove(flightKey, this)) {
+                    releaseLease(leaseKey(flightKey));
+                }
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        void releaseLease(String leaseKey) {
+            String token = leaseToken;
+            if (token != null) {
+                leaseToken = null;
+                leases.release(leaseKey, token);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.leetnote_backend.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * CacheManager that layers a Caffeine near-cache over each Redis cache
+ * Local invalidations are broadcast over Redis pub/sub so every instance drops stale L1 entries.
+ * Caches without an L1 spec are handed out as plain Redis caches.
+ * An optional decorator wraps every Redis cache first (e.g. stampede protection).
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "leetnote:cache-invalidation";
+
+    private static final Logger log = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+    private static final String SEPARATOR = "\t";
+    private static final String OP_EVICT = "E";
+    private static final String OP_CLEAR = "C";
+
+    private final CacheManager remoteCacheManager;
+    private final Map<String, L1CacheSpec> specs;
+    private final StringRedisTemplate redisTemplate;
+    private final UnaryOperator<Cache> remoteDecorator;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Map<String, L1CacheSpec> specs,
+                                StringRedisTemplate redisTemplate) {
+        this(remoteCacheManager, specs, redisTemplate, UnaryOperator.identity());
+    }
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Map<String, L1CacheSpec> specs,
+                                StringRedisTemplate redisTemplate,
+                                UnaryOperator<Cache> remoteDecorator) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.specs = Map.copyOf(specs);
+        this.redisTemplate = redisTemplate;
+        this.remoteDecorator = remoteDecorator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        remote = remoteDecorator.apply(remote);
+
+        L1CacheSpec spec = specs.get(name);
+        Cache created = spec == null ? remote : new TwoLevelCache(name, remote, spec, this);
+        Cache existing = caches.putIfAbsent(name, created);
+        return existing != null ? existing : created;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    void publishEvict(String cacheName, String localKey) {
+        publish(OP_EVICT + SEPARATOR + cacheName + SEPARATOR + localKey);
+    }
+
+    void publishClear(String cacheName) {
+        publish(OP_CLEAR + SEPARATOR + cacheName);
+    }
+
+    private void publish(String payload) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + SEPARATOR + payload);
+        } catch (RuntimeException e) {
+            // Other instances fall back to their L1 TTL
+            log.warn("Failed to broadcast cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Handle an invalidation broadcast by any instance (including this one, which is skipped)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        if (!(caches.get(parts[2]) instanceof TwoLevelCache cache)) {
+            return;
+        }
+
+        if (OP_CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else if (OP_EVICT.equals(parts[1]) && parts.length == 4) {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.leetnote_backend.client;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent single-key lookups into one batched call
+ *
+ * The first caller of a batch waits up to the window for others to join, then runs the batch
+ * loader on its own thread and hands every caller its result; a caller that fills the batch
+ * dispatches it immediately. No extra threads are involved. Duplicate keys share one slot.
+ * Keys missing from the loader's result resolve to null; a loader failure fails the whole batch.
+ */
+public class RequestCoalescer<K, V> {
+
+    private final Function<List<K>, Map<K, V>> batchLoader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    // Batch currently accepting keys, null between batches
+    private Map<K, CompletableFuture<V>> current;
+
+    public RequestCoalescer(Function<List<K>, Map<K, V>> batchLoader, Duration window, int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    public V get(K key) {
+        if (windowNanos <= 0 || maxBatchSize == 1) {
+            return batchLoader.apply(List.of(key)).get(key);
+        }
+
+        Map<K, CompletableFuture<V>> batch;
+        CompletableFuture<V> future;
+        boolean leader;
+        boolean full = false;
+        synchronized (this) {
+            leader = current == null;
+            if (leader) {
+                current = new LinkedHashMap<>();
+            }
+            batch = current;
+            future = batch.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.size() >= maxBatchSize) {
+                current = null;
+                full = true;
+            }
+        }
+
+        if (full) {
+            dispatch(batch);
+        } else if (leader && !awaitWindow(future) && take(batch)) {
+            dispatch(batch);
+        }
+        return await(future);
+    }
+
+    /**
+     * @return true if the batch was dispatched by a filling caller while we waited
+     */
+    private boolean awaitWindow(CompletableFuture<V> future) {
+        try {
+            future.get(windowNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (InterruptedException e) {
+            // Still dispatch below - the other callers in this batch depend on it
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private synchronized boolean take(Map<K, CompletableFuture<V>> batch) {
+        if (current != batch) {
+            return false;
+        }
+        current = null;
+        return true;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> results = batchLoader.apply(List.copyOf(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(results.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
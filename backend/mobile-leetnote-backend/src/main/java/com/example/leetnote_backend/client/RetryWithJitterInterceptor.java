@@ -0,0 +1,102 @@
+package com.example.leetnote_backend.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries idempotent requests on transient failures with capped exponential backoff and full jitter
+ *
+ * Retried: I/O errors (connect/read timeouts, resets) and 429/502/503/504 responses.
+ * Not retried: waiting too long for a pooled connection - that is the concurrency limit
+ * working, and retrying would only add load. No attempt starts past the overall deadline.
+ * Must be the last interceptor, since each retry re-runs the remaining execution chain.
+ */
+public class RetryWithJitterInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration deadline;
+    private final MeterRegistry meterRegistry;
+    private final String clientName;
+
+    public RetryWithJitterInterceptor(int maxAttempts, Duration baseBackoff, Duration maxBackoff,
+                                      Duration deadline, MeterRegistry meterRegistry, String clientName) {
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.deadline = deadline;
+        this.meterRegistry = meterRegistry;
+        this.clientName = clientName;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long giveUpAt = System.nanoTime() + deadline.toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            long backoffMillis = backoffMillis(attempt);
+            boolean canRetry = attempt < maxAttempts
+                    && System.nanoTime() + backoffMillis * 1_000_000 < giveUpAt;
+
+            String reason;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                HttpStatusCode status = response.getStatusCode();
+                if (!canRetry || !RETRYABLE_STATUSES.contains(status.value())) {
+                    return response;
+                }
+                response.close();
+                reason = String.valueOf(status.value());
+            } catch (IOException e) {
+                if (!canRetry || !isRetryable(e)) {
+                    throw e;
+                }
+                reason = e instanceof SocketTimeoutException ? "timeout" : "io";
+            }
+
+            meterRegistry.counter("http.client.retries", "client.name", clientName, "reason", reason).increment();
+            sleep(backoffMillis);
+        }
+    }
+
+    /**
+     * Full jitter: uniform in [0, min(max, base * 2^(attempt-1))]
+     */
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof ConnectionRequestTimeoutException) {
+            return false;
+        }
+        // Connect/read timeouts are SocketTimeoutExceptions; other interruptions mean the caller gave up
+        return e instanceof SocketTimeoutException || !(e instanceof InterruptedIOException);
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+}
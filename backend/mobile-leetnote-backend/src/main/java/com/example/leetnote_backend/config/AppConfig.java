@@ -1,14 +1,107 @@
 package com.example.leetnote_backend.config;
 
+import com.example.leetnote_backend.client.RetryWithJitterInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
 
+    @Value("${leetcode.api.base-url:https://leetcode.com}")
+    private String leetcodeBaseUrl;
+
+    @Value("${leetcode.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${leetcode.client.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${leetcode.client.pool-acquire-timeout-ms:1000}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${leetcode.client.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${leetcode.client.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${leetcode.client.backoff-base-ms:200}")
+    private long backoffBaseMs;
+
+    @Value("${leetcode.client.backoff-max-ms:2000}")
+    private long backoffMaxMs;
+
+    @Value("${leetcode.client.retry-deadline-ms:8000}")
+    private long retryDeadlineMs;
+
+    /**
+     * Pooled HTTP client for the LeetCode GraphQL API
+     * The pool size doubles as the concurrency limit: callers wait at most pool-acquire-timeout
+     * for a connection, so a slow leetcode.com cannot tie up every request thread.
+     * Closed with the context (the factory is a DisposableBean).
+     */
+    @Bean
+    public HttpComponentsClientHttpRequestFactory leetcodeRequestFactory(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+        // httpcomponents.httpclient.pool.* gauges (leased, pending, available)
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "leetcode").bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                // Retries are handled (with jitter and a deadline) by RetryWithJitterInterceptor
+                .disableAutomaticRetries()
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    // Built from Boot's builder so LeetCode calls show up in http.client.requests metrics
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder,
+                                     HttpComponentsClientHttpRequestFactory leetcodeRequestFactory,
+                                     MeterRegistry meterRegistry) {
+        // GraphQL queries are reads, so POSTs to this host are safe to retry
+        RetryWithJitterInterceptor retries = new RetryWithJitterInterceptor(
+                maxAttempts,
+                Duration.ofMillis(backoffBaseMs),
+                Duration.ofMillis(backoffMaxMs),
+                Duration.ofMillis(retryDeadlineMs),
+                meterRegistry,
+                "leetcode");
+        return restTemplateBuilder
+                .rootUri(leetcodeBaseUrl)
+                .requestFactory(() -> leetcodeRequestFactory)
+                .additionalInterceptors(retries)
+                .build();
     }
 }
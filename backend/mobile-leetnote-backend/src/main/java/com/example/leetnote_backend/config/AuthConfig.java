@@ -0,0 +1,35 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.auth.CachingIdTokenVerifier;
+import com.example.leetnote_backend.auth.FirebaseIdTokenVerifier;
+import com.example.leetnote_backend.auth.IdTokenVerifier;
+import com.example.leetnote_backend.auth.LocalIdTokenVerifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class AuthConfig {
+
+    /**
+     * Firebase verification behind a cache of already verified tokens (kept until each token's exp)
+     *
+     * auth.provider=local trusts tokens signed with auth.local.public-key instead, for load tests
+     * and offline runs that have no Firebase credentials.
+     */
+    @Bean
+    public IdTokenVerifier idTokenVerifier(@Value("${auth.provider:firebase}") String provider,
+                                           @Value("${auth.local.project-id:leetnote-local}") String localProjectId,
+                                           @Value("${auth.local.public-key:}") String localPublicKey,
+                                           @Value("${auth.token-cache.maximum-size:100000}") long maximumSize) {
+        IdTokenVerifier verifier = switch (provider) {
+            case "firebase" -> new FirebaseIdTokenVerifier();
+            case "local" -> new LocalIdTokenVerifier(
+                    LocalIdTokenVerifier.decodePublicKey(localPublicKey), localProjectId, Clock.systemUTC());
+            default -> throw new IllegalStateException("Unknown auth.provider: " + provider);
+        };
+        return new CachingIdTokenVerifier(verifier, maximumSize);
+    }
+}
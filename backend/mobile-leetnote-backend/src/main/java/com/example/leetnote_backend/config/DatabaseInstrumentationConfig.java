@@ -0,0 +1,61 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.db.QueryBudgetFilter;
+import com.example.leetnote_backend.db.StatementInstrumentingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Statement-level database instrumentation (replaces spring.jpa.show-sql)
+ *
+ * Every DataSource is wrapped so statements are timed (and traced within a request) and slow
+ * ones logged with their bind parameters; a servlet filter turns those into per-request query
+ * counts and budgets.
+ */
+@Configuration
+@ConditionalOnProperty(value = "db.instrumentation.enabled", matchIfMissing = true)
+public class DatabaseInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor statementInstrumentationPostProcessor(
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<Tracer> tracer) {
+        // Read from the Environment: placeholders are not resolved this early in every context
+        long slowQueryMs = environment.getProperty("db.instrumentation.slow-query-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementInstrumentingDataSource)) {
+                    return new StatementInstrumentingDataSource(dataSource,
+                            () -> meterRegistry.getIfAvailable(SimpleMeterRegistry::new),
+                            () -> tracer.getIfAvailable(() -> Tracer.NOOP),
+                            Duration.ofMillis(slowQueryMs));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication
+    public QueryBudgetFilter queryBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${db.query-budget.default:30}") int defaultBudget,
+            @Value("${db.query-budget.repeat-warning:5}") int repeatThreshold,
+            @Value("${db.query-budget.enforce:false}") boolean enforce) {
+        return new QueryBudgetFilter(meterRegistry, defaultBudget, repeatThreshold, enforce);
+    }
+}
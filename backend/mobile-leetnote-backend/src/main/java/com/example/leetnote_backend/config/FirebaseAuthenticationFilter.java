@@ -1,14 +1,16 @@
 package com.example.leetnote_backend.config;
 
-import com.example.leetnote_backend.model.entity.User;
+import com.example.leetnote_backend.auth.IdTokenVerifier;
+import com.example.leetnote_backend.auth.VerifiedToken;
+import com.example.leetnote_backend.exception.UnauthorizedException;
 import com.example.leetnote_backend.service.UserService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseAuthException;
-import com.google.firebase.auth.FirebaseToken;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,16 +18,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserService userService;
+    private final IdTokenVerifier idTokenVerifier;
+    private final ObservationRegistry observationRegistry;
+    private final Set<String> adminUids;
 
-    public FirebaseAuthenticationFilter(UserService userService) {
+    public FirebaseAuthenticationFilter(UserService userService, IdTokenVerifier idTokenVerifier,
+                                        ObservationRegistry observationRegistry,
+                                        @Value("${auth.admin-uids:}") Set<String> adminUids) {
         this.userService = userService;
+        this.idTokenVerifier = idTokenVerifier;
+        this.observationRegistry = observationRegistry;
+        this.adminUids = Set.copyOf(adminUids);
+    }
+
+    // Actuator endpoints (health, Prometheus scrape) carry no Firebase token; admin ones do
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/") && getTokenFromRequest(request) == null;
     }
 
     @Override
@@ -36,22 +52,27 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         try {
-            FirebaseToken decodedToken = FirebaseAuth.getInstance().verifyIdToken(token);
-            String uid = decodedToken.getUid();
-            String email = decodedToken.getEmail();
+            // Repeat tokens and known users are served from memory; both steps get their own span
+            VerifiedToken verifiedToken = Observation.createNotStarted("auth.token.verify", observationRegistry)
+                    .observe(() -> idTokenVerifier.verify(token));
+            String uid = verifiedToken.uid();
+            String email = verifiedToken.email();
 
-            List<SimpleGrantedAuthority> authorities = Arrays.asList(new SimpleGrantedAuthority("ROLE_USER"));
+            List<SimpleGrantedAuthority> authorities = adminUids.contains(uid)
+                    ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                    : List.of(new SimpleGrantedAuthority("ROLE_USER"));
 
-            User user = userService.findOrCreateUser(uid, email);
+            Long userId = Observation.createNotStarted("auth.user.resolve", observationRegistry)
+                    .observe(() -> userService.resolveUserId(uid, email));
             UserPrincipal userPrincipal = new UserPrincipal(
-                    user.getId(), uid, email
+                    userId, uid, email
             );
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userPrincipal, null, authorities);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-        } catch (FirebaseAuthException e) {
+        } catch (UnauthorizedException e) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid Firebase token");
             return;
         }
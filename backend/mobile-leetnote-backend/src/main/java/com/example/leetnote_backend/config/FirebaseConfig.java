@@ -3,6 +3,7 @@ package com.example.leetnote_backend.config;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,7 +11,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+// Not needed (and no credentials available) when tokens are verified locally
 @Configuration
+@ConditionalOnProperty(value = "auth.provider", havingValue = "firebase", matchIfMissing = true)
 public class FirebaseConfig {
 
     @Bean
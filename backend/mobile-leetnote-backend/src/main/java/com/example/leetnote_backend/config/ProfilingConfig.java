@@ -0,0 +1,25 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.diagnostics.ProfilingEndpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * On-demand JFR recordings of production traffic, for admins only (see SecurityConfig)
+ */
+@Configuration
+@ConditionalOnProperty(value = "profiling.enabled", matchIfMissing = true)
+public class ProfilingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ProfilingEndpoint profilingEndpoint(
+            @Value("${profiling.max-duration-seconds:300}") long maxDurationSeconds,
+            @Value("${profiling.max-size:200MB}") DataSize maxSize) {
+        return new ProfilingEndpoint(Duration.ofSeconds(maxDurationSeconds), maxSize.toBytes());
+    }
+}
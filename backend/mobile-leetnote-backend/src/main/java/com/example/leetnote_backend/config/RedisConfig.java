@@ -1,24 +1,192 @@
 package com.example.leetnote_backend.config;
 
+import com.example.leetnote_backend.cache.CacheLayerMetrics;
+import com.example.leetnote_backend.cache.CacheLeases;
+import com.example.leetnote_backend.cache.L1CacheSpec;
+import com.example.leetnote_backend.cache.NegativeLookupCache;
+import com.example.leetnote_backend.cache.ObservedCacheManager;
+import com.example.leetnote_backend.cache.PageRedisSerializer;
+import com.example.leetnote_backend.cache.RedisCacheLeases;
+import com.example.leetnote_backend.cache.SmileRedisSerializer;
+import com.example.leetnote_backend.cache.StampedeProtectedCache;
+import com.example.leetnote_backend.cache.TwoLevelCacheManager;
+import com.example.leetnote_backend.model.DTO.HeatmapDTO;
+import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.entity.User;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    // Payloads above this many bytes are LZ4-compressed before going to Redis
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    // How long one loader may hold a key before waiting callers give up and load it themselves
+    private static final Duration LOAD_LEASE_TIME = Duration.ofSeconds(2);
+
+    @Bean
+    public CacheLeases cacheLeases(RedisConnectionFactory connectionFactory) {
+        return new RedisCacheLeases(new StringRedisTemplate(connectionFactory));
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheLeases leases,
+                                             MeterRegistry meterRegistry,
+                                             ObjectProvider<PlatformTransactionManager> transactionManager) {
+        // In-process near-cache over Redis; L1 TTLs stay well below the Redis TTLs
+        Map<String, L1CacheSpec> l1Specs = new HashMap<>();
+
+        // LeetCode API stats - one entry per username
+        l1Specs.put("leetcodeApiStats", new L1CacheSpec(Duration.ofMinutes(2), 1_000));
+
+        // User LeetCode stats - one entry per user
+        l1Specs.put("userLeetcodeStats", new L1CacheSpec(Duration.ofMinutes(1), 5_000));
+
+        // Submission heatmaps - one entry per user and year
+        l1Specs.put("leetcodeHeatmap", new L1CacheSpec(Duration.ofMinutes(2), 2_000));
+
+        // Usernames LeetCode reported as nonexistent - short-lived so new accounts are picked up
+        l1Specs.put("leetcodeMissingUsers", new L1CacheSpec(Duration.ofMinutes(1), 10_000));
+
+        // Problem lists - weighted by rows so the bound is ~50k list items
+        l1Specs.put("problemLists", new L1CacheSpec(Duration.ofSeconds(30), 50_000));
+
+        // Problem details - hottest keys (popular problems) benefit most
+        l1Specs.put("problemDetails", new L1CacheSpec(Duration.ofMinutes(2), 5_000));
+
+        // Shared catalog pages and problem content - same for every user, warmed at startup
+        l1Specs.put("problemCatalog", new L1CacheSpec(Duration.ofMinutes(5), 10_000));
+        l1Specs.put("problemContent", new L1CacheSpec(Duration.ofMinutes(5), 2_000));
+
+        // No L1 for "users": UserService mutates the cached User entity in place before saving,
+        // so a shared in-process instance could expose unsaved changes
+
+        // Single-flight loading with a short Redis lease plus probabilistic early refresh (XFetch).
+        // Not for the negative cache: it is only probed and written directly, never loaded through
+        Executor refreshExecutor = cacheRefreshExecutor();
+        TransactionOperations refreshTransaction = refreshTransaction(transactionManager.getIfAvailable());
+        UnaryOperator<Cache> stampedeProtection = cache -> "leetcodeMissingUsers".equals(cache.getName())
+                ? cache
+                : new StampedeProtectedCache(cache, leases, ttlOf(cache), LOAD_LEASE_TIME, 1.0,
+                        refreshExecutor, refreshTransaction, meterRegistry);
+
+        return new TwoLevelCacheManager(
+                redisCacheManager(connectionFactory),
+                l1Specs,
+                new StringRedisTemplate(connectionFactory),
+                stampedeProtection
+        );
+    }
+
+    /**
+     * Runs early refreshes of hot keys off the request path; rejects work when saturated.
+     * Deliberately not a bean so it does not replace Boot's applicationTaskExecutor.
+     */
+    private static Executor cacheRefreshExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        // Refreshes carry the trace of the request that triggered them
+        return ContextExecutorService.wrap(new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), threadFactory, new ThreadPoolExecutor.AbortPolicy()),
+                () -> ContextSnapshotFactory.builder().build().captureAll());
+    }
+
+    /**
+     * Early refreshes run off the caller's thread, so they open their own read-only transaction
+     * (routed like any other read; the caller's user comes along with the thread context)
+     */
+    private static TransactionOperations refreshTransaction(PlatformTransactionManager transactionManager) {
+        if (transactionManager == null) {
+            return TransactionOperations.withoutTransaction();
+        }
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * Routes @Cacheable lookups through an observing view of the cache manager (cache.lookup spans)
+     */
+    @Bean
+    public CachingConfigurer cacheObservation(TwoLevelCacheManager cacheManager,
+                                              ObjectProvider<ObservationRegistry> observationRegistry) {
+        CacheManager observed = new ObservedCacheManager(cacheManager,
+                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+        return new CachingConfigurer() {
+            @Override
+            public CacheManager cacheManager() {
+                return observed;
+            }
+        };
+    }
+
+    /**
+     * Negative cache for LeetCode usernames, kept apart from the positive leetcodeApiStats cache
+     */
+    @Bean
+    public NegativeLookupCache leetcodeMissingUsers(TwoLevelCacheManager cacheManager, MeterRegistry meterRegistry) {
+        return new NegativeLookupCache(cacheManager.getCache("leetcodeMissingUsers"), meterRegistry);
+    }
+
+    /**
+     * Publishes per-layer hit/miss counts for every cache (scraped at /actuator/prometheus)
+     */
+    @Bean
+    public MeterBinder cacheLayerMetrics(TwoLevelCacheManager cacheManager) {
+        return new CacheLayerMetrics(cacheManager);
+    }
+
+    /**
+     * Listens for invalidations broadcast by other instances and drops their L1 entries
+     */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
 
         // Use JSON serialization
         RedisSerializationContext.SerializationPair<Object> jsonSerializer =
@@ -33,41 +201,89 @@ public class RedisConfig {
                 .disableCachingNullValues();
 
         // Custom cache configurations for different cache types
+        Map<String, RedisSerializer<?>> serializers = valueSerializers();
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
 
         // LeetCode API stats - cache for 10 minutes (external API data)
-        cacheConfigurations.put("leetcodeApiStats",
-            RedisCacheConfiguration.defaultCacheConfig()
+        cacheConfigurations.put("leetcodeApiStats", defaultConfig
                 .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues());
+                .serializeValuesWith(typed(serializers.get("leetcodeApiStats"))));
 
         // User LeetCode stats - cache for 5 minutes
-        cacheConfigurations.put("userLeetcodeStats",
-            RedisCacheConfiguration.defaultCacheConfig()
+        cacheConfigurations.put("userLeetcodeStats", defaultConfig
                 .entryTtl(Duration.ofMinutes(5))
-                .disableCachingNullValues());
+                .serializeValuesWith(typed(serializers.get("userLeetcodeStats"))));
+
+        // Submission heatmaps - cache for 30 minutes, evicted when the refresher adds days
+        cacheConfigurations.put("leetcodeHeatmap", defaultConfig
+                .entryTtl(Duration.ofMinutes(30))
+                .serializeValuesWith(typed(serializers.get("leetcodeHeatmap"))));
+
+        // Nonexistent LeetCode usernames - cache for 5 minutes
+        cacheConfigurations.put("leetcodeMissingUsers", defaultConfig
+                .entryTtl(Duration.ofMinutes(5))
+                .serializeValuesWith(typed(serializers.get("leetcodeMissingUsers"))));
 
         // Problem lists - cache for 5 minutes
-        cacheConfigurations.put("problemLists",
-            RedisCacheConfiguration.defaultCacheConfig()
+        cacheConfigurations.put("problemLists", defaultConfig
                 .entryTtl(Duration.ofMinutes(5))
-                .disableCachingNullValues());
+                .serializeValuesWith(typed(serializers.get("problemLists"))));
 
         // Problem details - cache for 10 minutes
-        cacheConfigurations.put("problemDetails",
-            RedisCacheConfiguration.defaultCacheConfig()
+        cacheConfigurations.put("problemDetails", defaultConfig
                 .entryTtl(Duration.ofMinutes(10))
-                .disableCachingNullValues());
+                .serializeValuesWith(typed(serializers.get("problemDetails"))));
+
+        // Catalog pages and problem content - cache for 30 minutes, rewritten by ProblemCacheWarmer every 10
+        cacheConfigurations.put("problemCatalog", defaultConfig
+                .entryTtl(Duration.ofMinutes(30))
+                .serializeValuesWith(typed(serializers.get("problemCatalog"))));
+        cacheConfigurations.put("problemContent", defaultConfig
+                .entryTtl(Duration.ofMinutes(30))
+                .serializeValuesWith(typed(serializers.get("problemContent"))));
 
         // User data - cache for 15 minutes
-        cacheConfigurations.put("users",
-            RedisCacheConfiguration.defaultCacheConfig()
+        cacheConfigurations.put("users", defaultConfig
                 .entryTtl(Duration.ofMinutes(15))
-                .disableCachingNullValues());
+                .serializeValuesWith(typed(serializers.get("users"))));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
                 .build();
+        // Not a bean of its own, so load the configured caches here
+        redisCacheManager.initializeCaches();
+        return redisCacheManager;
+    }
+
+    /**
+     * Value codec of each cache: every cache stores one known type, so values use a typed Smile
+     * codec (LZ4 above 1 KB). Shared with CacheValueSerializationBenchmark.
+     */
+    static Map<String, RedisSerializer<?>> valueSerializers() {
+        Map<String, RedisSerializer<?>> serializers = new HashMap<>();
+        serializers.put("leetcodeApiStats", new SmileRedisSerializer<>(LeetcodeStatsDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("userLeetcodeStats", new SmileRedisSerializer<>(LeetcodeStatsDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("leetcodeHeatmap", new SmileRedisSerializer<>(HeatmapDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("leetcodeMissingUsers", new SmileRedisSerializer<>(Boolean.class, COMPRESSION_THRESHOLD));
+        serializers.put("problemLists", new PageRedisSerializer<>(ProblemListDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("problemDetails", new SmileRedisSerializer<>(ProblemDetailDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("problemCatalog", new PageRedisSerializer<>(ProblemListDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("problemContent", new SmileRedisSerializer<>(ProblemDetailDTO.class, COMPRESSION_THRESHOLD));
+        serializers.put("users", new SmileRedisSerializer<>(User.class, COMPRESSION_THRESHOLD));
+        return serializers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisSerializationContext.SerializationPair<Object> typed(RedisSerializer<?> serializer) {
+        return RedisSerializationContext.SerializationPair.fromSerializer((RedisSerializer<Object>) serializer);
+    }
+
+    private static Duration ttlOf(Cache cache) {
+        // Every cache here has a fixed TTL, so any key yields it
+        return cache instanceof RedisCache redisCache
+                ? redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(cache.getName(), null)
+                : Duration.ZERO;
     }
 }
@@ -0,0 +1,115 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.db.ReadYourWrites;
+import com.example.leetnote_backend.db.ReplicaLagMonitor;
+import com.example.leetnote_backend.db.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read/write split: read-only transactions go to a streaming replica (db.replica.enabled=true)
+ *
+ * The primary pool is built from spring.datasource.* as before and the replica pool from
+ * db.replica.*, with its own size so reads never take the primary's connections. Both sit behind
+ * one routing DataSource (see ReplicaRoutingDataSource for the fallback rules). The pools are not
+ * beans themselves, so the DataSource wrappers and Boot's auto-configuration see a single
+ * DataSource. Without a replica nothing changes: read-only transactions run on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(value = "db.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            ReadYourWrites readYourWrites,
+            @Value("${db.replica.max-lag-ms:2000}") long maxLagMs,
+            @Value("${db.replica.fallback-max-concurrent:3}") int fallbackMaxConcurrent) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setUsername(properties.determineUsername());
+        replica.setPassword(properties.determinePassword());
+        binder.bind("db.replica.hikari", Bindable.ofInstance(replica));
+        replica.setJdbcUrl(environment.getRequiredProperty("db.replica.url"));
+        replica.setReadOnly(true);
+        replica.setPoolName("replica");
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replica, Duration.ofMillis(maxLagMs));
+        lagMonitor.check();
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary, replica, lagMonitor, readYourWrites, fallbackMaxConcurrent, meterRegistry));
+    }
+
+    /**
+     * Users' read-your-writes windows, shared through Redis; also started by the write-behind flush
+     */
+    @Bean
+    public ReadYourWrites readYourWrites(RedisConnectionFactory connectionFactory,
+                                         @Value("${db.replica.read-your-writes-ms:5000}") long readYourWritesMs,
+                                         @Value("${db.replica.read-your-writes-negative-cache-ms:200}") long negativeCacheMs) {
+        return new ReadYourWrites(Duration.ofMillis(readYourWritesMs), 100_000,
+                ReplicaDataSourceConfig::currentUserId, new StringRedisTemplate(connectionFactory),
+                Duration.ofMillis(negativeCacheMs));
+    }
+
+    /**
+     * Exposed as a bean so its @Scheduled check runs; db.replica.lag reports the last result
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, MeterRegistry meterRegistry) throws SQLException {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        Gauge.builder("db.replica.lag", routing.getLagMonitor(), ReplicaLagMonitor::getLagSeconds)
+                .description("Replica replay lag behind the primary")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.fallback.available", routing, ReplicaRoutingDataSource::getAvailableFallbackPermits)
+                .description("Lag fallback reads the primary can still take")
+                .register(meterRegistry);
+        return routing.getLagMonitor();
+    }
+
+    @Bean
+    public DisposableBean replicaRoutingShutdown(DataSource dataSource) throws SQLException {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        return routing::close;
+    }
+
+    private static Object currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getUserId()
+                : null;
+    }
+}
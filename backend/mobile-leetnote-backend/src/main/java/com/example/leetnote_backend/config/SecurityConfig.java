@@ -1,5 +1,6 @@
 package com.example.leetnote_backend.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -25,6 +26,11 @@ public class SecurityConfig { // This tell Spring Security about the Firebase fi
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/public/**").permitAll()
+                        // Served on the management port only; scraped by Prometheus without a Firebase token
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        // JFR recordings expose everything the JVM is doing; metrics, build info and
+                        // pinning sites describe the deployment, so they are not for app users either
+                        .requestMatchers(EndpointRequest.to("profiling", "metrics", "info", "pinning")).hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(firebaseAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
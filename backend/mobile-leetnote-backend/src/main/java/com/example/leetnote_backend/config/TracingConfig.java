@@ -0,0 +1,27 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.diagnostics.JsonLinesSpanExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * Spans written to a local file, next to (or instead of) the OTLP exporter Boot adds when
+     * management.otlp.tracing.endpoint is set
+     */
+    @Bean
+    @ConditionalOnProperty("tracing.export.file")
+    public SpanExporter jsonLinesSpanExporter(@Value("${tracing.export.file}") String file,
+                                              ObjectMapper objectMapper) throws IOException {
+        return new JsonLinesSpanExporter(Path.of(file), objectMapper);
+    }
+}
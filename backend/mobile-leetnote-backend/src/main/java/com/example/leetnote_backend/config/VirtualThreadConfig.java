@@ -0,0 +1,97 @@
+package com.example.leetnote_backend.config;
+
+import com.example.leetnote_backend.db.AdmissionControlledDataSource;
+import com.example.leetnote_backend.db.ReplicaRoutingDataSource;
+import com.example.leetnote_backend.diagnostics.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Extras for virtual-thread mode (spring.threads.virtual.enabled=true)
+ *
+ * Boot itself moves Tomcat request handling, @Scheduled and @Async onto virtual threads, so
+ * the blocking LeetCode/Together AI calls park instead of holding a platform thread. Here we
+ * add the pieces that mode needs: a bounded admission queue in front of the connection pool
+ * and a JFR-based report of where virtual threads still get pinned to their carrier.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    /**
+     * The limit is sized from the primary pool, so with a replica it only covers the primary route
+     */
+    @Bean
+    public static BeanPostProcessor databaseAdmissionPostProcessor(
+            @Value("${db.admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${db.admission.timeout-ms:5000}") long timeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof AdmissionControlledDataSource) {
+                    return bean;
+                }
+                ReplicaRoutingDataSource routing = unwrap(dataSource, ReplicaRoutingDataSource.class);
+                if (routing != null) {
+                    routing.admitToPrimary(maxConcurrent, Duration.ofMillis(timeoutMs));
+                    return bean;
+                }
+                return new AdmissionControlledDataSource(dataSource, maxConcurrent, Duration.ofMillis(timeoutMs));
+            }
+        };
+    }
+
+    /**
+     * db.admission.available / waiting / rejected next to Hikari's own pool gauges
+     */
+    @Bean
+    public MeterBinder databaseAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            // May sit under other DataSource wrappers (statement instrumentation) or, with a replica, on the primary route
+            AdmissionControlledDataSource admission = unwrap(dataSource, AdmissionControlledDataSource.class);
+            if (admission == null) {
+                ReplicaRoutingDataSource routing = unwrap(dataSource, ReplicaRoutingDataSource.class);
+                admission = routing != null ? routing.getPrimaryAdmission() : null;
+            }
+            if (admission == null) {
+                return;
+            }
+            Gauge.builder("db.admission.available", admission, AdmissionControlledDataSource::getAvailablePermits)
+                    .description("Free database admission slots")
+                    .register(registry);
+            Gauge.builder("db.admission.waiting", admission, AdmissionControlledDataSource::getWaiting)
+                    .description("Threads queued for a database admission slot")
+                    .register(registry);
+            FunctionCounter.builder("db.admission.rejected", admission, AdmissionControlledDataSource::getRejected)
+                    .description("Connection requests that timed out waiting for a slot")
+                    .register(registry);
+        };
+    }
+
+    @Nullable
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs));
+    }
+}
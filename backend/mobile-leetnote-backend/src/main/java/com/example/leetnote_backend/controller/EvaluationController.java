@@ -1,6 +1,7 @@
 package com.example.leetnote_backend.controller;
 
 import com.example.leetnote_backend.config.UserPrincipal;
+import com.example.leetnote_backend.db.QueryBudget;
 import com.example.leetnote_backend.model.DTO.EvaluationDTO;
 import com.example.leetnote_backend.model.DTO.EvaluationDetailDTO;
 import com.example.leetnote_backend.model.DTO.EvaluationListItemDTO;
@@ -78,6 +79,7 @@ public class EvaluationController {
     }
 
     @GetMapping("/all")
+    @QueryBudget(2)
     public ResponseEntity<List<EvaluationListItemDTO>> getAllEvaluations(
             @AuthenticationPrincipal UserPrincipal userPrincipal
     ) {
@@ -1,13 +1,21 @@
 package com.example.leetnote_backend.controller;
 
 import com.example.leetnote_backend.config.UserPrincipal;
+import com.example.leetnote_backend.exception.BadRequestException;
+import com.example.leetnote_backend.model.DTO.HeatmapDTO;
 import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.model.DTO.StatsHistoryDTO;
 import com.example.leetnote_backend.service.LeetcodeService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneOffset;
+
 @RestController
 @RequestMapping("/api/leetcode")
 @RequiredArgsConstructor
@@ -73,6 +81,43 @@ public class LeetcodeController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get one year of daily submission counts (defaults to the current year)
+     * counts[i] is day-of-year i + 1, so the app can render it without parsing date keys
+     */
+    @GetMapping("/heatmap")
+    public ResponseEntity<HeatmapDTO> getHeatmap(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) Integer year
+    ) {
+        Long userId = userPrincipal.getUserId();
+        int resolvedYear = year != null ? year : Year.now(ZoneOffset.UTC).getValue();
+        HeatmapDTO heatmap = leetcodeService.getHeatmap(userId, resolvedYear);
+        return ResponseEntity.ok(heatmap);
+    }
+
+    /**
+     * Get solved-count history for charts (defaults to the last 90 days)
+     * Recent points are hourly, older ones daily, weekly and then monthly
+     */
+    @GetMapping("/history")
+    public ResponseEntity<StatsHistoryDTO> getStatsHistory(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        Long userId = userPrincipal.getUserId();
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(90);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        StatsHistoryDTO history = leetcodeService.getStatsHistory(userId,
+                start.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusSeconds(1));
+        return ResponseEntity.ok(history);
+    }
+
     // Request DTO
     @lombok.Data
     public static class SetUsernameRequest {
@@ -4,7 +4,10 @@ import com.example.leetnote_backend.config.UserPrincipal;
 import com.example.leetnote_backend.exception.ResourceNotFoundException;
 import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
 import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.ProblemStatusUpdateRequest;
 import com.example.leetnote_backend.service.ProblemService;
+import com.example.leetnote_backend.service.ProblemStatusWriteBuffer;
+import com.example.leetnote_backend.service.ProblemViewTracker;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,9 +22,15 @@ import java.util.List;
 public class ProblemController {
 
     private final ProblemService problemService;
+    private final ProblemStatusWriteBuffer problemStatusWriteBuffer;
+    private final ProblemViewTracker problemViewTracker;
 
-    public ProblemController(ProblemService problemService) {
+    public ProblemController(ProblemService problemService,
+                             ProblemStatusWriteBuffer problemStatusWriteBuffer,
+                             ProblemViewTracker problemViewTracker) {
         this.problemService = problemService;
+        this.problemStatusWriteBuffer = problemStatusWriteBuffer;
+        this.problemViewTracker = problemViewTracker;
     }
 
     @GetMapping
@@ -35,7 +44,10 @@ public class ProblemController {
             @RequestParam(defaultValue = "20") int size) {
         Long userId = userPrincipal.getUserId();
         Pageable pageable = PageRequest.of(page, size);
-        return problemService.getAllProblems(userId, keyword, difficulties, isSolved, isFavorite, pageable);
+        Page<ProblemListDTO> problems =
+                problemService.getAllProblems(userId, keyword, difficulties, isSolved, isFavorite, pageable);
+        // Staged status changes are not in the database (or cache) yet
+        return ProblemStatusWriteBuffer.overlay(problems, problemStatusWriteBuffer.pendingFor(userId));
     }
 
     @GetMapping("/{problemId}")
@@ -49,7 +61,10 @@ public class ProblemController {
         if (problemDetailDTO == null) {
             throw new ResourceNotFoundException("Problem", "id", problemId);
         }
-        return ResponseEntity.ok(problemDetailDTO);
+        // Feeds the most-viewed ranking used by cache warm-up
+        problemViewTracker.recordView(problemId);
+        return ResponseEntity.ok(
+                ProblemStatusWriteBuffer.overlay(problemDetailDTO, problemStatusWriteBuffer.pendingFor(userId)));
     }
 
     @PutMapping("/{problemId}/status")
@@ -63,4 +78,14 @@ public class ProblemController {
         ProblemListDTO updated = problemService.updateProblemStatus(userId, problemId, isSolved, isFavorite);
         return ResponseEntity.ok(updated);
     }
-}
\ No newline at end of file
+
+    @PutMapping("/status")
+    public ResponseEntity<List<ProblemListDTO>> updateStatuses(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestBody List<ProblemStatusUpdateRequest> updates
+    ) {
+        Long userId = userPrincipal.getUserId();
+        List<ProblemListDTO> updated = problemService.updateProblemStatuses(userId, updates);
+        return ResponseEntity.ok(updated);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.leetnote_backend.db;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most statements an endpoint is expected to execute per request
+ *
+ * Checked by QueryBudgetFilter. Endpoints without it get db.query-budget.default.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,100 @@
+package com.example.leetnote_backend.db;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the statements each request executes and holds endpoints to their QueryBudget
+ *
+ * Records db.queries.per.request by route. A statement that repeats within one request is
+ * reported as a likely N+1. Over-budget requests are logged; with enforcement on (tests)
+ * they fail with QueryBudgetExceededException instead, so a regression breaks the build.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+    private final int repeatThreshold;
+    private final boolean enforce;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry, int defaultBudget, int repeatThreshold, boolean enforce) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.enforce = enforce;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats = QueryStats.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            stats.close();
+        }
+        check(request, stats);
+    }
+
+    void check(HttpServletRequest request, QueryStats stats) {
+        String route = route(request);
+        DistributionSummary.builder("db.queries.per.request")
+                .description("Statements executed while handling one request")
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(stats.getCount());
+
+        stats.mostRepeated()
+                .filter(repeated -> repeated.getValue() >= repeatThreshold)
+                .ifPresent(repeated -> log.warn("Possible N+1 on {} {}: statement ran {} times: {}",
+                        request.getMethod(), route, repeated.getValue(), repeated.getKey().strip()));
+
+        int budget = budget(request);
+        if (stats.getCount() > budget) {
+            String message = request.getMethod() + " " + route + " executed " + stats.getCount()
+                    + " statements (" + stats.getTime().toMillis() + " ms), budget is " + budget;
+            if (enforce) {
+                throw new QueryBudgetExceededException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    private int budget(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            QueryBudget annotation = handler.getMethodAnnotation(QueryBudget.class);
+            if (annotation != null) {
+                return annotation.value();
+            }
+        }
+        return defaultBudget;
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    /**
+     * Thrown only when enforcement is on, i.e. in tests
+     */
+    public static class QueryBudgetExceededException extends IllegalStateException {
+        public QueryBudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
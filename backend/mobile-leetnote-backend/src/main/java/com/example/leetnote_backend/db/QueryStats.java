@@ -0,0 +1,77 @@
+package com.example.leetnote_backend.db;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Statements executed on the current thread while a scope is open (usually one HTTP request)
+ *
+ * StatementInstrumentingDataSource reports every execution here. Scopes nest and a statement
+ * counts towards every scope open on the thread, so a test can wrap a whole request.
+ * Identical SQL is tallied as well: the same statement run once per row is what an N+1 looks like.
+ */
+public final class QueryStats implements AutoCloseable {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats parent;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private int count;
+    private long nanos;
+    private boolean closed;
+
+    private QueryStats(QueryStats parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Start counting statements on this thread; close the returned scope to stop
+     */
+    public static QueryStats open() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void record(String sql, long elapsedNanos) {
+        for (QueryStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.count++;
+            stats.nanos += elapsedNanos;
+            if (sql != null) {
+                stats.executionsBySql.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Duration getTime() {
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * The statement run most often in this scope, with its execution count
+     */
+    public Optional<Map.Entry<String, Integer>> mostRepeated() {
+        return executionsBySql.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
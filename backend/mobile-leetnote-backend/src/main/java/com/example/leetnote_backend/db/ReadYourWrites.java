@@ -0,0 +1,130 @@
+package com.example.leetnote_backend.db;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which users wrote recently, so their reads can skip the replica until it has caught up
+ *
+ * The window should cover the replica lag we are willing to tolerate (db.replica.max-lag-ms);
+ * after it the user's own writes are assumed visible on the replica. Windows live in Redis so a
+ * write on one instance also keeps the user's reads on the others off the replica; the in-process
+ * copy answers for writes made here without a round trip. A "no recent write" answer from Redis
+ * is reused for a short while, so a user's burst of reads costs one lookup rather than one per
+ * read-only transaction. If Redis cannot be reached only the in-process copy is used.
+ */
+public class ReadYourWrites {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWrites.class);
+
+    static final String KEY_PREFIX = "read-your-writes::";
+    private static final byte[] MARKER = {'1'};
+
+    private final Duration window;
+    private final Cache<Object, Boolean> recentWriters;
+    private final Cache<Object, Boolean> notWriting;
+    private final Supplier<Object> currentUser;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * @param currentUser id of the user on the current thread, or null for background work
+     */
+    public ReadYourWrites(Duration window, long maximumUsers, Supplier<Object> currentUser) {
+        this(window, maximumUsers, currentUser, null, Duration.ZERO);
+    }
+
+    /**
+     * @param redisTemplate where windows are shared with other instances; null keeps them in-process
+     * @param negativeTtl   how long Redis' "no recent write" is reused; a write through another instance
+     *                      can go unseen for that long, so keep it well below the window
+     */
+    public ReadYourWrites(Duration window, long maximumUsers, Supplier<Object> currentUser,
+                          @Nullable StringRedisTemplate redisTemplate, Duration negativeTtl) {
+        this.window = window;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumUsers)
+                .build();
+        this.notWriting = Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl)
+                .maximumSize(maximumUsers)
+                .build();
+        this.currentUser = currentUser;
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void recordWrite() {
+        Object user = currentUser.get();
+        if (user != null) {
+            recordWrites(List.of(user));
+        }
+    }
+
+    /**
+     * Start the window for users whose writes were committed off their own request thread,
+     * e.g. by the write-behind flush
+     */
+    public void recordWrites(Collection<?> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        users.forEach(user -> recentWriters.put(user, Boolean.TRUE));
+        notWriting.invalidateAll(users);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                Expiration expiration = Expiration.milliseconds(window.toMillis());
+                for (Object user : users) {
+                    connection.stringCommands().set(key(user), MARKER, expiration,
+                            RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.debug("Read-your-writes window for {} user(s) kept in-process only: {}", users.size(), e.getMessage());
+        }
+    }
+
+    public boolean wroteRecently() {
+        Object user = currentUser.get();
+        if (user == null) {
+            return false;
+        }
+        if (recentWriters.getIfPresent(user) != null) {
+            return true;
+        }
+        if (redisTemplate == null || notWriting.getIfPresent(user) != null) {
+            return false;
+        }
+        boolean wrote;
+        try {
+            wrote = Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + user));
+        } catch (RuntimeException e) {
+            log.debug("Read-your-writes lookup for user {} failed: {}", user, e.getMessage());
+            wrote = false;
+        }
+        if (!wrote) {
+            notWriting.put(user, Boolean.TRUE);
+        }
+        return wrote;
+    }
+
+    private static byte[] key(Object user) {
+        return (KEY_PREFIX + user).getBytes(StandardCharsets.UTF_8);
+    }
+}
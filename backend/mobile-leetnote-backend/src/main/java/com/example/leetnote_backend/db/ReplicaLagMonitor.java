@@ -0,0 +1,78 @@
+package com.example.leetnote_backend.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Tracks how far the replica is behind the primary
+ *
+ * check() runs on a schedule. A replica that has replayed everything it received reports zero,
+ * so an idle primary does not look like lag. A failed check marks the replica down until the
+ * next successful one.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    public enum State { OK, LAGGING, DOWN }
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private volatile double lagSeconds;
+    private volatile State state = State.DOWN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            lagSeconds = rs.getDouble(1);
+            State next = lagSeconds * 1000 > maxLag.toMillis() ? State.LAGGING : State.OK;
+            if (next != state) {
+                log.info("Replica is now {} (lag {} s)", next, lagSeconds);
+            }
+            state = next;
+        } catch (SQLException | RuntimeException e) {
+            markDown(e);
+        }
+    }
+
+    /**
+     * Called when the replica fails outside a check, e.g. when handing out a connection
+     */
+    public void markDown(Exception cause) {
+        if (state != State.DOWN) {
+            log.warn("Replica unavailable, routing reads to the primary: {}", cause.getMessage());
+        }
+        state = State.DOWN;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.leetnote_backend.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary
+ *
+ * A read stays on the primary when the reading user committed a write within the
+ * read-your-writes window, or when the replica is down. When the replica is only lagging, reads
+ * fall back to the primary while fewer than fallbackMaxConcurrent of them hold a primary
+ * connection. Past that they are served, slightly stale, from the replica, so a lag spike cannot
+ * take the pool that write bursts need.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is only set
+ * after the transaction manager asks for a connection.
+ *
+ * In virtual-thread mode the primary route can be put behind an admission limit (admitToPrimary);
+ * replica reads have their own pool and do not count against it.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private volatile DataSource primaryRoute;
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWrites readYourWrites;
+    private final Semaphore fallbackPermits;
+    private final MeterRegistry meterRegistry;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWrites readYourWrites, int fallbackMaxConcurrent,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryRoute = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        this.fallbackPermits = new Semaphore(fallbackMaxConcurrent);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            return routed(Route.PRIMARY, "read-write").getConnection();
+        }
+        if (readYourWrites.wroteRecently()) {
+            return routed(Route.PRIMARY, "read-your-writes").getConnection();
+        }
+
+        ReplicaLagMonitor.State state = lagMonitor.getState();
+        if (state == ReplicaLagMonitor.State.LAGGING && fallbackPermits.tryAcquire()) {
+            try {
+                return releasingOnClose(routed(Route.PRIMARY, "replica-lag").getConnection());
+            } catch (SQLException | RuntimeException e) {
+                fallbackPermits.release();
+                throw e;
+            }
+        }
+        if (state == ReplicaLagMonitor.State.DOWN) {
+            return routed(Route.PRIMARY, "replica-down").getConnection();
+        }
+
+        try {
+            return routed(Route.REPLICA, state == ReplicaLagMonitor.State.OK ? "read" : "fallback-full")
+                    .getConnection();
+        } catch (SQLException e) {
+            lagMonitor.markDown(e);
+            return routed(Route.PRIMARY, "replica-down").getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Routing uses the credentials configured on each pool");
+    }
+
+    public ReplicaLagMonitor getLagMonitor() {
+        return lagMonitor;
+    }
+
+    public int getAvailableFallbackPermits() {
+        return fallbackPermits.availablePermits();
+    }
+
+    /**
+     * Queue primary checkouts, read-write and fallback reads alike, behind a limit sized for the primary pool
+     */
+    public void admitToPrimary(int maxConcurrent, Duration acquireTimeout) {
+        primaryRoute = new AdmissionControlledDataSource(primary, maxConcurrent, acquireTimeout);
+    }
+
+    @Nullable
+    public AdmissionControlledDataSource getPrimaryAdmission() {
+        return primaryRoute instanceof AdmissionControlledDataSource admission ? admission : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource target : new DataSource[]{primary, replica}) {
+            if (target instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private DataSource routed(Route route, String reason) {
+        Counter.builder("db.routing")
+                .description("Connections handed out by target and routing reason")
+                .tag("route", route.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return route == Route.REPLICA ? replica : primaryRoute;
+    }
+
+    /**
+     * Start the user's read-your-writes window once the transaction commits (rollbacks wrote nothing)
+     */
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWrites.recordWrite();
+                }
+            });
+        } else {
+            readYourWrites.recordWrite();
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            fallbackPermits.release();
+                        }
+                    }
+                });
+    }
+}
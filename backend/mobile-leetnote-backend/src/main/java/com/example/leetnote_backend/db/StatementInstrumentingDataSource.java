@@ -0,0 +1,217 @@
+package com.example.leetnote_backend.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * DataSource that times every statement executed through its connections
+ *
+ * Covers Hibernate and the JdbcTemplate fragments alike. Each execution is recorded as
+ * db.statement (tagged by operation), counted towards the thread's QueryStats scope, and
+ * logged with its bind parameters when it takes longer than the slow-query threshold.
+ * Inside a trace each execution is also a span carrying the SQL (never the bind values);
+ * statements run outside any trace do not start one of their own.
+ * The registry and tracer are looked up on first use, so wrapping the pool does not pull
+ * metrics (which bind to the pool) into DataSource creation.
+ */
+public class StatementInstrumentingDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementInstrumentingDataSource.class);
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final Set<String> OPERATIONS = Set.of("select", "insert", "update", "delete");
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Supplier<Tracer> tracer;
+    private final long slowThresholdNanos;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile Counter slowStatements;
+
+    public StatementInstrumentingDataSource(DataSource target, Supplier<MeterRegistry> meterRegistry,
+                                            Duration slowThreshold) {
+        this(target, meterRegistry, () -> Tracer.NOOP, slowThreshold);
+    }
+
+    public StatementInstrumentingDataSource(DataSource target, Supplier<MeterRegistry> meterRegistry,
+                                            Supplier<Tracer> tracer, Duration slowThreshold) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(super.getConnection(username, password));
+    }
+
+    private Connection instrument(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getName().matches("createStatement|prepare.*")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return instrument(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Object instrument(Statement statement, Class<?> type, String preparedSql) {
+        // Bind parameters by index for the slow-query log; batches keep only their size
+        Map<Integer, Object> parameters = new TreeMap<>();
+        int[] batchSize = {0};
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("setNull".equals(name) && args != null && args[0] instanceof Integer index) {
+                        parameters.put(index, null);
+                    } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameters.put(index, args[1]);
+                    } else if ("clearParameters".equals(name)) {
+                        parameters.clear();
+                    } else if ("addBatch".equals(name)) {
+                        batchSize[0]++;
+                    } else if (name.startsWith("execute")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                        Span span = startSpan(sql, batchSize[0]);
+                        long started = System.nanoTime();
+                        try {
+                            return invoke(statement, method, args);
+                        } catch (Throwable e) {
+                            if (span != null) {
+                                span.error(e);
+                            }
+                            throw e;
+                        } finally {
+                            record(sql, System.nanoTime() - started, parameters, batchSize[0]);
+                            batchSize[0] = 0;
+                            if (span != null) {
+                                span.end();
+                            }
+                        }
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private void record(String sql, long elapsedNanos, Map<Integer, Object> parameters, int batchSize) {
+        QueryStats.record(sql, elapsedNanos);
+        timer(operation(sql)).record(Duration.ofNanos(elapsedNanos));
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            slowStatements().increment();
+            String bound = batchSize > 0 ? "batch of " + batchSize : formatParameters(parameters);
+            log.warn("Slow statement ({} ms): {} [{}]",
+                    Duration.ofNanos(elapsedNanos).toMillis(), sql == null ? "?" : sql.strip(), bound);
+        }
+    }
+
+    /**
+     * A child of the current span, or null when the statement runs outside a trace
+     */
+    private Span startSpan(String sql, int batchSize) {
+        Tracer current = tracer.get();
+        if (current.currentSpan() == null) {
+            return null;
+        }
+        String operation = operation(sql);
+        Span span = current.nextSpan()
+                .name("db " + operation)
+                .tag("db.operation", operation)
+                .tag("db.statement", sql == null ? "?" : sql.strip());
+        if (batchSize > 0) {
+            span.tag("db.batch.size", batchSize);
+        }
+        return span.start();
+    }
+
+    private Timer timer(String operation) {
+        return timers.computeIfAbsent(operation, op -> Timer.builder("db.statement")
+                .description("JDBC statement execution time")
+                .tag("operation", op)
+                .publishPercentileHistogram()
+                .register(meterRegistry.get()));
+    }
+
+    private Counter slowStatements() {
+        Counter counter = slowStatements;
+        if (counter == null) {
+            counter = Counter.builder("db.statement.slow")
+                    .description("Statements slower than the slow-query threshold")
+                    .register(meterRegistry.get());
+            slowStatements = counter;
+        }
+        return counter;
+    }
+
+    private static String operation(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return OPERATIONS.contains(keyword) ? keyword : "other";
+    }
+
+    private static String formatParameters(Map<Integer, Object> parameters) {
+        StringBuilder out = new StringBuilder();
+        parameters.forEach((index, value) -> {
+            if (!out.isEmpty()) {
+                out.append(", ");
+            }
+            out.append(index).append('=').append(formatValue(value));
+        });
+        return out.toString();
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String text = value instanceof CharSequence ? "'" + value + "'" : String.valueOf(value);
+        return text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
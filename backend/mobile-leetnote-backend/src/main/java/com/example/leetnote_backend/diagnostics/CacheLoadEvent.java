@@ -0,0 +1,45 @@
+package com.example.leetnote_backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for computing a cache value on a miss or an early refresh
+ */
+@Name("leetnote.CacheLoad")
+@Label("Cache Load")
+@Category({"LeetNote", "Cache"})
+@Description("Computing a cache value on a miss or ahead of its expiry")
+@StackTrace(false)
+public class CacheLoadEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Early Refresh")
+    boolean refresh;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Ends the event (timed from begin()) and commits it if a recording wants it
+     */
+    public void complete(String cache, String key, boolean refresh, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.key = key;
+            this.refresh = refresh;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.leetnote_backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+/**
+ * JFR event for one stage of creating an evaluation (prompt build, model wait, parse, ...)
+ *
+ * Stages of one evaluation share the thread and user/problem ids, so a recording shows where
+ * each slow evaluation spent its time next to the GC, lock and I/O events of the same moment.
+ * Costs next to nothing while no recording is running.
+ */
+@Name("leetnote.EvaluationStage")
+@Label("Evaluation Stage")
+@Category({"LeetNote", "Evaluation"})
+@Description("One stage of creating a submission evaluation")
+@StackTrace(false)
+public class EvaluationStageEvent extends Event {
+
+    public static final String PERSIST_SUBMISSION = "persist-submission";
+    public static final String PROMPT_BUILD = "prompt-build";
+    public static final String MODEL_WAIT = "model-wait";
+    public static final String PARSE = "parse";
+    public static final String PERSIST_EVALUATION = "persist-evaluation";
+    public static final String RETENTION = "retention";
+
+    @Label("Stage")
+    String stage;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Problem Id")
+    long problemId;
+
+    @Label("Failed")
+    boolean failed;
+
+    public static <T> T record(String stage, Long userId, Long problemId, Supplier<T> work) {
+        EvaluationStageEvent event = new EvaluationStageEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            T result = work.get();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage;
+                event.userId = userId == null ? 0 : userId;
+                event.problemId = problemId == null ? 0 : problemId;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    public static void record(String stage, Long userId, Long problemId, Runnable work) {
+        record(stage, userId, problemId, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.leetnote_backend.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one LeetCode GraphQL request, retries included
+ */
+@Name("leetnote.LeetcodeFetch")
+@Label("LeetCode Fetch")
+@Category({"LeetNote", "LeetCode"})
+@Description("One GraphQL request to LeetCode, including its retries")
+@StackTrace(false)
+public class LeetcodeFetchEvent extends Event {
+
+    @Label("Users")
+    int users;
+
+    @Label("First User")
+    String firstUser;
+
+    @Label("With Calendar")
+    boolean calendar;
+
+    @Label("Outcome")
+    String outcome;
+
+    public void complete(int users, String firstUser, boolean calendar, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.users = users;
+            this.firstUser = firstUser;
+            this.calendar = calendar;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.leetnote_backend.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * On-demand JFR recording of live traffic at /actuator/profiling
+ *
+ * POST starts a recording (JDK "default" or "profile" settings plus the leetnote.* events),
+ * bounded in duration and size; it stops by itself when the duration runs out. DELETE stops it
+ * early if needed and returns the .jfr file, which stays downloadable until the next start.
+ * GET reports the current state. One recording at a time; dumps are written to a private
+ * temporary directory and removed on shutdown.
+ */
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingEndpoint.class);
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+    private static final String APP_EVENTS = "leetnote.";
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final Path directory;
+    private Recording recording;
+    private Path dump;
+    private Instant startedAt;
+    private Duration duration;
+    private String settings;
+
+    public ProfilingEndpoint(Duration maxDuration, long maxSizeBytes) {
+        this.maxDuration = maxDuration;
+        this.maxSizeBytes = maxSizeBytes;
+        try {
+            this.directory = Files.createTempDirectory("leetnote-jfr");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @ReadOperation
+    public synchronized ProfilingStatus status() {
+        if (recording == null) {
+            return new ProfilingStatus("idle", null, null, null, null, maxDuration.toSeconds());
+        }
+        return new ProfilingStatus(state(), settings, startedAt, duration.toSeconds(), size(),
+                maxDuration.toSeconds());
+    }
+
+    /**
+     * @param durationSeconds how long to record, capped at the configured maximum
+     * @param settings        "default" (about 1% overhead) or "profile" (more detail, about 2%)
+     * @return the new recording, or 409 with the running one's status while a recording is in progress
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<ProfilingStatus> start(@Nullable Long durationSeconds,
+                                                                   @Nullable String settings) {
+        String name = settings == null ? "default" : settings;
+        if (!SETTINGS.contains(name)) {
+            throw new InvalidEndpointRequestException("Unknown settings: " + name, "settings must be one of " + SETTINGS);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        Duration requested = durationSeconds == null || durationSeconds <= 0
+                ? maxDuration : Duration.ofSeconds(durationSeconds);
+        Duration bounded = requested.compareTo(maxDuration) > 0 ? maxDuration : requested;
+
+        discard();
+        Path file = directory.resolve("leetnote-" + System.currentTimeMillis() + ".jfr");
+        Recording started;
+        try {
+            started = new Recording(Configuration.getConfiguration(name));
+            started.setName("leetnote-profiling");
+            started.setToDisk(true);
+            started.setDestination(file);
+            started.setDuration(bounded);
+            started.setMaxSize(maxSizeBytes);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Could not set up JFR recording", e);
+        }
+        // Our events are on by default; listed so a custom .jfc cannot silently drop them
+        for (String event : Set.of("EvaluationStage", "CacheLoad", "LeetcodeFetch")) {
+            started.enable(APP_EVENTS + event);
+        }
+        started.start();
+
+        recording = started;
+        dump = file;
+        startedAt = Instant.now();
+        duration = bounded;
+        this.settings = name;
+        log.info("Started JFR recording ({} settings) for {} s", name, bounded.toSeconds());
+        return new WebEndpointResponse<>(status());
+    }
+
+    /**
+     * Stop the recording if it is still running and return the file
+     */
+    @DeleteOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> stop() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped JFR recording after {} s",
+                    Duration.between(startedAt, Instant.now()).toSeconds());
+        }
+        if (!Files.isRegularFile(dump)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(dump));
+    }
+
+    @Override
+    public synchronized void close() {
+        discard();
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.debug("Could not remove {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        if (dump != null) {
+            try {
+                Files.deleteIfExists(dump);
+            } catch (IOException e) {
+                log.debug("Could not remove {}: {}", dump, e.getMessage());
+            }
+            dump = null;
+        }
+    }
+
+    private String state() {
+        return switch (recording.getState()) {
+            case NEW, DELAYED, RUNNING -> "recording";
+            case STOPPED, CLOSED -> "finished";
+        };
+    }
+
+    private Long size() {
+        if (recording.getState() == RecordingState.RUNNING) {
+            return recording.getSize();
+        }
+        try {
+            return Files.isRegularFile(dump) ? Files.size(dump) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public record ProfilingStatus(String state, String settings, Instant startedAt, Long durationSeconds,
+                                  Long sizeBytes, long maxDurationSeconds) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.leetnote_backend.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams jdk.VirtualThreadPinned JFR events in-process and aggregates them per code site
+ *
+ * A virtual thread that blocks while pinned (inside synchronized on JDK < 24, in native
+ * frames, or during class initialization) holds its carrier thread, which quietly caps
+ * concurrency. Each site is logged once and the running totals are served at /actuator/pinning.
+ */
+@Endpoint(id = "pinning")
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String APP_PACKAGE = "com.example.leetnote_backend.";
+
+    private final Duration threshold;
+    private final ConcurrentHashMap<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void close() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @ReadOperation
+    public List<PinnedSite> report() {
+        return sites.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingLong(PinnedSite::totalMillis).reversed())
+                .toList();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        record(siteOf(event.getStackTrace()), event.getDuration());
+    }
+
+    void record(String site, Duration duration) {
+        SiteStats stats = sites.computeIfAbsent(site, s -> {
+            log.warn("Virtual thread pinned for {} ms at {}", duration.toMillis(), s);
+            return new SiteStats();
+        });
+        stats.count.increment();
+        stats.totalNanos.add(duration.toNanos());
+        stats.maxNanos.accumulate(duration.toNanos());
+    }
+
+    /**
+     * The innermost application frame, falling back to the top frame for library-only stacks
+     */
+    static String siteOf(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame site = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                .findFirst()
+                .orElse(frames.get(0));
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName()
+                + ":" + site.getLineNumber();
+    }
+
+    public record PinnedSite(String site, long count, long totalMillis, long maxMillis) {
+    }
+
+    private static final class SiteStats {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        PinnedSite snapshot(String site) {
+            return new PinnedSite(site, count.sum(),
+                    Duration.ofNanos(totalNanos.sum()).toMillis(),
+                    Duration.ofNanos(maxNanos.get()).toMillis());
+        }
+    }
+}
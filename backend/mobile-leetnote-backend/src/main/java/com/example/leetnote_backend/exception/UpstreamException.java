@@ -0,0 +1,11 @@
+package com.example.leetnote_backend.exception;
+
+/**
+ * Exception thrown when an external API answers without usable data (error payload, empty body)
+ */
+public class UpstreamException extends RuntimeException {
+
+    public UpstreamException(String message) {
+        super(message);
+    }
+}
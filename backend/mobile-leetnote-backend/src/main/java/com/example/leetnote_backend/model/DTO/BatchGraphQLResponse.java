@@ -0,0 +1,18 @@
+package com.example.leetnote_backend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Response of an aliased multi-user query: one matchedUser per alias, null for unknown users
+ * (also read for the single-user query, where the one alias is matchedUser)
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class BatchGraphQLResponse {
+    private Map<String, GraphQLResponse.DataNode.MatchedUser> data;
+}
@@ -17,6 +17,13 @@ public class GraphQLResponse {
         @Data
         public static class MatchedUser {
             private SubmitStats submitStats;
+            private UserCalendar userCalendar;
+        }
+
+        @Data
+        public static class UserCalendar {
+            // JSON object as a string: {"<epoch seconds at UTC midnight>": submissions}
+            private String submissionCalendar;
         }
 
         @Data
@@ -0,0 +1,20 @@
+package com.example.leetnote_backend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One year of submission activity; counts[i] is the number of submissions on day-of-year i + 1
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HeatmapDTO {
+    private String username;
+    private int year;
+    private int[] counts;
+    private int totalSubmissions;
+    private int activeDays;
+    private int maxCount;
+}
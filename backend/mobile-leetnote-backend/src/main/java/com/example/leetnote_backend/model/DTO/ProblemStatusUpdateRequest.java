@@ -0,0 +1,16 @@
+package com.example.leetnote_backend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProblemStatusUpdateRequest {
+    private Long problemId;
+    private boolean isSolved;
+    private boolean isFavorite;
+}
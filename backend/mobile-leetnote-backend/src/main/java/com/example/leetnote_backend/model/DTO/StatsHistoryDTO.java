@@ -0,0 +1,20 @@
+package com.example.leetnote_backend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Solved-count history as parallel arrays; index i is the state recorded at timestamps[i] (epoch seconds)
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatsHistoryDTO {
+    private String username;
+    private long[] timestamps;
+    private int[] totalSolved;
+    private int[] easySolved;
+    private int[] mediumSolved;
+    private int[] hardSolved;
+}
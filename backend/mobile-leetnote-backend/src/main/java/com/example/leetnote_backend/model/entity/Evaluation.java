@@ -23,8 +23,13 @@ public class Evaluation {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Copied from the submission: both tables are partitioned by user, and queries that name the
+    // user here stay in one partition
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
     // Many evaluations belong to one submission
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "submission_id", nullable = false)
     @JsonIgnore
     private Submission submission;
@@ -3,10 +3,7 @@ package com.example.leetnote_backend.model.entity;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import lombok.*;
-import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
-import org.hibernate.annotations.Type;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,9 +32,7 @@ public class Problem {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
-    @Type(JsonBinaryType.class)
-    @Column(columnDefinition = "jsonb")
-    private Map<String, Object> solution;
+    // The solution column is read separately as a ProblemSolution, only for the detail view
 
     @OneToMany(mappedBy = "problems", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Example> examples;
@@ -0,0 +1,26 @@
+package com.example.leetnote_backend.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The reference solution stored in problems.solution
+ *
+ * Not part of the Problem entity: only the detail view needs it, so it is read on its own with
+ * ProblemRepository.findSolution. Its shape is checked by the database when a problem is written
+ * (problems_solution_shape), so missing fields are the only thing left to handle here.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ProblemSolution(
+        String approach,
+        String code,
+        @JsonProperty("time_complexity") String timeComplexity,
+        @JsonProperty("space_complexity") String spaceComplexity) {
+
+    public ProblemSolution {
+        approach = approach == null ? "" : approach;
+        code = code == null ? "" : code;
+        timeComplexity = timeComplexity == null ? "" : timeComplexity;
+        spaceComplexity = spaceComplexity == null ? "" : spaceComplexity;
+    }
+}
@@ -1,16 +1,16 @@
 package com.example.leetnote_backend.model.entity;
 
-import com.example.leetnote_backend.util.JsonToMapConverter;
+import com.example.leetnote_backend.util.StatsHistory;
+import com.example.leetnote_backend.util.StatsHistoryConverter;
+import com.example.leetnote_backend.util.SubmissionHeatmap;
+import com.example.leetnote_backend.util.SubmissionHeatmapConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,7 +23,7 @@ public class UserLeetcodeProfile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(optional = false)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -42,9 +42,15 @@ public class UserLeetcodeProfile {
     @Column(name = "hard_solved")
     public int hardSolved;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "submission_calendar")
-    public Map<String, Integer> submissionCalendar;
+    // Compact per-year day bitset + counts, see SubmissionHeatmap
+    @Convert(converter = SubmissionHeatmapConverter.class)
+    @Column(name = "submission_heatmap", length = 65535)
+    public SubmissionHeatmap submissionHeatmap;
+
+    // Delta-encoded, downsampled solved-count history, see StatsHistory
+    @Convert(converter = StatsHistoryConverter.class)
+    @Column(name = "stats_history", length = 65535)
+    public StatsHistory statsHistory;
 
     @Column(name = "last_updated")
     public LocalDateTime lastUpdated;
@@ -2,20 +2,45 @@ package com.example.leetnote_backend.repository;
 
 import com.example.leetnote_backend.model.entity.Evaluation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// evaluations and submissions are partitioned by user: every query names the user on both
+// tables it reads, otherwise the planner has to visit every partition
 public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
-    Optional<Evaluation> findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(Long userId, Long problemId);
-    List<Evaluation> findBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(Long userId, Long problemId);
-    
-    @Query("SELECT e FROM Evaluation e WHERE e.id IN (" +
-           "SELECT MAX(e2.id) FROM Evaluation e2 " +
-           "WHERE e2.submission.userId = :userId " +
-           "GROUP BY e2.submission.problemId) " +
+    @Query("SELECT e FROM Evaluation e JOIN e.submission s " +
+           "WHERE e.userId = :userId AND s.userId = :userId AND s.problemId = :problemId " +
+           "ORDER BY e.createdAt DESC LIMIT 1")
+    Optional<Evaluation> findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(
+            @Param("userId") Long userId, @Param("problemId") Long problemId);
+
+    @Query("SELECT e FROM Evaluation e JOIN e.submission s " +
+           "WHERE e.userId = :userId AND s.userId = :userId AND s.problemId = :problemId " +
+           "ORDER BY e.createdAt DESC")
+    List<Evaluation> findBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(
+            @Param("userId") Long userId, @Param("problemId") Long problemId);
+
+    // Ownership is part of the lookup rather than checked afterwards
+    @Query("SELECT e FROM Evaluation e JOIN FETCH e.submission s " +
+           "WHERE e.id = :id AND e.userId = :userId AND s.userId = :userId")
+    Optional<Evaluation> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Submission is fetched with it: the list reads each evaluation's problem id
+    @Query("SELECT e FROM Evaluation e JOIN FETCH e.submission s " +
+           "WHERE e.userId = :userId AND s.userId = :userId AND e.id IN (" +
+           "SELECT MAX(e2.id) FROM Evaluation e2 JOIN e2.submission s2 " +
+           "WHERE e2.userId = :userId AND s2.userId = :userId " +
+           "GROUP BY s2.problemId) " +
            "ORDER BY e.createdAt DESC")
     List<Evaluation> findLatestEvaluationsByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM Evaluation e WHERE e.userId = :userId AND e.submission.id IN :submissionIds")
+    void deleteAllByUserIdAndSubmissionIdIn(@Param("userId") Long userId,
+                                            @Param("submissionIds") Collection<Long> submissionIds);
+}
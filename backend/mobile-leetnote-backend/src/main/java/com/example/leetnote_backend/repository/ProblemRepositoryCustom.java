@@ -0,0 +1,10 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.ProblemSolution;
+
+import java.util.Optional;
+
+public interface ProblemRepositoryCustom {
+    // The problem's reference solution, empty when the problem has none (or does not exist)
+    Optional<ProblemSolution> findSolution(Long problemId);
+}
@@ -0,0 +1,46 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.ProblemSolution;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLDataException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * JDBC fragment for ProblemRepository
+ * Reads the solution JSON on its own, so loading a Problem never parses it
+ */
+@RequiredArgsConstructor
+public class ProblemRepositoryImpl implements ProblemRepositoryCustom {
+
+    private static final String FIND_SOLUTION_SQL = """
+            SELECT solution FROM problems WHERE id = ?
+            """;
+
+    private static final ObjectMapper SOLUTION_MAPPER = new ObjectMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<ProblemSolution> findSolution(Long problemId) {
+        List<ProblemSolution> solutions = jdbcTemplate.query(FIND_SOLUTION_SQL,
+                (rs, rowNum) -> {
+                    String json = rs.getString("solution");
+                    if (json == null) {
+                        return null;
+                    }
+                    try {
+                        return SOLUTION_MAPPER.readValue(json, ProblemSolution.class);
+                    } catch (JsonProcessingException e) {
+                        throw new SQLDataException("Unreadable solution for problem " + problemId, e);
+                    }
+                },
+                problemId);
+        return solutions.stream().filter(Objects::nonNull).findFirst();
+    }
+}
@@ -2,12 +2,20 @@ package com.example.leetnote_backend.repository;
 
 import com.example.leetnote_backend.model.entity.Submission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     Optional<Submission> findTopByUserIdAndProblemIdOrderByCreatedAtDesc(Long userId, Long problemId);
     List<Submission> findByUserIdAndProblemIdOrderByCreatedAtDesc(Long userId, Long problemId);
-}
 
+    // One statement, and by user so it stays in the user's partition (deleteAll goes by id alone)
+    @Modifying
+    @Query("DELETE FROM Submission s WHERE s.userId = :userId AND s.id IN :ids")
+    void deleteAllByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+}
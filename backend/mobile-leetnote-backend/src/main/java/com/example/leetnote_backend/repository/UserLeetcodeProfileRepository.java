@@ -5,7 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface UserLeetcodeProfileRepository extends JpaRepository<UserLeetcodeProfile, Long> {
+public interface UserLeetcodeProfileRepository extends JpaRepository<UserLeetcodeProfile, Long>, UserLeetcodeProfileRepositoryCustom {
     @Override
     Optional<UserLeetcodeProfile> findById(Long aLong);
     Optional<UserLeetcodeProfile> findByUserId(Long userId);
@@ -0,0 +1,54 @@
+package com.example.leetnote_backend.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface UserLeetcodeProfileRepositoryCustom {
+
+    // Profiles last refreshed before the cutoff, oldest (and never refreshed) first
+    List<ProfileStats> findStaleProfiles(LocalDateTime cutoff, int limit);
+
+    // Write new stats and last_updated for every profile in a single JDBC batch
+    // The batch writes below skip profiles whose username changed after they were read
+    void updateStatsBatch(Collection<ProfileStats> profiles, LocalDateTime refreshedAt);
+
+    // Only move last_updated forward (stats unchanged) in a single JDBC batch
+    void touchAll(Collection<Long> profileIds, LocalDateTime refreshedAt);
+
+    // Encoded submission heatmaps by profile id; profiles without one are absent
+    Map<Long, byte[]> findHeatmaps(Collection<Long> profileIds);
+
+    // Compare-and-set encoded submission heatmaps by profile in a single JDBC batch;
+    // returns the profiles not written because their heatmap (or username) changed since it was read
+    List<ProfileStats> updateHeatmapsBatch(Map<ProfileStats, ColumnSwap> heatmaps);
+
+    // Encoded stats histories by profile id; profiles without one are absent
+    Map<Long, byte[]> findHistories(Collection<Long> profileIds);
+
+    // Compare-and-set encoded stats histories by profile in a single JDBC batch;
+    // returns the profiles not written because their history (or username) changed since it was read
+    List<ProfileStats> updateHistoriesBatch(Map<ProfileStats, ColumnSwap> histories);
+
+    // Store a first heatmap unless one was written meanwhile; true if it was stored
+    boolean fillHeatmap(Long profileId, String username, byte[] heatmap);
+
+    // Append the profile's stats to its stored history without losing concurrent appends;
+    // true if a point was added
+    boolean recordHistory(ProfileStats profile, Instant at);
+
+    /**
+     * The columns the background refresher reads and writes, without loading the User
+     */
+    record ProfileStats(Long id, Long userId, String username,
+                        int totalSolved, int easySolved, int mediumSolved, int hardSolved) {
+    }
+
+    /**
+     * New encoded value of a column, written only while the stored one still equals expected (null for none)
+     */
+    record ColumnSwap(byte[] expected, byte[] replacement) {
+    }
+}
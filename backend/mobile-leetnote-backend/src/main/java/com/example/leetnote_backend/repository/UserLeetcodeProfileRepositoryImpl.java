@@ -0,0 +1,198 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.util.StatsHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC fragment for UserLeetcodeProfileRepository
+ * Walks profiles by last_updated (indexed) and writes refresh results in batches.
+ * Writes match on the username that was read, so a profile relinked to another LeetCode
+ * account mid-run does not get the old account's stats, heatmap or history. Heatmaps and histories
+ * are also compared with the bytes that were read, so a concurrent write is merged, not overwritten.
+ */
+@RequiredArgsConstructor
+public class UserLeetcodeProfileRepositoryImpl implements UserLeetcodeProfileRepositoryCustom {
+
+    private static final String FIND_STALE_SQL = """
+            SELECT id, user_id, leetcode_username, total_solved, easy_solved, medium_solved, hard_solved
+            FROM user_leetcode_profiles
+            WHERE last_updated IS NULL OR last_updated < ?
+            ORDER BY last_updated ASC NULLS FIRST
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_STATS_SQL = """
+            UPDATE user_leetcode_profiles
+            SET total_solved = ?, easy_solved = ?, medium_solved = ?, hard_solved = ?, last_updated = ?
+            WHERE id = ? AND leetcode_username = ?
+            """;
+
+    private static final String TOUCH_SQL = """
+            UPDATE user_leetcode_profiles SET last_updated = ? WHERE id = ?
+            """;
+
+    // Compare-and-set on the bytes that were read (null if none), so a concurrent write is retried, not overwritten
+    private static final String SWAP_HEATMAP_SQL = """
+            UPDATE user_leetcode_profiles SET submission_heatmap = ?
+            WHERE id = ? AND leetcode_username = ? AND submission_heatmap IS NOT DISTINCT FROM ?
+            """;
+
+    private static final String SWAP_HISTORY_SQL = """
+            UPDATE user_leetcode_profiles SET stats_history = ?
+            WHERE id = ? AND leetcode_username = ? AND stats_history IS NOT DISTINCT FROM ?
+            """;
+
+    private static final String FILL_HEATMAP_SQL = """
+            UPDATE user_leetcode_profiles SET submission_heatmap = ?
+            WHERE id = ? AND leetcode_username = ? AND submission_heatmap IS NULL
+            """;
+
+    private static final String FIND_HISTORY_SQL = """
+            SELECT stats_history FROM user_leetcode_profiles WHERE id = ? AND leetcode_username = ?
+            """;
+
+    private static final int HISTORY_APPEND_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Override
+    public List<ProfileStats> findStaleProfiles(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.query(FIND_STALE_SQL,
+                (rs, rowNum) -> new ProfileStats(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        rs.getString("leetcode_username"),
+                        rs.getInt("total_solved"),
+                        rs.getInt("easy_solved"),
+                        rs.getInt("medium_solved"),
+                        rs.getInt("hard_solved")
+                ),
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    @Override
+    public void updateStatsBatch(Collection<ProfileStats> profiles, LocalDateTime refreshedAt) {
+        if (profiles.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(refreshedAt);
+        List<Object[]> rows = profiles.stream()
+                .map(p -> new Object[]{
+                        p.totalSolved(),
+                        p.easySolved(),
+                        p.mediumSolved(),
+                        p.hardSolved(),
+                        timestamp,
+                        p.id(),
+                        p.username()
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(UPDATE_STATS_SQL, rows);
+    }
+
+    @Override
+    public void touchAll(Collection<Long> profileIds, LocalDateTime refreshedAt) {
+        if (profileIds.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(refreshedAt);
+        List<Object[]> rows = profileIds.stream()
+                .map(id -> new Object[]{timestamp, id})
+                .toList();
+        jdbcTemplate.batchUpdate(TOUCH_SQL, rows);
+    }
+
+    @Override
+    public Map<Long, byte[]> findHeatmaps(Collection<Long> profileIds) {
+        return findBytes("submission_heatmap", profileIds);
+    }
+
+    @Override
+    public List<ProfileStats> updateHeatmapsBatch(Map<ProfileStats, ColumnSwap> heatmaps) {
+        return swapBatch(SWAP_HEATMAP_SQL, heatmaps);
+    }
+
+    @Override
+    public Map<Long, byte[]> findHistories(Collection<Long> profileIds) {
+        return findBytes("stats_history", profileIds);
+    }
+
+    @Override
+    public List<ProfileStats> updateHistoriesBatch(Map<ProfileStats, ColumnSwap> histories) {
+        return swapBatch(SWAP_HISTORY_SQL, histories);
+    }
+
+    @Override
+    public boolean fillHeatmap(Long profileId, String username, byte[] heatmap) {
+        return jdbcTemplate.update(FILL_HEATMAP_SQL, heatmap, profileId, username) > 0;
+    }
+
+    @Override
+    public boolean recordHistory(ProfileStats profile, Instant at) {
+        for (int attempt = 0; attempt < HISTORY_APPEND_ATTEMPTS; attempt++) {
+            List<byte[]> rows = jdbcTemplate.query(FIND_HISTORY_SQL,
+                    (rs, rowNum) -> rs.getBytes("stats_history"), profile.id(), profile.username());
+            if (rows.isEmpty()) {
+                // Gone or relinked to another account since it was read
+                return false;
+            }
+            byte[] stored = rows.get(0);
+            StatsHistory history = StatsHistory.decode(stored);
+            if (!history.record(at, profile.totalSolved(), profile.easySolved(),
+                    profile.mediumSolved(), profile.hardSolved())) {
+                return false;
+            }
+            if (jdbcTemplate.update(SWAP_HISTORY_SQL, history.encode(), profile.id(), profile.username(), stored) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Column is one of our own constants, never user input
+    private Map<Long, byte[]> findBytes(String column, Collection<Long> profileIds) {
+        Map<Long, byte[]> values = new HashMap<>();
+        if (profileIds.isEmpty()) {
+            return values;
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT id, " + column + " FROM user_leetcode_profiles "
+                        + "WHERE id IN (:ids) AND " + column + " IS NOT NULL",
+                Map.of("ids", profileIds),
+                rs -> {
+                    values.put(rs.getLong("id"), rs.getBytes(column));
+                });
+        return values;
+    }
+
+    private List<ProfileStats> swapBatch(String sql, Map<ProfileStats, ColumnSwap> swaps) {
+        if (swaps.isEmpty()) {
+            return List.of();
+        }
+        List<ProfileStats> profiles = List.copyOf(swaps.keySet());
+        List<Object[]> rows = profiles.stream()
+                .map(p -> new Object[]{swaps.get(p).replacement(), p.id(), p.username(), swaps.get(p).expected()})
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(sql, rows);
+
+        List<ProfileStats> missed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missed.add(profiles.get(i));
+            }
+        }
+        return missed;
+    }
+}
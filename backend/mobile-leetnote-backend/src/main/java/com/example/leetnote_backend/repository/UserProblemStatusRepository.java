@@ -7,7 +7,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserProblemStatusRepository extends JpaRepository<UserProblemStatus, UserProblemStatusId> {
+public interface UserProblemStatusRepository extends JpaRepository<UserProblemStatus, UserProblemStatusId>,
+        UserProblemStatusRepositoryCustom {
     Optional<UserProblemStatus> findById(UserProblemStatusId id);
     List<UserProblemStatus> findAllByUserId(Long userId);
     Optional<UserProblemStatus> findByUserIdAndProblemId(Long userId, Long problemId);
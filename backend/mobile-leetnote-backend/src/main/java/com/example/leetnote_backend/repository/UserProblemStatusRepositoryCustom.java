@@ -0,0 +1,10 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
+
+import java.util.Collection;
+
+public interface UserProblemStatusRepositoryCustom {
+    // Insert-or-update every status in a single JDBC batch
+    void upsertAll(Collection<UserProblemStatus> statuses);
+}
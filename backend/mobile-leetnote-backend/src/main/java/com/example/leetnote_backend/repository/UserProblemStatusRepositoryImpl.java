@@ -0,0 +1,88 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC fragment for UserProblemStatusRepository
+ * Upserts as an update, then an insert of the rows that did not exist yet, so the same SQL runs on
+ * PostgreSQL and on H2 (which has no ON CONFLICT ... DO UPDATE); the (user_id, problem_id) primary
+ * key is the only conflict ON CONFLICT DO NOTHING can skip
+ */
+@RequiredArgsConstructor
+public class UserProblemStatusRepositoryImpl implements UserProblemStatusRepositoryCustom {
+
+    private static final String UPDATE_SQL = """
+            UPDATE user_problem_status SET is_solved = ?, is_favorited = ?
+            WHERE user_id = ? AND problem_id = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO user_problem_status (user_id, problem_id, is_solved, is_favorited)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(Collection<UserProblemStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+
+        List<UserProblemStatus> missing = update(statuses);
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = missing.stream()
+                .map(status -> new Object[]{
+                        status.getUserId(),
+                        status.getProblemId(),
+                        status.isSolved(),
+                        status.isFavorited()
+                })
+                .toList();
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        // Rows another writer inserted in between exist now, so updating them cannot miss again
+        List<UserProblemStatus> raced = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == 0) {
+                raced.add(missing.get(i));
+            }
+        }
+        update(raced);
+    }
+
+    // The statuses whose row does not exist
+    private List<UserProblemStatus> update(Collection<UserProblemStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return List.of();
+        }
+        List<UserProblemStatus> ordered = List.copyOf(statuses);
+        List<Object[]> rows = ordered.stream()
+                .map(status -> new Object[]{
+                        status.isSolved(),
+                        status.isFavorited(),
+                        status.getUserId(),
+                        status.getProblemId()
+                })
+                .toList();
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+
+        List<UserProblemStatus> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(ordered.get(i));
+            }
+        }
+        return missing;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.leetnote_backend.service;
 
+import com.example.leetnote_backend.diagnostics.EvaluationStageEvent;
 import com.example.leetnote_backend.exception.BadRequestException;
 import com.example.leetnote_backend.model.DTO.EvaluationDTO;
 import com.example.leetnote_backend.model.DTO.EvaluationDetailDTO;
@@ -13,9 +14,9 @@ import com.example.leetnote_backend.repository.ProblemRepository;
 import com.example.leetnote_backend.repository.SubmissionRepository;
 import com.example.leetnote_backend.util.PromptBuilder;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
@@ -24,6 +25,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -44,27 +47,35 @@ public class EvaluationService {
         submission.setUserId(userId);
         submission.setProblemId(req.getProblemId());
         submission.setSolutionText(req.getSolutionText());
-        submission = submissionRepository.save(submission);
+        Long problemId = req.getProblemId();
+        // Each stage is a leetnote.EvaluationStage JFR event
+        Submission saved = EvaluationStageEvent.record(EvaluationStageEvent.PERSIST_SUBMISSION, userId, problemId,
+                () -> submissionRepository.save(submission));
 
         try {
-            String problemText = problemRepository.findById(req.getProblemId())
-                    .map(Problem::getDescription)
-                    .orElse("No problem found.");
-
-            String prompt = promptBuilder.buildPrompt(problemText, req.getSolutionText());
-            String rawResponse = togetherAiService.callTogetherModel(prompt);
-            Map<String, Object> parsed = togetherAiService.parseResponse(rawResponse);
-
-            EvaluationDTO evaluationDto = new ObjectMapper().convertValue(parsed, EvaluationDTO.class);
+            String prompt = EvaluationStageEvent.record(EvaluationStageEvent.PROMPT_BUILD, userId, problemId, () -> {
+                String problemText = problemRepository.findById(problemId)
+                        .map(Problem::getDescription)
+                        .orElse("No problem found.");
+                return promptBuilder.buildPrompt(problemText, req.getSolutionText());
+            });
+            String rawResponse = EvaluationStageEvent.record(EvaluationStageEvent.MODEL_WAIT, userId, problemId,
+                    () -> togetherAiService.callTogetherModel(prompt));
+            EvaluationDTO evaluationDto = EvaluationStageEvent.record(EvaluationStageEvent.PARSE, userId, problemId,
+                    () -> new ObjectMapper().convertValue(togetherAiService.parseResponse(rawResponse),
+                            EvaluationDTO.class));
 
             Evaluation evaluation = new Evaluation();
-            evaluation.setSubmission(submission);
+            evaluation.setUserId(userId);
+            evaluation.setSubmission(saved);
             evaluation.setVersion((short) 1); // free tier = version 1
             evaluation.setEvaluation(evaluationDto);
             evaluation.setCreatedAt(LocalDateTime.now());
-            evaluation = evaluationRepository.save(evaluation);
+            EvaluationStageEvent.record(EvaluationStageEvent.PERSIST_EVALUATION, userId, problemId,
+                    () -> evaluationRepository.save(evaluation));
 
-            deleteOldSubmissions(userId, req.getProblemId());
+            EvaluationStageEvent.record(EvaluationStageEvent.RETENTION, userId, problemId,
+                    () -> deleteOldSubmissions(userId, problemId));
 
             return evaluationDto;
         } catch (ResourceAccessException e) {
@@ -79,42 +90,50 @@ public class EvaluationService {
         List<Submission> submissions = submissionRepository
                 .findByUserIdAndProblemIdOrderByCreatedAtDesc(userId, problemId);
 
-        // Keep only the 3 most recent
+        // Keep only the 3 most recent; evaluations go first, they reference the submissions
         if (submissions.size() > 3) {
-            List<Submission> toDelete = submissions.subList(3, submissions.size());
-            submissionRepository.deleteAll(toDelete);
+            List<Long> toDelete = submissions.subList(3, submissions.size()).stream()
+                    .map(Submission::getId)
+                    .toList();
+            evaluationRepository.deleteAllByUserIdAndSubmissionIdIn(userId, toDelete);
+            submissionRepository.deleteAllByUserIdAndIdIn(userId, toDelete);
         }
     }
 
+    @Transactional(readOnly = true)
     public Optional<Evaluation> getLastEvaluation(Long userId, Long problemId) {
         return evaluationRepository.findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(userId, problemId);
     }
 
+    @Transactional(readOnly = true)
     public List<EvaluationListItemDTO> getAllEvaluations(Long userId) {
         // Get latest evaluation for each problem the user has submitted
         List<Evaluation> evaluations = evaluationRepository.findLatestEvaluationsByUserId(userId);
 
+        // One lookup for all titles rather than one per evaluation
+        Set<Long> problemIds = evaluations.stream()
+                .map(evaluation -> evaluation.getSubmission().getProblemId())
+                .collect(Collectors.toSet());
+        Map<Long, String> titles = problemRepository.findAllById(problemIds).stream()
+                .collect(Collectors.toMap(Problem::getId, Problem::getTitle));
+
         return evaluations.stream()
                 .map(evaluation -> {
                     Long problemId = evaluation.getSubmission().getProblemId();
-                    String problemTitle = problemRepository.findById(problemId)
-                            .map(Problem::getTitle)
-                            .orElse("Unknown Problem");
-
                     return new EvaluationListItemDTO(
                             evaluation.getId(),
                             problemId,
-                            problemTitle,
+                            titles.getOrDefault(problemId, "Unknown Problem"),
                             evaluation.getCreatedAt()
                     );
                 })
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public Optional<EvaluationDetailDTO> getEvaluationDetailById(Long userId, Long evaluationId) {
         // When user clicks on a specific evaluation, return that eval detail and its problem info
-        return evaluationRepository.findById(evaluationId)
-                .filter(ev -> ev.getSubmission() != null && ev.getSubmission().getUserId().equals(userId))
+        return evaluationRepository.findByIdAndUserId(evaluationId, userId)
                 .map(ev -> {
                     Submission sub = ev.getSubmission();
                     Long pid = sub.getProblemId();
@@ -138,6 +157,7 @@ public class EvaluationService {
                 });
     }
 
+    @Transactional(readOnly = true)
     public Optional<EvaluationDetailDTO> getLastEvaluationDetail(Long userId, Long problemId) {
         return evaluationRepository
                 .findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(userId, problemId)
@@ -1,72 +1,242 @@
 package com.example.leetnote_backend.service;
 
+import com.example.leetnote_backend.cache.NegativeLookupCache;
+import com.example.leetnote_backend.client.RequestCoalescer;
+import com.example.leetnote_backend.diagnostics.LeetcodeFetchEvent;
 import com.example.leetnote_backend.exception.ResourceNotFoundException;
+import com.example.leetnote_backend.exception.UpstreamException;
+import com.example.leetnote_backend.model.DTO.BatchGraphQLResponse;
 import com.example.leetnote_backend.model.DTO.GraphQLResponse;
 import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Service for fetching data from LeetCode GraphQL API
  * Separated to enable proper Spring cache proxying
+ *
+ * Lookups that miss the cache at the same time are coalesced into one aliased query
+ * (u0: matchedUser(...), u1: matchedUser(...), ...), so a burst of users costs one request.
+ * Only a matchedUser that LeetCode explicitly answered with null counts as an unknown user; a
+ * response without data (GraphQL error, rate limit page) fails the whole batch instead.
  */
 @Service
-@RequiredArgsConstructor
 public class LeetcodeCacheService {
 
+    // Relative to leetcode.api.base-url (the RestTemplate root URI)
+    private static final String URL = "/graphql";
+
+    private static final String STATS_SELECTION = """
+                submitStats {
+                  acSubmissionNum {
+                    difficulty
+                    count
+                    submissions
+                  }
+                }
+            """;
+
+    private static final String CALENDAR_SELECTION = """
+                userCalendar {
+                  submissionCalendar
+                }
+            """;
+
+    private static final ObjectMapper CALENDAR_MAPPER = new ObjectMapper();
+
+    private static final String QUERY = """
+                query getUserProfile($username: String!) {
+                  matchedUser(username: $username) {
+                %s  }
+                }
+            """.formatted(STATS_SELECTION);
+
     private final RestTemplate restTemplate;
+    private final RequestCoalescer<String, LeetcodeStatsDTO> coalescer;
+    private final NegativeLookupCache missingUsers;
+
+    // Unbatched: every lookup is its own request, and unknown usernames are not remembered
+    public LeetcodeCacheService(RestTemplate restTemplate) {
+        this(restTemplate, 0, 1, NegativeLookupCache.disabled());
+    }
+
+    @Autowired
+    public LeetcodeCacheService(RestTemplate restTemplate,
+                                @Value("${leetcode.batch.window-ms:10}") long batchWindowMs,
+                                @Value("${leetcode.batch.max-size:20}") int maxBatchSize,
+                                NegativeLookupCache missingUsers) {
+        this.restTemplate = restTemplate;
+        this.missingUsers = missingUsers;
+        this.coalescer = new RequestCoalescer<>(this::fetchStatsBatch, Duration.ofMillis(batchWindowMs), maxBatchSize);
+    }
 
     /**
      * Fetch stats from LeetCode GraphQL API
      * Cached by username for 10 minutes to avoid hitting LeetCode API too often
+     * sync: concurrent misses for one username share a single upstream fetch
      */
-    @Cacheable(value = "leetcodeApiStats", key = "#username")
+    @Cacheable(value = "leetcodeApiStats", key = "#username", sync = true)
     public LeetcodeStatsDTO fetchStatsFromLeetcodeAPI(String username) {
-        String url = "https://leetcode.com/graphql";
-        String query = """
-                    query getUserProfile($username: String!) {
-                      matchedUser(username: $username) {
-                        submitStats {
-                          acSubmissionNum {
-                            difficulty
-                            count
-                            submissions
-                          }
-                        }
-                      }
-                    }
-                """;
-
-        Map<String, Object> request = Map.of(
-                "query", query,
-                "variables", Map.of("username", username)
-        );
+        // Typos and retries of a handle LeetCode just rejected are answered without calling it
+        if (missingUsers.isKnownMissing(username)) {
+            throw new ResourceNotFoundException("LeetCode user", "username", username);
+        }
+        LeetcodeStatsDTO stats = coalescer.get(username);
+        if (stats == null) {
+            missingUsers.recordMissing(username);
+            throw new ResourceNotFoundException("LeetCode user", "username", username);
+        }
+        return stats;
+    }
+
+    /**
+     * Fetch stats for many users in one request
+     * Unknown usernames are absent from the result
+     * @throws UpstreamException if LeetCode did not answer for every username
+     */
+    public Map<String, LeetcodeStatsDTO> fetchStatsBatch(Collection<String> usernames) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(usernames));
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        if (distinct.size() == 1) {
+            String username = distinct.get(0);
+            BatchGraphQLResponse body = post(Map.of("query", QUERY, "variables", Map.of("username", username)),
+                    BatchGraphQLResponse.class, distinct, false);
+            GraphQLResponse.DataNode.MatchedUser user = answered(body, "matchedUser", distinct);
+            return user == null ? Map.of() : Map.of(username, toStats(username, user));
+        }
+
+        Map<String, GraphQLResponse.DataNode.MatchedUser> users = queryAliased(distinct, STATS_SELECTION);
+        Map<String, LeetcodeStatsDTO> stats = new HashMap<>();
+        users.forEach((username, user) -> stats.put(username, toStats(username, user)));
+        return stats;
+    }
+
+    /**
+     * Fetch stats plus the submission calendar for many users in one request
+     * Unknown usernames are absent from the result
+     * @throws UpstreamException if LeetCode did not answer for every username
+     */
+    public Map<String, ProfileData> fetchProfilesBatch(Collection<String> usernames) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(usernames));
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, GraphQLResponse.DataNode.MatchedUser> users =
+                queryAliased(distinct, STATS_SELECTION + CALENDAR_SELECTION);
+        Map<String, ProfileData> profiles = new HashMap<>();
+        users.forEach((username, user) ->
+                profiles.put(username, new ProfileData(toStats(username, user), toCalendar(user))));
+        return profiles;
+    }
+
+    /**
+     * Fetch the submission calendar (roughly the past year) of one user
+     */
+    public Map<LocalDate, Integer> fetchCalendar(String username) {
+        if (missingUsers.isKnownMissing(username)) {
+            throw new ResourceNotFoundException("LeetCode user", "username", username);
+        }
+        ProfileData profile = fetchProfilesBatch(List.of(username)).get(username);
+        if (profile == null) {
+            missingUsers.recordMissing(username);
+            throw new ResourceNotFoundException("LeetCode user", "username", username);
+        }
+        return profile.calendar();
+    }
+
+    private Map<String, GraphQLResponse.DataNode.MatchedUser> queryAliased(List<String> usernames, String selection) {
+        // Usernames travel as variables, so aliases stay valid GraphQL names whatever the input
+        StringBuilder params = new StringBuilder();
+        StringBuilder selections = new StringBuilder();
+        Map<String, Object> variables = new LinkedHashMap<>();
+        for (int i = 0; i < usernames.size(); i++) {
+            String alias = "u" + i;
+            params.append(i == 0 ? "" : ", ").append('$').append(alias).append(": String!");
+            selections.append("  ").append(alias).append(": matchedUser(username: $").append(alias).append(") {\n")
+                    .append(selection)
+                    .append("  }\n");
+            variables.put(alias, usernames.get(i));
+        }
+        String query = "query getUserProfiles(" + params + ") {\n" + selections + "}";
+
+        BatchGraphQLResponse body = post(Map.of("query", query, "variables", variables), BatchGraphQLResponse.class,
+                usernames, selection.contains(CALENDAR_SELECTION));
 
+        Map<String, GraphQLResponse.DataNode.MatchedUser> users = new HashMap<>();
+        for (int i = 0; i < usernames.size(); i++) {
+            GraphQLResponse.DataNode.MatchedUser user = answered(body, "u" + i, usernames);
+            if (user != null) {
+                users.put(usernames.get(i), user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * The user under the alias, or null when LeetCode answered the alias with null (unknown user)
+     * A missing body, data or alias means LeetCode failed to answer, not that the user is unknown.
+     */
+    private static GraphQLResponse.DataNode.MatchedUser answered(BatchGraphQLResponse body, String alias,
+                                                                 List<String> usernames) {
+        if (body == null || body.getData() == null || !body.getData().containsKey(alias)) {
+            throw new UpstreamException("LeetCode returned no data for " + usernames.size() + " username(s)");
+        }
+        return body.getData().get(alias);
+    }
+
+    private <T> T post(Map<String, Object> request, Class<T> responseType, List<String> usernames, boolean calendar) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.add("User-Agent", "Mozilla/5.0");
 
         HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
 
-        ResponseEntity<GraphQLResponse> response =
-                restTemplate.exchange(url, HttpMethod.POST, entity, GraphQLResponse.class);
-
-        GraphQLResponse body = response.getBody();
-
-        if (body == null || body.getData() == null || body.getData().getMatchedUser() == null) {
-            throw new ResourceNotFoundException("LeetCode user", "username", username);
+        LeetcodeFetchEvent event = new LeetcodeFetchEvent();
+        event.begin();
+        String outcome = null;
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(URL, HttpMethod.POST, entity, responseType);
+            outcome = "HTTP " + response.getStatusCode().value();
+            return response.getBody();
+        } catch (RestClientResponseException e) {
+            outcome = "HTTP " + e.getStatusCode().value();
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.complete(usernames.size(), usernames.get(0), calendar, outcome);
         }
+    }
 
+    private static LeetcodeStatsDTO toStats(String username, GraphQLResponse.DataNode.MatchedUser user) {
         // Extract stats
         int easy = 0, medium = 0, hard = 0, total = 0;
 
-        for (GraphQLResponse.DataNode.AcSubmissionNum stat :
-                body.getData().getMatchedUser().getSubmitStats().getAcSubmissionNum()) {
+        for (GraphQLResponse.DataNode.AcSubmissionNum stat : user.getSubmitStats().getAcSubmissionNum()) {
 
             switch (stat.getDifficulty().toLowerCase()) {
                 case "easy" -> easy = stat.getCount();
@@ -78,4 +248,27 @@ public class LeetcodeCacheService {
 
         return new LeetcodeStatsDTO(username, total, easy, medium, hard);
     }
+
+    private static Map<LocalDate, Integer> toCalendar(GraphQLResponse.DataNode.MatchedUser user) {
+        if (user.getUserCalendar() == null || user.getUserCalendar().getSubmissionCalendar() == null) {
+            return Map.of();
+        }
+        Map<String, Integer> raw;
+        try {
+            raw = CALENDAR_MAPPER.readValue(user.getUserCalendar().getSubmissionCalendar(), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed LeetCode submission calendar", e);
+        }
+        Map<LocalDate, Integer> calendar = new TreeMap<>();
+        raw.forEach((epochSeconds, count) -> calendar.merge(
+                LocalDate.ofInstant(Instant.ofEpochSecond(Long.parseLong(epochSeconds)), ZoneOffset.UTC),
+                count, Integer::sum));
+        return calendar;
+    }
+
+    /**
+     * Stats and per-day submission counts fetched together for the background refresh
+     */
+    public record ProfileData(LeetcodeStatsDTO stats, Map<LocalDate, Integer> calendar) {
+    }
 }
@@ -0,0 +1,350 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.cache.CacheLeases;
+import com.example.leetnote_backend.exception.UpstreamException;
+import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepository;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ColumnSwap;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ProfileStats;
+import com.example.leetnote_backend.service.LeetcodeCacheService.ProfileData;
+import com.example.leetnote_backend.util.RateLimiter;
+import com.example.leetnote_backend.util.StatsHistory;
+import com.example.leetnote_backend.util.SubmissionHeatmap;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps stored LeetCode stats fresh without users having to press refresh
+ *
+ * Each run takes the least recently updated profiles (index on last_updated), fetches them in
+ * aliased multi-user queries through a global rate limit with bounded parallelism, and writes
+ * back only the rows whose stats changed in one batch; unchanged rows just get their
+ * last_updated moved forward. The submission calendar comes back in the same query and is
+ * merged into the stored heatmaps, rewriting only those that gained days, and every stats
+ * change is appended to the profile's history.
+ * A Redis lease keeps the run on a single instance, and the run stops early once LeetCode
+ * starts failing so a degraded upstream is not hammered by the whole batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeetcodeProfileRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(LeetcodeProfileRefresher.class);
+
+    static final String LEASE_KEY = "lease::leetcode-profile-refresh";
+
+    static final int MERGE_ATTEMPTS = 3;
+
+    private final UserLeetcodeProfileRepository userLeetcodeProfileRepository;
+    private final LeetcodeCacheService leetcodeApiService;
+    private final CacheLeases cacheLeases;
+    private final CacheManager cacheManager;
+
+    @Value("${leetcode.refresh.enabled:true}")
+    private boolean enabled;
+
+    @Value("${leetcode.refresh.stale-after-minutes:360}")
+    private long staleAfterMinutes;
+
+    @Value("${leetcode.refresh.batch-size:200}")
+    private int batchSize;
+
+    @Value("${leetcode.batch.max-size:20}")
+    private int usersPerRequest;
+
+    @Value("${leetcode.refresh.parallelism:4}")
+    private int parallelism;
+
+    @Value("${leetcode.refresh.requests-per-second:2}")
+    private double requestsPerSecond;
+
+    @Value("${leetcode.refresh.run-timeout-ms:120000}")
+    private long runTimeoutMs;
+
+    @Scheduled(initialDelayString = "${leetcode.refresh.interval-ms:300000}",
+            fixedDelayString = "${leetcode.refresh.interval-ms:300000}")
+    public void refreshStaleProfiles() {
+        if (!enabled) {
+            return;
+        }
+        // Lease outlives the run timeout so a slow run is never overlapped by another instance
+        String token = cacheLeases.tryAcquire(LEASE_KEY, Duration.ofMillis(runTimeoutMs).plusSeconds(30));
+        if (token == null) {
+            log.debug("LeetCode profile refresh already running on another instance");
+            return;
+        }
+        try {
+            refreshBatch();
+        } finally {
+            cacheLeases.release(LEASE_KEY, token);
+        }
+    }
+
+    /**
+     * Refresh one batch of stale profiles
+     *
+     * @return number of profiles whose stats changed
+     */
+    int refreshBatch() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<ProfileStats> stale = userLeetcodeProfileRepository
+                .findStaleProfiles(now.minusMinutes(staleAfterMinutes), batchSize);
+        if (stale.isEmpty()) {
+            return 0;
+        }
+
+        RateLimiter rateLimiter = new RateLimiter(requestsPerSecond);
+        AtomicBoolean upstreamFailing = new AtomicBoolean();
+        // One aliased GraphQL request per chunk; the rate limit applies per request
+        int chunkSize = Math.max(1, usersPerRequest);
+        List<Callable<List<Outcome>>> tasks = new ArrayList<>();
+        for (int from = 0; from < stale.size(); from += chunkSize) {
+            List<ProfileStats> chunk = stale.subList(from, Math.min(stale.size(), from + chunkSize));
+            tasks.add(() -> fetch(chunk, rateLimiter, upstreamFailing));
+        }
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("leetcode-refresh-");
+        threadFactory.setDaemon(true);
+        // Fetches join the trace of the scheduled run
+        ExecutorService pool = ContextExecutorService.wrap(
+                Executors.newFixedThreadPool(Math.max(1, parallelism), threadFactory),
+                () -> ContextSnapshotFactory.builder().build().captureAll());
+
+        List<ProfileStats> changed = new ArrayList<>();
+        List<Long> touched = new ArrayList<>();
+        Map<ProfileStats, Map<LocalDate, Integer>> calendars = new HashMap<>();
+        try {
+            for (Future<List<Outcome>> future : pool.invokeAll(tasks, runTimeoutMs, TimeUnit.MILLISECONDS)) {
+                try {
+                    for (Outcome outcome : future.get()) {
+                        if (outcome.calendar() != null && !outcome.calendar().isEmpty()) {
+                            calendars.put(outcome.profile(), outcome.calendar());
+                        }
+                        if (outcome.updated() != null) {
+                            changed.add(outcome.updated());
+                        } else if (outcome.touch()) {
+                            touched.add(outcome.profile().id());
+                        }
+                    }
+                } catch (CancellationException e) {
+                    // Ran out of time - these profiles stay stale and lead the next run
+                } catch (ExecutionException e) {
+                    log.warn("LeetCode profile refresh task failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        LocalDateTime refreshedAt = LocalDateTime.now();
+        userLeetcodeProfileRepository.updateStatsBatch(changed, refreshedAt);
+        userLeetcodeProfileRepository.touchAll(touched, refreshedAt);
+        recordHistory(changed);
+        evictUserStats(changed);
+        int heatmapsChanged = mergeHeatmaps(calendars);
+
+        log.info("LeetCode profile refresh: {} stale, {} changed, {} unchanged, {} deferred, {} heatmaps updated in {} ms",
+                stale.size(), changed.size(), touched.size(), stale.size() - changed.size() - touched.size(),
+                heatmapsChanged, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return changed.size();
+    }
+
+    private List<Outcome> fetch(List<ProfileStats> chunk, RateLimiter rateLimiter, AtomicBoolean upstreamFailing)
+            throws InterruptedException {
+        if (upstreamFailing.get()) {
+            return deferAll(chunk);
+        }
+        rateLimiter.acquire();
+        if (upstreamFailing.get()) {
+            return deferAll(chunk);
+        }
+        Map<String, ProfileData> profilesByUsername;
+        try {
+            profilesByUsername = leetcodeApiService.fetchProfilesBatch(
+                    chunk.stream().map(ProfileStats::username).toList());
+        } catch (ResourceAccessException | UpstreamException e) {
+            upstreamFailing.set(true);
+            log.warn("LeetCode unreachable, deferring remaining profile refreshes: {}", e.getMessage());
+            return deferAll(chunk);
+        } catch (RestClientResponseException e) {
+            if (isUpstreamOverloaded(e)) {
+                upstreamFailing.set(true);
+                log.warn("LeetCode returned {}, deferring remaining profile refreshes", e.getStatusCode());
+                return deferAll(chunk);
+            }
+            // Anything else is specific to these profiles; do not let them block the head of the queue
+            log.warn("LeetCode refresh failed for {} profiles: {}", chunk.size(), e.getMessage());
+            return chunk.stream().map(Outcome::unchanged).toList();
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(chunk.size());
+        for (ProfileStats profile : chunk) {
+            ProfileData data = profilesByUsername.get(profile.username());
+            if (data == null) {
+                // Username no longer exists - keep the last known stats and move it to the back of the queue
+                outcomes.add(Outcome.unchanged(profile));
+                continue;
+            }
+            LeetcodeStatsDTO stats = data.stats();
+            ProfileStats fresh = new ProfileStats(profile.id(), profile.userId(), profile.username(),
+                    stats.getTotalSolved(), stats.getEasySolved(), stats.getMediumSolved(), stats.getHardSolved());
+            outcomes.add(fresh.equals(profile)
+                    ? Outcome.unchanged(profile, data.calendar())
+                    : Outcome.changed(profile, fresh, data.calendar()));
+        }
+        return outcomes;
+    }
+
+    private static List<Outcome> deferAll(List<ProfileStats> chunk) {
+        return chunk.stream().map(Outcome::deferred).toList();
+    }
+
+    private static boolean isUpstreamOverloaded(RestClientResponseException e) {
+        return e.getStatusCode().is5xxServerError()
+                || e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * Append a history point for every profile whose stats changed, in one read and one batch write
+     */
+    private void recordHistory(List<ProfileStats> changed) {
+        Instant now = Instant.now();
+        mergeColumn(changed, userLeetcodeProfileRepository::findHistories,
+                userLeetcodeProfileRepository::updateHistoriesBatch, (profile, stored) -> {
+                    StatsHistory history = StatsHistory.decode(stored);
+                    return history.record(now, profile.totalSolved(), profile.easySolved(),
+                            profile.mediumSolved(), profile.hardSolved()) ? history.encode() : null;
+                });
+    }
+
+    /**
+     * Merge fetched calendars into the stored heatmaps and write back only the ones that gained days
+     *
+     * @return number of heatmaps written
+     */
+    private int mergeHeatmaps(Map<ProfileStats, Map<LocalDate, Integer>> calendars) {
+        if (calendars.isEmpty()) {
+            return 0;
+        }
+        List<ProfileStats> updated = mergeColumn(calendars.keySet(), userLeetcodeProfileRepository::findHeatmaps,
+                userLeetcodeProfileRepository::updateHeatmapsBatch, (profile, stored) -> {
+                    SubmissionHeatmap heatmap = SubmissionHeatmap.decode(stored);
+                    return heatmap.merge(calendars.get(profile)) ? heatmap.encode() : null;
+                });
+
+        // Only recent days change, so only the current and previous year can be cached stale
+        Cache cache = cacheManager.getCache("leetcodeHeatmap");
+        if (cache != null) {
+            int year = LocalDate.now(ZoneOffset.UTC).getYear();
+            for (ProfileStats profile : updated) {
+                cache.evict(profile.userId() + "_" + year);
+                cache.evict(profile.userId() + "_" + (year - 1));
+            }
+        }
+        return updated.size();
+    }
+
+    /**
+     * Read, merge and compare-and-set an encoded column for many profiles
+     * A profile whose stored value changed in between (e.g. a manual refresh appended to its history)
+     * is read and merged again, up to MERGE_ATTEMPTS rounds; one relinked since is given up on.
+     *
+     * @param merge new encoded value from the stored one (null if none), or null to leave it as is
+     * @return the profiles written
+     */
+    private List<ProfileStats> mergeColumn(Collection<ProfileStats> profiles,
+                                           Function<Collection<Long>, Map<Long, byte[]>> read,
+                                           Function<Map<ProfileStats, ColumnSwap>, List<ProfileStats>> write,
+                                           BiFunction<ProfileStats, byte[], byte[]> merge) {
+        List<ProfileStats> written = new ArrayList<>();
+        Collection<ProfileStats> pending = profiles;
+        for (int attempt = 0; attempt < MERGE_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            Map<Long, byte[]> stored = read.apply(pending.stream().map(ProfileStats::id).toList());
+            Map<ProfileStats, ColumnSwap> swaps = new HashMap<>();
+            for (ProfileStats profile : pending) {
+                byte[] current = stored.get(profile.id());
+                byte[] merged = merge.apply(profile, current);
+                if (merged != null) {
+                    swaps.put(profile, new ColumnSwap(current, merged));
+                }
+            }
+            List<ProfileStats> missed = write.apply(swaps);
+            swaps.keySet().stream().filter(profile -> !missed.contains(profile)).forEach(written::add);
+            pending = missed;
+        }
+        if (!pending.isEmpty()) {
+            log.debug("Gave up merging {} profile(s) changed or relinked during the refresh", pending.size());
+        }
+        return written;
+    }
+
+    private void evictUserStats(List<ProfileStats> changed) {
+        Cache cache = cacheManager.getCache("userLeetcodeStats");
+        if (cache == null) {
+            return;
+        }
+        for (ProfileStats profile : changed) {
+            cache.evict(profile.userId());
+        }
+    }
+
+    /**
+     * updated: new stats to write; touch: only bump last_updated; neither: leave for the next run
+     * calendar: submission calendar fetched alongside the stats, if any
+     */
+    private record Outcome(ProfileStats profile, ProfileStats updated, boolean touch,
+                           Map<LocalDate, Integer> calendar) {
+
+        static Outcome changed(ProfileStats profile, ProfileStats updated, Map<LocalDate, Integer> calendar) {
+            return new Outcome(profile, updated, false, calendar);
+        }
+
+        static Outcome unchanged(ProfileStats profile, Map<LocalDate, Integer> calendar) {
+            return new Outcome(profile, null, true, calendar);
+        }
+
+        static Outcome unchanged(ProfileStats profile) {
+            return unchanged(profile, null);
+        }
+
+        static Outcome deferred(ProfileStats profile) {
+            return new Outcome(profile, null, false, null);
+        }
+    }
+}
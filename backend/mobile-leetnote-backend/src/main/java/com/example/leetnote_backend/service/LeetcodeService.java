@@ -2,42 +2,100 @@ package com.example.leetnote_backend.service;
 
 import com.example.leetnote_backend.exception.BadRequestException;
 import com.example.leetnote_backend.exception.ResourceNotFoundException;
+import com.example.leetnote_backend.model.DTO.HeatmapDTO;
 import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.model.DTO.StatsHistoryDTO;
 import com.example.leetnote_backend.model.entity.User;
 import com.example.leetnote_backend.model.entity.UserLeetcodeProfile;
 import com.example.leetnote_backend.repository.UserLeetcodeProfileRepository;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ProfileStats;
 import com.example.leetnote_backend.repository.UserRepository;
+import com.example.leetnote_backend.util.StatsHistory;
+import com.example.leetnote_backend.util.SubmissionHeatmap;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class LeetcodeService {
 
+    // LeetCode's first year; calendars hold nothing earlier
+    static final int FIRST_HEATMAP_YEAR = 2015;
+
     private final LeetcodeCacheService leetcodeApiService;
     private final UserLeetcodeProfileRepository userLeetcodeProfileRepository;
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${leetcode.refresh.manual-cooldown-seconds:300}")
+    private long manualRefreshCooldownSeconds;
 
     /**
      * Get user's LeetCode stats from database (if exists), otherwise return null
      * Cached for 5 minutes to reduce database hits
+     * sync = true: single-flight and early refresh; a null (no profile) is returned but not cached
      */
-    @Cacheable(value = "userLeetcodeStats", key = "#userId")
+    @Cacheable(value = "userLeetcodeStats", key = "#userId", sync = true)
+    @Transactional(readOnly = true)
     public LeetcodeStatsDTO getUserStats(Long userId) {
         return userLeetcodeProfileRepository.findByUserId(userId)
                 .map(this::convertToDTO)
                 .orElse(null);
     }
 
+    /**
+     * Get one year of the user's submission heatmap
+     * Filled from LeetCode on first request, then kept current by the background refresher
+     * Years outside LeetCode's lifetime are rejected so they neither fail nor get cache entries
+     */
+    @Cacheable(value = "leetcodeHeatmap", key = "#userId + '_' + #year", sync = true)
+    public HeatmapDTO getHeatmap(Long userId, int year) {
+        // LeetCode buckets submissions by UTC day, and evictHeatmap keys the current year the same way
+        int currentYear = Year.now(ZoneOffset.UTC).getValue();
+        if (year < FIRST_HEATMAP_YEAR || year > currentYear) {
+            throw new BadRequestException("Year must be between " + FIRST_HEATMAP_YEAR + " and " + currentYear);
+        }
+
+        UserLeetcodeProfile profile = userLeetcodeProfileRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("LeetCode profile", "userId", userId));
+
+        SubmissionHeatmap heatmap = profile.getSubmissionHeatmap();
+        if (heatmap == null) {
+            heatmap = new SubmissionHeatmap();
+            heatmap.merge(leetcodeApiService.fetchCalendar(profile.getUsername()));
+            // Only this column, and only if the refresher has not stored one in the meantime
+            userLeetcodeProfileRepository.fillHeatmap(profile.getId(), profile.getUsername(), heatmap.encode());
+        }
+
+        int[] counts = heatmap.countsFor(year);
+        int total = 0, activeDays = 0, max = 0;
+        for (int count : counts) {
+            total += count;
+            if (count > 0) {
+                activeDays++;
+            }
+            max = Math.max(max, count);
+        }
+        return new HeatmapDTO(profile.getUsername(), year, counts, total, activeDays, max);
+    }
+
     /**
      * Save or update LeetCode username for a user and fetch fresh stats from LeetCode API
-     * Evicts cache after updating
+     * Skips the write and cache eviction when neither the username nor the stats changed;
+     * a new username starts with an empty heatmap. With the same username only the stats
+     * columns are written, so heatmap days and history points stored meanwhile are kept.
      */
-    @CacheEvict(value = "userLeetcodeStats", key = "#userId")
     public LeetcodeStatsDTO saveLeetcodeUsername(Long userId, String leetcodeUsername) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
@@ -49,7 +107,16 @@ public class LeetcodeService {
         UserLeetcodeProfile profile = userLeetcodeProfileRepository.findByUserId(userId)
                 .orElse(new UserLeetcodeProfile());
 
-        // Update profile
+        if (leetcodeUsername.equals(profile.getUsername())) {
+            if (!hasSameStats(profile, stats)) {
+                writeStats(userId, profile, stats);
+            }
+            return stats;
+        }
+
+        // New or relinked profile; heatmap and history belong to the previous account
+        profile.setSubmissionHeatmap(null);
+        profile.setStatsHistory(null);
         profile.setUser(user);
         profile.setUsername(leetcodeUsername);
         profile.setTotalSolved(stats.getTotalSolved());
@@ -57,44 +124,118 @@ public class LeetcodeService {
         profile.setMediumSolved(stats.getMediumSolved());
         profile.setHardSolved(stats.getHardSolved());
         profile.setLastUpdated(LocalDateTime.now());
+        recordHistory(profile);
 
         userLeetcodeProfileRepository.save(profile);
+        evictUserStats(userId);
+        evictHeatmap(userId);
 
         return stats;
     }
 
     /**
      * Refresh stats from LeetCode API for existing user
-     * Evicts cache after updating
+     * Within the cooldown after the last update the stored stats are returned as-is
+     * Evicts cache after updating; unchanged stats only bump last_updated, which starts the cooldown
      */
-    @CacheEvict(value = "userLeetcodeStats", key = "#userId")
     public LeetcodeStatsDTO refreshStats(Long userId) {
         UserLeetcodeProfile profile = userLeetcodeProfileRepository.findByUserId(userId)
                 .orElseThrow(() -> new BadRequestException("No LeetCode profile found for user. Please set username first."));
 
+        // The background refresher keeps profiles reasonably fresh; repeated taps should not reach LeetCode
+        LocalDateTime lastUpdated = profile.getLastUpdated();
+        if (lastUpdated != null
+                && lastUpdated.isAfter(LocalDateTime.now().minusSeconds(manualRefreshCooldownSeconds))) {
+            return convertToDTO(profile);
+        }
+
         // Fetch fresh stats from LeetCode API (now uses separate service - caching works!)
         LeetcodeStatsDTO stats = leetcodeApiService.fetchStatsFromLeetcodeAPI(profile.getUsername());
+        if (hasSameStats(profile, stats)) {
+            userLeetcodeProfileRepository.touchAll(List.of(profile.getId()), LocalDateTime.now());
+            return stats;
+        }
 
-        // Update profile
-        profile.setTotalSolved(stats.getTotalSolved());
-        profile.setEasySolved(stats.getEasySolved());
-        profile.setMediumSolved(stats.getMediumSolved());
-        profile.setHardSolved(stats.getHardSolved());
-        profile.setLastUpdated(LocalDateTime.now());
-
-        userLeetcodeProfileRepository.save(profile);
-
+        writeStats(userId, profile, stats);
         return stats;
     }
 
     /**
      * Update LeetCode username (change it)
      */
-    @CacheEvict(value = "userLeetcodeStats", key = "#userId")
     public LeetcodeStatsDTO updateLeetcodeUsername(Long userId, String newUsername) {
         return saveLeetcodeUsername(userId, newUsername);
     }
 
+    /**
+     * Get the user's solved-count history within [from, to] as parallel arrays for charting
+     * The last point before from is included so the chart starts at the right level
+     */
+    @Transactional(readOnly = true)
+    public StatsHistoryDTO getStatsHistory(Long userId, Instant from, Instant to) {
+        UserLeetcodeProfile profile = userLeetcodeProfileRepository.findByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("LeetCode profile", "userId", userId));
+
+        StatsHistory history = profile.getStatsHistory() != null ? profile.getStatsHistory() : new StatsHistory();
+        List<StatsHistory.Point> points = history.range(from, to);
+
+        int size = points.size();
+        long[] timestamps = new long[size];
+        int[] total = new int[size], easy = new int[size], medium = new int[size], hard = new int[size];
+        for (int i = 0; i < size; i++) {
+            StatsHistory.Point point = points.get(i);
+            timestamps[i] = point.epochSecond();
+            total[i] = point.total();
+            easy[i] = point.easy();
+            medium[i] = point.medium();
+            hard[i] = point.hard();
+        }
+        return new StatsHistoryDTO(profile.getUsername(), timestamps, total, easy, medium, hard);
+    }
+
+    /**
+     * Write new stats to an existing profile with targeted updates rather than saving the entity,
+     * which would also rewrite the heatmap and history the refresher may have extended meanwhile
+     */
+    private void writeStats(Long userId, UserLeetcodeProfile profile, LeetcodeStatsDTO stats) {
+        ProfileStats updated = new ProfileStats(profile.getId(), userId, profile.getUsername(),
+                stats.getTotalSolved(), stats.getEasySolved(), stats.getMediumSolved(), stats.getHardSolved());
+        userLeetcodeProfileRepository.updateStatsBatch(List.of(updated), LocalDateTime.now());
+        userLeetcodeProfileRepository.recordHistory(updated, Instant.now());
+        evictUserStats(userId);
+    }
+
+    private static void recordHistory(UserLeetcodeProfile profile) {
+        StatsHistory history = profile.getStatsHistory() != null ? profile.getStatsHistory() : new StatsHistory();
+        history.record(Instant.now(), profile.getTotalSolved(), profile.getEasySolved(),
+                profile.getMediumSolved(), profile.getHardSolved());
+        profile.setStatsHistory(history);
+    }
+
+    private static boolean hasSameStats(UserLeetcodeProfile profile, LeetcodeStatsDTO stats) {
+        return profile.getTotalSolved() == stats.getTotalSolved()
+                && profile.getEasySolved() == stats.getEasySolved()
+                && profile.getMediumSolved() == stats.getMediumSolved()
+                && profile.getHardSolved() == stats.getHardSolved();
+    }
+
+    private void evictUserStats(Long userId) {
+        Cache cache = cacheManager.getCache("userLeetcodeStats");
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+
+    // Heatmaps are cached per year; only the current and previous year are likely to be cached
+    private void evictHeatmap(Long userId) {
+        Cache cache = cacheManager.getCache("leetcodeHeatmap");
+        if (cache != null) {
+            int year = Year.now(ZoneOffset.UTC).getValue();
+            cache.evict(userId + "_" + year);
+            cache.evict(userId + "_" + (year - 1));
+        }
+    }
+
     /**
      * Convert UserLeetcodeProfile entity to DTO
      */
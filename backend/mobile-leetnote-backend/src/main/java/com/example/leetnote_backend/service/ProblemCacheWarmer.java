@@ -0,0 +1,163 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Preloads the problem catalog pages and the most viewed problem details into the caches
+ *
+ * Runs as an ApplicationRunner, so the instance only reports ready (readiness probe) once
+ * warm-up finishes or hits its time limit. A scheduled refresher then rewrites the same
+ * entries ahead of their TTL so they never go cold between deploys.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProblemCacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemCacheWarmer.class);
+
+    private final ProblemCatalogService problemCatalogService;
+    private final ProblemViewTracker problemViewTracker;
+
+    @Value("${cache-warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache-warmup.pages:10}")
+    private int pages;
+
+    @Value("${cache-warmup.page-size:20}")
+    private int pageSize;
+
+    @Value("${cache-warmup.top-problems:100}")
+    private int topProblems;
+
+    @Value("${cache-warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${cache-warmup.timeout-ms:20000}")
+    private long timeoutMs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warm(false);
+        }
+    }
+
+    /**
+     * Keep warmed entries hot - the interval stays below the catalog cache TTL
+     */
+    @Scheduled(initialDelayString = "${cache-warmup.refresh-interval-ms:600000}",
+            fixedDelayString = "${cache-warmup.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (enabled) {
+            warm(true);
+        }
+    }
+
+    /**
+     * Load catalog pages, then the hottest problem details, with bounded concurrency and time
+     *
+     * @param refresh true to overwrite cached entries, false to only fill missing ones
+     * @return number of entries loaded
+     */
+    int warm(boolean refresh) {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-warmup-");
+        threadFactory.setDaemon(true);
+        // Tasks join the trace of the scheduled run
+        ExecutorService pool = ContextExecutorService.wrap(
+                Executors.newFixedThreadPool(Math.max(1, concurrency), threadFactory),
+                () -> ContextSnapshotFactory.builder().build().captureAll());
+
+        try {
+            List<Callable<Page<ProblemListDTO>>> pageTasks = new ArrayList<>();
+            for (int page = 0; page < pages; page++) {
+                PageRequest pageable = PageRequest.of(page, pageSize);
+                pageTasks.add(() -> refresh
+                        ? problemCatalogService.refreshCatalogPage(pageable)
+                        : problemCatalogService.getCatalogPage(pageable));
+            }
+            List<Page<ProblemListDTO>> warmedPages = invokeAll(pool, pageTasks, deadline);
+
+            // Most viewed first; before any views are recorded fall back to the head of the catalog
+            Set<Long> problemIds = new LinkedHashSet<>(problemViewTracker.topProblemIds(topProblems));
+            for (Page<ProblemListDTO> page : warmedPages) {
+                for (ProblemListDTO problem : page.getContent()) {
+                    if (problemIds.size() >= topProblems) {
+                        break;
+                    }
+                    problemIds.add(problem.getProblemId());
+                }
+            }
+
+            List<Callable<ProblemDetailDTO>> detailTasks = new ArrayList<>();
+            for (Long problemId : problemIds) {
+                detailTasks.add(() -> refresh
+                        ? problemCatalogService.refreshProblemContent(problemId)
+                        : problemCatalogService.getProblemContent(problemId));
+            }
+            List<ProblemDetailDTO> warmedDetails = invokeAll(pool, detailTasks, deadline);
+
+            int loaded = warmedPages.size() + warmedDetails.size();
+            log.info("Cache {} loaded {}/{} catalog pages and {}/{} problem details in {} ms",
+                    refresh ? "refresh" : "warm-up",
+                    warmedPages.size(), pageTasks.size(), warmedDetails.size(), detailTasks.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return loaded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Run tasks until the shared deadline; unfinished tasks are cancelled and failures skipped
+     */
+    private static <T> List<T> invokeAll(ExecutorService pool, List<Callable<T>> tasks, long deadline)
+            throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (tasks.isEmpty() || remaining <= 0) {
+            return List.of();
+        }
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : pool.invokeAll(tasks, remaining, TimeUnit.NANOSECONDS)) {
+            try {
+                results.add(future.get());
+            } catch (CancellationException e) {
+                // Ran out of time - the entry loads on first request instead
+            } catch (ExecutionException e) {
+                log.warn("Cache warm-up task failed: {}", e.getCause().getMessage());
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.SolutionDTO;
+import com.example.leetnote_backend.model.entity.Problem;
+import com.example.leetnote_backend.repository.ProblemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * User-independent views of the problem catalog, shared by every user and pre-warmed at startup
+ * Favorite/solved flags are always false here; ProblemService layers the user's status on top.
+ * Separated from ProblemService so the cache annotations go through the Spring proxy.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProblemCatalogService {
+
+    private final ProblemRepository problemRepository;
+
+    /**
+     * Unfiltered catalog page - cached per page number and size
+     */
+    @Cacheable(value = "problemCatalog", sync = true, key = "#pageable.pageNumber + '_' + #pageable.pageSize")
+    public Page<ProblemListDTO> getCatalogPage(Pageable pageable) {
+        return loadCatalogPage(pageable);
+    }
+
+    /**
+     * Reload a catalog page and overwrite the cached copy (used by the background refresher)
+     */
+    @CachePut(value = "problemCatalog", key = "#pageable.pageNumber + '_' + #pageable.pageSize")
+    public Page<ProblemListDTO> refreshCatalogPage(Pageable pageable) {
+        return loadCatalogPage(pageable);
+    }
+
+    /**
+     * Problem content (description and solution) - cached per problem
+     */
+    @Cacheable(value = "problemContent", sync = true, key = "#problemId")
+    public ProblemDetailDTO getProblemContent(Long problemId) {
+        return loadProblemContent(problemId);
+    }
+
+    /**
+     * Reload problem content and overwrite the cached copy (used by the background refresher)
+     */
+    @CachePut(value = "problemContent", key = "#problemId")
+    public ProblemDetailDTO refreshProblemContent(Long problemId) {
+        return loadProblemContent(problemId);
+    }
+
+    private Page<ProblemListDTO> loadCatalogPage(Pageable pageable) {
+        Page<Problem> page = problemRepository.findAll(pageable);
+        List<ProblemListDTO> dto = page.getContent().stream()
+                .map(problem -> new ProblemListDTO(
+                        problem.getId(),
+                        problem.getTitle(),
+                        problem.getDifficulty(),
+                        false,
+                        false
+                ))
+                .toList();
+        return new PageImpl<>(dto, pageable, page.getTotalElements());
+    }
+
+    private ProblemDetailDTO loadProblemContent(Long problemId) {
+        Problem problem = problemRepository.findById(problemId)
+                .orElseThrow(() -> new RuntimeException("Problem not found"));
+
+        SolutionDTO solutionDTO = problemRepository.findSolution(problemId)
+                .map(solution -> new SolutionDTO(
+                        solution.approach(),
+                        solution.code(),
+                        solution.timeComplexity(),
+                        solution.spaceComplexity()))
+                .orElse(null);
+
+        return new ProblemDetailDTO(
+                problem.getId(),
+                problem.getTitle(),
+                problem.getDifficulty(),
+                problem.getDescription(),
+                false,
+                false,
+                solutionDTO
+        );
+    }
+}
@@ -2,7 +2,7 @@ package com.example.leetnote_backend.service;
 
 import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
 import com.example.leetnote_backend.model.DTO.ProblemListDTO;
-import com.example.leetnote_backend.model.DTO.SolutionDTO;
+import com.example.leetnote_backend.model.DTO.ProblemStatusUpdateRequest;
 import com.example.leetnote_backend.model.entity.Problem;
 import com.example.leetnote_backend.model.entity.UserProblemStatus;
 import com.example.leetnote_backend.repository.ProblemRepository;
@@ -16,7 +16,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,11 +36,19 @@ public class ProblemService {
     @Autowired
     private UserProblemStatusRepository userProblemStatusRepository;
 
+    @Autowired
+    private ProblemStatusWriteBuffer problemStatusWriteBuffer;
+
+    @Autowired
+    private ProblemCatalogService problemCatalogService;
+
     /**
      * Get all problems with filters - cached per user and filter combination
      * Cache expires after 5 minutes to balance performance and data freshness
+     * sync = true lets the cache run this loader itself (single-flight and background early refresh)
      */
-    @Cacheable(value = "problemLists", key = "#userId + '_' + #keyword + '_' + #difficulties + '_' + #isSolved + '_' + #isFavorite + '_' + #pageable.pageNumber")
+    @Cacheable(value = "problemLists", sync = true, key = "#userId + '_' + #keyword + '_' + #difficulties + '_' + #isSolved + '_' + #isFavorite + '_' + #pageable.pageNumber")
+    @Transactional(readOnly = true)
     public Page<ProblemListDTO> getAllProblems(
             Long userId,
             String keyword,
@@ -45,6 +56,24 @@ public class ProblemService {
             Boolean isSolved,
             Boolean isFavorite,
             Pageable pageable) {
+        List<UserProblemStatus> userProblemStatuses = userProblemStatusRepository.findAllByUserId(userId);
+        Map<Long, UserProblemStatus> userProblemStatusMap = userProblemStatuses.stream()
+                .collect(Collectors.toMap(UserProblemStatus::getProblemId, s -> s));
+
+        boolean unfiltered = (keyword == null || keyword.isBlank())
+                && (difficulties == null || difficulties.isEmpty())
+                && isSolved == null
+                && isFavorite == null;
+        if (unfiltered) {
+            // The shared (pre-warmed) catalog page only needs the user's statuses layered on
+            Page<ProblemListDTO> catalog = problemCatalogService.getCatalogPage(pageable);
+            List<ProblemListDTO> dto = catalog.getContent().stream()
+                    .map(problem -> withUserStatus(problem.getProblemId(), problem.getTitle(),
+                            problem.getDifficulty(), userProblemStatusMap))
+                    .collect(Collectors.toList());
+            return new PageImpl<>(dto, pageable, catalog.getTotalElements());
+        }
+
         Specification<Problem> spec = hasKeyword(keyword);
 
         if (difficulties != null && !difficulties.isEmpty()) {
@@ -60,40 +89,35 @@ public class ProblemService {
         }
 
         Page<Problem> page = problemRepository.findAll(spec, pageable);
-        List<UserProblemStatus> userProblemStatuses = userProblemStatusRepository.findAllByUserId(userId);
-
-        Map<Long, UserProblemStatus> userProblemStatusMap = userProblemStatuses.stream()
-                .collect(Collectors.toMap(UserProblemStatus::getProblemId, s -> s));
 
         List<ProblemListDTO> dto = page.getContent().stream()
-                .map(problem -> {
-                    UserProblemStatus userProblemStatus = userProblemStatusMap.get(problem.getId());
-                    boolean favorited = userProblemStatus != null && userProblemStatus.isFavorited();
-                    boolean solved = userProblemStatus != null && userProblemStatus.isSolved();
-                    return new ProblemListDTO(
-                            problem.getId(),
-                            problem.getTitle(),
-                            problem.getDifficulty(),
-                            favorited,
-                            solved
-                    );
-                })
+                .map(problem -> withUserStatus(problem.getId(), problem.getTitle(),
+                        problem.getDifficulty(), userProblemStatusMap))
                 .collect(Collectors.toList());
 
         return new PageImpl<>(dto, pageable, page.getTotalElements());
     }
 
+    private static ProblemListDTO withUserStatus(Long problemId, String title, String difficulty,
+                                                 Map<Long, UserProblemStatus> userProblemStatusMap) {
+        UserProblemStatus userProblemStatus = userProblemStatusMap.get(problemId);
+        boolean favorited = userProblemStatus != null && userProblemStatus.isFavorited();
+        boolean solved = userProblemStatus != null && userProblemStatus.isSolved();
+        return new ProblemListDTO(problemId, title, difficulty, favorited, solved);
+    }
+
     /**
      * Get problem detail by ID - cached per problem and user
      * Cache expires after 10 minutes
      */
-    @Cacheable(value = "problemDetails", key = "#problemId + '_' + #userId")
+    @Cacheable(value = "problemDetails", sync = true, key = "#problemId + '_' + #userId")
+    @Transactional(readOnly = true)
     public ProblemDetailDTO getProblemDetail(
             Long problemId,
             Long userId
     ) {
-        Problem problem = problemRepository.findById(problemId)
-                .orElseThrow(() -> new RuntimeException("Problem not found"));
+        // 1. Shared problem content (pre-warmed for the most viewed problems)
+        ProblemDetailDTO content = problemCatalogService.getProblemContent(problemId);
 
         // 2. Fetch user's problem status
         Optional<UserProblemStatus> statusOpt =
@@ -102,29 +126,20 @@ public class ProblemService {
         boolean favorite = statusOpt.map(UserProblemStatus::isFavorited).orElse(false);
         boolean solved = statusOpt.map(UserProblemStatus::isSolved).orElse(false);
 
-        SolutionDTO solutionDTO = null;
-        if (problem.getSolution() != null) {
-            Map<String, Object> solution = problem.getSolution();
-            String approach = (String) solution.getOrDefault("approach", "");
-            String code = (String) solution.getOrDefault("code", "");
-            String timeComplexity = (String) solution.getOrDefault("time_complexity", "");
-            String spaceComplexity = (String) solution.getOrDefault("space_complexity", "");
-            solutionDTO = new SolutionDTO(approach, code, timeComplexity, spaceComplexity);
-        }
-
         return new ProblemDetailDTO(
-                problem.getId(),
-                problem.getTitle(),
-                problem.getDifficulty(),
-                problem.getDescription(),
+                content.getId(),
+                content.getTitle(),
+                content.getDifficulty(),
+                content.getDescription(),
                 favorite,
                 solved,
-                solutionDTO
+                content.getSolution()
         );
     }
 
     /**
      * Update problem status (favorite/solved) - evicts related caches
+     * Both flags are replaced, so the row is upserted without reading it first.
      */
     @CacheEvict(value = {"problemLists", "problemDetails"}, allEntries = true)
     public ProblemListDTO updateProblemStatus(
@@ -136,13 +151,10 @@ public class ProblemService {
         Problem problem = problemRepository.findById(problemId)
                 .orElseThrow(() -> new IllegalArgumentException("Problem not found with ID: " + problemId));
 
-        UserProblemStatus status = userProblemStatusRepository
-                .findByUserIdAndProblemId(userId, problemId)
-                .orElse(new UserProblemStatus(userId, problemId, false, false));
-
-        status.setSolved(isSolved);
-        status.setFavorited(isFavorite);
-        userProblemStatusRepository.save(status);
+        UserProblemStatus status = new UserProblemStatus(userId, problemId, isSolved, isFavorite);
+        // A direct write supersedes anything still waiting in the write-behind buffer
+        problemStatusWriteBuffer.writeThrough(userId, problemId,
+                () -> userProblemStatusRepository.upsertAll(List.of(status)));
 
         return new ProblemListDTO(
                 problem.getId(),
@@ -152,4 +164,50 @@ public class ProblemService {
                 status.isSolved()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Update many problem statuses at once - validated with a single query, then staged
+     * in the write-behind buffer which coalesces and upserts them in one batch
+     */
+    public List<ProblemListDTO> updateProblemStatuses(
+            Long userId,
+            List<ProblemStatusUpdateRequest> updates
+    ) {
+        if (updates == null || updates.isEmpty()) {
+            return List.of();
+        }
+
+        // Last change wins when the same problem appears more than once
+        Map<Long, ProblemStatusUpdateRequest> latest = new LinkedHashMap<>();
+        for (ProblemStatusUpdateRequest update : updates) {
+            if (update.getProblemId() == null) {
+                throw new IllegalArgumentException("Problem ID is required for every status update");
+            }
+            latest.put(update.getProblemId(), update);
+        }
+
+        Map<Long, Problem> problems = problemRepository.findAllById(latest.keySet()).stream()
+                .collect(Collectors.toMap(Problem::getId, p -> p));
+
+        List<Long> missing = latest.keySet().stream()
+                .filter(id -> !problems.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Problem not found with ID(s): " + missing);
+        }
+
+        List<ProblemListDTO> result = new ArrayList<>(latest.size());
+        for (ProblemStatusUpdateRequest update : latest.values()) {
+            Problem problem = problems.get(update.getProblemId());
+            problemStatusWriteBuffer.stage(userId, problem.getId(), update.isSolved(), update.isFavorite());
+            result.add(new ProblemListDTO(
+                    problem.getId(),
+                    problem.getTitle(),
+                    problem.getDifficulty(),
+                    update.isFavorite(),
+                    update.isSolved()
+            ));
+        }
+        return result;
+    }
+}
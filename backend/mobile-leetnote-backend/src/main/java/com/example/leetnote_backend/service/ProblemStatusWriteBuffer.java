@@ -0,0 +1,227 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.db.ReadYourWrites;
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
+import com.example.leetnote_backend.model.entity.UserProblemStatusId;
+import com.example.leetnote_backend.repository.UserProblemStatusRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for user problem status changes
+ * Coalesces writes per (user, problem) and flushes them as one JDBC upsert batch.
+ * Pending entries double as a per-user overlay so reads see the user's own writes before the flush.
+ *
+ * The buffer is per instance: until the next flush (problem-status.flush-interval-ms) a staged change
+ * is only visible to reads served by the instance that staged it, and a crash loses what has not
+ * been flushed yet. Only the bulk status endpoint stages; single status updates write through.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProblemStatusWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemStatusWriteBuffer.class);
+
+    private final UserProblemStatusRepository userProblemStatusRepository;
+    private final CacheManager cacheManager;
+    // Present when reads are split to a replica
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
+
+    // userId -> (problemId -> latest staged status)
+    private final ConcurrentHashMap<Long, Map<Long, UserProblemStatus>> pending = new ConcurrentHashMap<>();
+    // (user, problem) -> completion of the batch currently upserting it
+    private final ConcurrentHashMap<UserProblemStatusId, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    // Only keeps flushes apart (scheduled and shutdown); writes never take it
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Stage a status change - a later change for the same problem replaces it
+     */
+    public void stage(Long userId, Long problemId, boolean isSolved, boolean isFavorite) {
+        UserProblemStatus status = new UserProblemStatus(userId, problemId, isSolved, isFavorite);
+        pending.compute(userId, (id, statuses) -> {
+            Map<Long, UserProblemStatus> target = statuses != null ? statuses : new ConcurrentHashMap<>();
+            target.put(problemId, status);
+            return target;
+        });
+    }
+
+    /**
+     * Drop a staged change, used when the status was written directly
+     */
+    public void discard(Long userId, Long problemId) {
+        pending.computeIfPresent(userId, (id, statuses) -> {
+            statuses.remove(problemId);
+            return statuses.isEmpty() ? null : statuses;
+        });
+    }
+
+    /**
+     * Run a direct status write in place of anything staged for the same problem
+     * Waits only for a batch already upserting this (user, problem), so the older staged value
+     * cannot land over the direct write; other users and problems are not held up.
+     */
+    public void writeThrough(Long userId, Long problemId, Runnable write) {
+        UserProblemStatusId id = new UserProblemStatusId(userId, problemId);
+        List<CompletableFuture<Void>> flushing = new ArrayList<>(1);
+        // Same per-user bin as flush claiming its batch: either the batch has claimed the staged value
+        // and is found here, or the value is discarded before the batch can see it
+        pending.compute(userId, (key, statuses) -> {
+            CompletableFuture<Void> batch = inFlight.get(id);
+            if (batch != null) {
+                flushing.add(batch);
+            }
+            if (statuses == null) {
+                return null;
+            }
+            statuses.remove(problemId);
+            return statuses.isEmpty() ? null : statuses;
+        });
+        flushing.forEach(CompletableFuture::join);
+
+        write.run();
+        // Written outside a transaction, so the routing data source does not see it
+        ReadYourWrites windows = readYourWrites.getIfAvailable();
+        if (windows != null) {
+            windows.recordWrites(List.of(userId));
+        }
+    }
+
+    /**
+     * Snapshot of the user's staged changes keyed by problem ID
+     */
+    public Map<Long, UserProblemStatus> pendingFor(Long userId) {
+        Map<Long, UserProblemStatus> statuses = pending.get(userId);
+        return statuses == null ? Map.of() : Map.copyOf(statuses);
+    }
+
+    public int size() {
+        return pending.values().stream().mapToInt(Map::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${problem-status.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            List<UserProblemStatus> batch = new ArrayList<>();
+            for (Long userId : pending.keySet()) {
+                pending.computeIfPresent(userId, (id, statuses) -> {
+                    statuses.values().forEach(status -> {
+                        batch.add(status);
+                        inFlight.put(idOf(status), done);
+                    });
+                    return statuses;
+                });
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                userProblemStatusRepository.upsertAll(batch);
+            } catch (DataAccessException e) {
+                // Keep everything staged and retry on the next tick
+                log.warn("Failed to flush {} problem status change(s): {}", batch.size(), e.getMessage());
+                return;
+            } finally {
+                batch.forEach(status -> inFlight.remove(idOf(status), done));
+                done.complete(null);
+            }
+
+            // The flush runs without a user, so start the writers' windows explicitly: otherwise their
+            // next reads could hit a lagging replica and cache the stale page
+            ReadYourWrites windows = readYourWrites.getIfAvailable();
+            if (windows != null) {
+                windows.recordWrites(batch.stream().map(UserProblemStatus::getUserId).distinct().toList());
+            }
+            evictCache("problemLists");
+            evictCache("problemDetails");
+
+            // Only remove entries that were not replaced while the batch was in flight
+            for (UserProblemStatus status : batch) {
+                pending.computeIfPresent(status.getUserId(), (id, statuses) -> {
+                    statuses.remove(status.getProblemId(), status);
+                    return statuses.isEmpty() ? null : statuses;
+                });
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static UserProblemStatusId idOf(UserProblemStatus status) {
+        return new UserProblemStatusId(status.getUserId(), status.getProblemId());
+    }
+
+    private void evictCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Apply staged changes on top of a (possibly cached) problem page
+     */
+    public static Page<ProblemListDTO> overlay(Page<ProblemListDTO> page, Map<Long, UserProblemStatus> staged) {
+        if (page == null || staged.isEmpty()) {
+            return page;
+        }
+        return page.map(dto -> {
+            UserProblemStatus status = staged.get(dto.getProblemId());
+            if (status == null) {
+                return dto;
+            }
+            return new ProblemListDTO(
+                    dto.getProblemId(),
+                    dto.getTitle(),
+                    dto.getDifficulty(),
+                    status.isFavorited(),
+                    status.isSolved()
+            );
+        });
+    }
+
+    /**
+     * Apply a staged change on top of a (possibly cached) problem detail
+     */
+    public static ProblemDetailDTO overlay(ProblemDetailDTO detail, Map<Long, UserProblemStatus> staged) {
+        if (detail == null || !staged.containsKey(detail.getId())) {
+            return detail;
+        }
+        UserProblemStatus status = staged.get(detail.getId());
+        return new ProblemDetailDTO(
+                detail.getId(),
+                detail.getTitle(),
+                detail.getDifficulty(),
+                detail.getDescription(),
+                status.isFavorited(),
+                status.isSolved(),
+                detail.getSolution()
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.leetnote_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts problem detail views so cache warm-up knows which problems are hot
+ * Views are counted in memory and flushed periodically into a Redis sorted set shared by all
+ * instances, so the ranking survives deploys.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProblemViewTracker {
+
+    static final String VIEWS_KEY = "leetnote:problem-views";
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemViewTracker.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void recordView(Long problemId) {
+        pending.computeIfAbsent(problemId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Push buffered view counts to Redis in one pipelined round trip
+     */
+    @Scheduled(fixedDelayString = "${cache-warmup.view-flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        for (Long problemId : pending.keySet()) {
+            LongAdder adder = pending.remove(problemId);
+            if (adder != null) {
+                counts.put(problemId, adder.sum());
+            }
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection commands = (StringRedisConnection) connection;
+                counts.forEach((problemId, count) -> commands.zIncrBy(VIEWS_KEY, count, problemId.toString()));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            // View counts only steer warm-up; dropping one interval is harmless
+            log.warn("Failed to flush {} problem view counts: {}", counts.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Most viewed problem IDs, highest first; empty if Redis is unavailable
+     */
+    public List<Long> topProblemIds(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        try {
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(VIEWS_KEY, 0, limit - 1);
+            return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+        } catch (DataAccessException e) {
+            log.warn("Failed to read most viewed problems: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.leetnote_backend.service;
 
 import com.example.leetnote_backend.exception.BadRequestException;
+import com.example.leetnote_backend.util.PayloadLogPolicy;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -13,19 +16,38 @@ import java.util.Map;
 @Service
 public class TogetherAiService {
 
+    private static final Logger log = LoggerFactory.getLogger(TogetherAiService.class);
+    private static final String DEFAULT_API_URL = "https://api.together.xyz/v1/chat/completions";
+
     private final ObjectMapper mapper = new ObjectMapper();
+    private final PayloadLogPolicy payloadLog;
     private WebClient webClient; // no longer final to allow test injection
 
     public TogetherAiService() {
         this("");
     }
 
+    public TogetherAiService(String apiKey) {
+        this(WebClient.builder(), DEFAULT_API_URL, apiKey, PayloadLogPolicy.DEFAULT);
+    }
+
+    // Boot's WebClient.Builder records http.client.requests metrics for every call
     @Autowired
-    public TogetherAiService(@Value("${together.api.key:}") String apiKey) {
-        this.webClient = WebClient.builder()
-                .baseUrl("https://api.together.xyz/v1/chat/completions")
+    public TogetherAiService(WebClient.Builder webClientBuilder,
+                             @Value("${together.api.url:" + DEFAULT_API_URL + "}") String apiUrl,
+                             @Value("${together.api.key:}") String apiKey,
+                             @Value("${together.log.payload-sample-rate:0.01}") double payloadSampleRate,
+                             @Value("${together.log.max-field-chars:2000}") int maxFieldChars) {
+        this(webClientBuilder, apiUrl, apiKey, new PayloadLogPolicy(payloadSampleRate, maxFieldChars));
+    }
+
+    TogetherAiService(WebClient.Builder webClientBuilder, String apiUrl, String apiKey,
+                      PayloadLogPolicy payloadLog) {
+        this.webClient = webClientBuilder
+                .baseUrl(apiUrl)
                 .defaultHeader("Authorization", "Bearer " + apiKey)
                 .build();
+        this.payloadLog = payloadLog;
     }
 
     // Test-only: allow injecting a stubbed WebClient
@@ -55,7 +77,10 @@ public class TogetherAiService {
                 Map<String, Object> message = (Map<String, Object>) firstChoice.get("message");
                 if (message != null) {
                     String content = (String) message.get("content");
-                    System.out.println("\n\n🔹 Raw model output: " + content);
+                    log.debug("Model output received: chars={}", content == null ? 0 : content.length());
+                    if (log.isInfoEnabled() && payloadLog.sample()) {
+                        log.info("Model output (sampled): {}", payloadLog.cap(content));
+                    }
                     return content;
                 }
             }
@@ -78,11 +103,16 @@ public class TogetherAiService {
             }
 
             Map<String, Object> parsed = mapper.readValue(cleaned, Map.class);
-            System.out.println("✅ Parsed JSON: " + parsed);
+            log.debug("Model output parsed: fields={}", parsed.keySet());
+            if (log.isInfoEnabled() && payloadLog.sample()) {
+                log.info("Parsed model output (sampled): {}", payloadLog.cap(String.valueOf(parsed)));
+            }
             return parsed;
         } catch (Exception e) {
-            System.err.println("❌ JSON parsing failed: " + e.getMessage());
-            System.err.println("Raw output: " + rawOutput);
+            // Always logged, but capped: a model that stops returning JSON fails every request
+            log.warn("Model output is not valid JSON, using the fallback evaluation: error={}, chars={}, output={}",
+                    payloadLog.cap(e.getMessage()), rawOutput == null ? 0 : rawOutput.length(),
+                    payloadLog.cap(rawOutput));
             return Map.of(
                     "rating", 1,
                     "issue", List.of("Invalid JSON"),
@@ -12,7 +12,8 @@ public class UserCacheService {
 
     private final UserRepository userRepository;
 
-    @Cacheable(value = "users", key = "#id")
+    // sync: concurrent misses share one load, and hot users are refreshed ahead of expiry
+    @Cacheable(value = "users", key = "#id", sync = true)
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
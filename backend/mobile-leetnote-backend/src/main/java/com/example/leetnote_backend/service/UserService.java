@@ -2,11 +2,14 @@ package com.example.leetnote_backend.service;
 
 import com.example.leetnote_backend.model.entity.User;
 import com.example.leetnote_backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
@@ -16,6 +19,12 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserCacheService userCacheService;
 
+    // Firebase UID -> user ID never changes once the user exists, so a local cache needs no invalidation
+    private final Cache<String, Long> userIdsByFirebaseUid = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
     /**
      * Find user by ID - cached for quick access
      */
@@ -23,6 +32,14 @@ public class UserService {
         return userCacheService.findById(id);
     }
 
+    /**
+     * Resolve the user ID for an authenticated Firebase user, creating the user on first sight
+     * Only the first request per UID (per instance) touches the database.
+     */
+    public Long resolveUserId(String firebaseUid, String email) {
+        return userIdsByFirebaseUid.get(firebaseUid, uid -> findOrCreateUser(uid, email).getId());
+    }
+
     public User findOrCreateUser(String firebaseUid, String email) {
         return userRepository.findByFirebaseUid(firebaseUid)
                 .orElseGet(() -> {
@@ -0,0 +1,40 @@
+package com.example.leetnote_backend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Which calls get their full payload logged, and how much of any logged field is kept
+ *
+ * Multi-kilobyte bodies (model output, upstream responses) are logged for a sample of calls
+ * only; everything that does get logged is cut to maxChars with the original length noted.
+ */
+public class PayloadLogPolicy {
+
+    public static final PayloadLogPolicy DEFAULT = new PayloadLogPolicy(0.01, 2000);
+
+    private final double sampleRate;
+    private final int maxChars;
+
+    /**
+     * @param sampleRate share of calls (0..1) whose full payload is logged
+     * @param maxChars   longest field kept in a log line
+     */
+    public PayloadLogPolicy(double sampleRate, int maxChars) {
+        if (maxChars <= 0) {
+            throw new IllegalArgumentException("maxChars must be positive");
+        }
+        this.sampleRate = sampleRate;
+        this.maxChars = maxChars;
+    }
+
+    public boolean sample() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public String cap(String value) {
+        if (value == null || value.length() <= maxChars) {
+            return value;
+        }
+        return value.substring(0, maxChars) + "...[" + value.length() + " chars]";
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.leetnote_backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Solved-count history of one LeetCode profile, recorded only when the counts change
+ *
+ * Encoded layout (varints; counts are zigzag so corrections below the previous value survive):
+ *   version, pointCount, first point absolute (epoch seconds, total, easy, medium, hard),
+ *   then each later point as deltas from the one before it.
+ * Older points are thinned to the last point per bucket - hourly for the past week, daily up
+ * to 90 days, weekly up to a year, monthly beyond - so the size depends on account age,
+ * not on how often the profile is refreshed.
+ */
+public final class StatsHistory {
+
+    private static final int VERSION = 1;
+
+    static final Duration HOURLY_FOR = Duration.ofDays(7);
+    static final Duration DAILY_FOR = Duration.ofDays(90);
+    static final Duration WEEKLY_FOR = Duration.ofDays(365);
+
+    private final List<Point> points = new ArrayList<>();
+
+    public record Point(long epochSecond, int total, int easy, int medium, int hard) {
+
+        boolean sameCounts(Point other) {
+            return total == other.total && easy == other.easy && medium == other.medium && hard == other.hard;
+        }
+    }
+
+    public List<Point> points() {
+        return Collections.unmodifiableList(points);
+    }
+
+    public boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    /**
+     * Append the counts observed at the given time, then downsample older points
+     *
+     * @return true if a point was added (counts differ from the latest point)
+     */
+    public boolean record(Instant at, int total, int easy, int medium, int hard) {
+        Point point = new Point(at.getEpochSecond(), total, easy, medium, hard);
+        if (!points.isEmpty()) {
+            Point last = points.get(points.size() - 1);
+            if (last.sameCounts(point) || point.epochSecond() < last.epochSecond()) {
+                return false;
+            }
+        }
+        points.add(point);
+        downsample(at);
+        return true;
+    }
+
+    /**
+     * Points within [from, to], preceded by the last point before from so charts start at the right level
+     */
+    public List<Point> range(Instant from, Instant to) {
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        List<Point> result = new ArrayList<>();
+        Point baseline = null;
+        for (Point point : points) {
+            if (point.epochSecond() < fromSecond) {
+                baseline = point;
+            } else if (point.epochSecond() <= toSecond) {
+                result.add(point);
+            }
+        }
+        if (baseline != null) {
+            result.add(0, baseline);
+        }
+        return result;
+    }
+
+    /**
+     * Keep the latest point of each bucket; the newest point is always kept
+     */
+    void downsample(Instant now) {
+        if (points.size() < 2) {
+            return;
+        }
+        List<Point> kept = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            Point point = points.get(i);
+            boolean last = i == points.size() - 1;
+            if (last || bucket(point, now) != bucket(points.get(i + 1), now)) {
+                kept.add(point);
+            }
+        }
+        points.clear();
+        points.addAll(kept);
+    }
+
+    // Points in the same bucket collapse to one; each tier's buckets are disjoint from the others
+    private static long bucket(Point point, Instant now) {
+        long age = now.getEpochSecond() - point.epochSecond();
+        if (age < HOURLY_FOR.getSeconds()) {
+            return point.epochSecond() / 3600;
+        }
+        LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(point.epochSecond(), 86_400L));
+        if (age < DAILY_FOR.getSeconds()) {
+            return (1L << 40) + day.toEpochDay();
+        }
+        if (age < WEEKLY_FOR.getSeconds()) {
+            return (2L << 40) + day.get(IsoFields.WEEK_BASED_YEAR) * 100L + day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+        }
+        return (3L << 40) + day.getYear() * 100L + day.getMonthValue();
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, VERSION);
+        writeVarint(out, points.size());
+        Point previous = new Point(0, 0, 0, 0, 0);
+        for (Point point : points) {
+            writeVarint(out, point.epochSecond() - previous.epochSecond());
+            writeVarint(out, zigzag(point.total() - previous.total()));
+            writeVarint(out, zigzag(point.easy() - previous.easy()));
+            writeVarint(out, zigzag(point.medium() - previous.medium()));
+            writeVarint(out, zigzag(point.hard() - previous.hard()));
+            previous = point;
+        }
+        return out.toByteArray();
+    }
+
+    public static StatsHistory decode(byte[] bytes) {
+        StatsHistory history = new StatsHistory();
+        if (bytes == null || bytes.length == 0) {
+            return history;
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        long version = readVarint(in);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported stats history encoding version " + version);
+        }
+        long count = readVarint(in);
+        Point previous = new Point(0, 0, 0, 0, 0);
+        for (long i = 0; i < count; i++) {
+            Point point = new Point(
+                    previous.epochSecond() + readVarint(in),
+                    previous.total() + unzigzag(readVarint(in)),
+                    previous.easy() + unzigzag(readVarint(in)),
+                    previous.medium() + unzigzag(readVarint(in)),
+                    previous.hard() + unzigzag(readVarint(in))
+            );
+            history.points.add(point);
+            previous = point;
+        }
+        return history;
+    }
+
+    private static long zigzag(int value) {
+        return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+    }
+
+    private static int unzigzag(long value) {
+        int v = (int) value;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in stats history");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof StatsHistory other && points.equals(other.points);
+    }
+
+    @Override
+    public int hashCode() {
+        return points.hashCode();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.leetnote_backend.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class StatsHistoryConverter implements AttributeConverter<StatsHistory, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(StatsHistory history) {
+        return history == null ? null : history.encode();
+    }
+
+    @Override
+    public StatsHistory convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : StatsHistory.decode(bytes);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.leetnote_backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-day submission counts, stored as one day bitset plus a counts array per year
+ *
+ * Encoded layout (all integers are unsigned varints):
+ *   version, yearCount, then per year ascending: year, 46-byte day-of-year bitset,
+ *   and one count per set bit in day order.
+ * A year with daily activity takes ~46 bytes plus ~1 byte per active day, against ~20 bytes
+ * per day for the raw {"epochSeconds": count} JSON LeetCode returns.
+ */
+public final class SubmissionHeatmap {
+
+    private static final int VERSION = 1;
+    private static final int MAX_DAYS = 366;
+    private static final int BITSET_BYTES = (MAX_DAYS + 7) / 8;
+
+    // Dense counts per year indexed by day-of-year - 1; only used in memory
+    private final TreeMap<Integer, int[]> years = new TreeMap<>();
+
+    public boolean isEmpty() {
+        return years.isEmpty();
+    }
+
+    public int count(LocalDate day) {
+        int[] counts = years.get(day.getYear());
+        return counts == null ? 0 : counts[day.getDayOfYear() - 1];
+    }
+
+    /**
+     * Counts for every day of the year in order (365 or 366 entries), zeros for inactive days
+     */
+    public int[] countsFor(int year) {
+        int length = Year.of(year).length();
+        int[] counts = years.get(year);
+        return counts == null ? new int[length] : Arrays.copyOf(counts, length);
+    }
+
+    /**
+     * Latest day with activity, or null when empty
+     */
+    public LocalDate latestDay() {
+        for (Map.Entry<Integer, int[]> entry : years.descendingMap().entrySet()) {
+            int[] counts = entry.getValue();
+            for (int day = counts.length - 1; day >= 0; day--) {
+                if (counts[day] > 0) {
+                    return Year.of(entry.getKey()).atDay(day + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merge a fetched calendar, keeping what is already stored
+     *
+     * Only days from the latest stored day onwards are applied: earlier days are final, while the
+     * latest day may still have grown since the last fetch. An empty heatmap takes everything.
+     *
+     * @return true if any day changed
+     */
+    public boolean merge(Map<LocalDate, Integer> calendar) {
+        LocalDate from = latestDay();
+        boolean changed = false;
+        for (Map.Entry<LocalDate, Integer> entry : calendar.entrySet()) {
+            LocalDate day = entry.getKey();
+            int count = entry.getValue() == null ? 0 : entry.getValue();
+            if (count <= 0 || (from != null && day.isBefore(from)) || count == count(day)) {
+                continue;
+            }
+            years.computeIfAbsent(day.getYear(), y -> new int[MAX_DAYS])[day.getDayOfYear() - 1] = count;
+            changed = true;
+        }
+        return changed;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, VERSION);
+        writeVarint(out, years.size());
+        for (Map.Entry<Integer, int[]> entry : years.entrySet()) {
+            int[] counts = entry.getValue();
+            byte[] bitset = new byte[BITSET_BYTES];
+            for (int day = 0; day < MAX_DAYS; day++) {
+                if (counts[day] > 0) {
+                    bitset[day >>> 3] |= (byte) (1 << (day & 7));
+                }
+            }
+            writeVarint(out, entry.getKey());
+            out.write(bitset, 0, BITSET_BYTES);
+            for (int day = 0; day < MAX_DAYS; day++) {
+                if (counts[day] > 0) {
+                    writeVarint(out, counts[day]);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static SubmissionHeatmap decode(byte[] bytes) {
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        if (bytes == null || bytes.length == 0) {
+            return heatmap;
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int version = readVarint(in);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported heatmap encoding version " + version);
+        }
+        int yearCount = readVarint(in);
+        for (int i = 0; i < yearCount; i++) {
+            int year = readVarint(in);
+            byte[] bitset = new byte[BITSET_BYTES];
+            in.get(bitset);
+            int[] counts = new int[MAX_DAYS];
+            for (int day = 0; day < MAX_DAYS; day++) {
+                if ((bitset[day >>> 3] & (1 << (day & 7))) != 0) {
+                    counts[day] = readVarint(in);
+                }
+            }
+            heatmap.years.put(year, counts);
+        }
+        return heatmap;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in heatmap");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SubmissionHeatmap other && Arrays.equals(encode(), other.encode());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(encode());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.leetnote_backend.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class SubmissionHeatmapConverter implements AttributeConverter<SubmissionHeatmap, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(SubmissionHeatmap heatmap) {
+        return heatmap == null ? null : heatmap.encode();
+    }
+
+    @Override
+    public SubmissionHeatmap convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : SubmissionHeatmap.decode(bytes);
+    }
+}
@@ -98,4 +98,4 @@ CREATE TABLE public.problem_pattern_problems (
                                                  pattern_id INT NOT NULL REFERENCES public.problem_patterns(id) ON DELETE CASCADE,
                                                  problem_id INT NOT NULL REFERENCES public.problems(id) ON DELETE CASCADE,
                                                  PRIMARY KEY (pattern_id, problem_id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,8 @@
+-- Compact heatmap replaces the raw submission calendar JSON; stats history is new
+ALTER TABLE public.user_leetcode_profiles ADD COLUMN IF NOT EXISTS submission_heatmap bytea;
+ALTER TABLE public.user_leetcode_profiles ADD COLUMN IF NOT EXISTS stats_history bytea;
+ALTER TABLE public.user_leetcode_profiles DROP COLUMN IF EXISTS submission_calendar;
+
+-- Background refresher scans oldest-first
+CREATE INDEX IF NOT EXISTS idx_user_leetcode_profiles_last_updated
+    ON public.user_leetcode_profiles (last_updated NULLS FIRST);
@@ -0,0 +1,77 @@
+-- user_problem_status had no key, so collapse any duplicate rows before adding the
+-- (user_id, problem_id) primary key that UserProblemStatus and the upsert rely on
+CREATE TABLE user_problem_status_dedup AS
+SELECT user_id, problem_id, BOOL_OR(is_solved) AS is_solved, BOOL_OR(is_favorited) AS is_favorited
+FROM public.user_problem_status
+GROUP BY user_id, problem_id;
+
+DELETE FROM public.user_problem_status;
+
+INSERT INTO public.user_problem_status (user_id, problem_id, is_solved, is_favorited)
+SELECT user_id, problem_id, is_solved, is_favorited
+FROM user_problem_status_dedup;
+
+DROP TABLE user_problem_status_dedup;
+
+ALTER TABLE public.user_problem_status
+    ADD CONSTRAINT user_problem_status_pkey PRIMARY KEY (user_id, problem_id);
+
+-- Latest submission / evaluation history for a (user, problem), newest first
+CREATE INDEX IF NOT EXISTS idx_submissions_user_problem_created
+    ON public.submissions (user_id, problem_id, created_at DESC);
+
+-- evaluations(submission_id) needs no index of its own: the UNIQUE (submission_id, version)
+-- constraint from V1 already indexes it as the leading column
+
+-- Problem detail loads its examples and constraints by problem
+CREATE INDEX IF NOT EXISTS idx_examples_problem
+    ON public.examples (problem_id);
+CREATE INDEX IF NOT EXISTS idx_constraints_problem
+    ON public.constraints (problem_id);
+
+-- user_leetcode_profiles had no keys either, so keep only the most recently refreshed row per id,
+-- then per user and per LeetCode username, before adding them (the others are stale copies the
+-- app could not tell apart anyway); a missing last_updated counts as oldest, ties go to the higher id
+CREATE TABLE user_leetcode_profiles_dedup AS
+SELECT id, user_id, leetcode_username, total_solved, easy_solved, medium_solved, hard_solved,
+       last_updated, submission_heatmap, stats_history,
+       ROW_NUMBER() OVER (PARTITION BY id ORDER BY last_updated DESC NULLS LAST) AS id_rank
+FROM public.user_leetcode_profiles;
+
+DELETE FROM user_leetcode_profiles_dedup WHERE id_rank > 1;
+
+DELETE FROM user_leetcode_profiles_dedup d
+WHERE EXISTS (
+    SELECT 1 FROM user_leetcode_profiles_dedup o
+    WHERE o.user_id = d.user_id
+      AND (COALESCE(o.last_updated, TIMESTAMP '1970-01-01 00:00:00') > COALESCE(d.last_updated, TIMESTAMP '1970-01-01 00:00:00')
+        OR (COALESCE(o.last_updated, TIMESTAMP '1970-01-01 00:00:00') = COALESCE(d.last_updated, TIMESTAMP '1970-01-01 00:00:00')
+            AND o.id > d.id)));
+
+DELETE FROM user_leetcode_profiles_dedup d
+WHERE EXISTS (
+    SELECT 1 FROM user_leetcode_profiles_dedup o
+    WHERE o.leetcode_username = d.leetcode_username
+      AND (COALESCE(o.last_updated, TIMESTAMP '1970-01-01 00:00:00') > COALESCE(d.last_updated, TIMESTAMP '1970-01-01 00:00:00')
+        OR (COALESCE(o.last_updated, TIMESTAMP '1970-01-01 00:00:00') = COALESCE(d.last_updated, TIMESTAMP '1970-01-01 00:00:00')
+            AND o.id > d.id)));
+
+DELETE FROM public.user_leetcode_profiles;
+
+INSERT INTO public.user_leetcode_profiles (id, user_id, leetcode_username, total_solved, easy_solved, medium_solved,
+                                           hard_solved, last_updated, submission_heatmap, stats_history)
+SELECT id, user_id, leetcode_username, total_solved, easy_solved, medium_solved,
+       hard_solved, last_updated, submission_heatmap, stats_history
+FROM user_leetcode_profiles_dedup;
+
+DROP TABLE user_leetcode_profiles_dedup;
+
+-- The background refresher updates profiles by id
+ALTER TABLE public.user_leetcode_profiles
+    ADD CONSTRAINT user_leetcode_profiles_pkey PRIMARY KEY (id);
+
+-- One LeetCode profile per user and per LeetCode username, as the entity declares
+CREATE UNIQUE INDEX IF NOT EXISTS uq_user_leetcode_profiles_user
+    ON public.user_leetcode_profiles (user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_user_leetcode_profiles_username
+    ON public.user_leetcode_profiles (leetcode_username);
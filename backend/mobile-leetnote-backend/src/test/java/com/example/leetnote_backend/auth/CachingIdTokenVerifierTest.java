@@ -0,0 +1,112 @@
+package com.example.leetnote_backend.auth;
+
+import com.example.leetnote_backend.exception.UnauthorizedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingIdTokenVerifierTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private MutableClock clock;
+    private AtomicInteger verifications;
+    private CachingIdTokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        verifications = new AtomicInteger();
+        // Tokens look like "<uid>:<seconds until exp>"; anything else is rejected
+        IdTokenVerifier delegate = token -> {
+            verifications.incrementAndGet();
+            String[] parts = token.split(":");
+            if (parts.length != 2) {
+                throw new UnauthorizedException("Invalid token");
+            }
+            Instant expiresAt = NOW.plusSeconds(Long.parseLong(parts[1]));
+            if (!expiresAt.isAfter(clock.instant())) {
+                throw new UnauthorizedException("Token expired");
+            }
+            return new VerifiedToken(parts[0], parts[0] + "@example.com", expiresAt);
+        };
+        verifier = new CachingIdTokenVerifier(delegate, 100, clock);
+    }
+
+    @Test
+    @DisplayName("a repeat token is served from the cache")
+    void verify_repeatTokenIsCached() {
+        VerifiedToken first = verifier.verify("alice:3600");
+        VerifiedToken second = verifier.verify("alice:3600");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(verifications.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a cached token stops being accepted once it expires")
+    void verify_expiredTokenIsRejected() {
+        verifier.verify("alice:60");
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertThatThrownBy(() -> verifier.verify("alice:60")).isInstanceOf(UnauthorizedException.class);
+        assertThat(verifications.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("rejected tokens are not cached")
+    void verify_failuresAreNotCached() {
+        assertThatThrownBy(() -> verifier.verify("garbage")).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> verifier.verify("garbage")).isInstanceOf(UnauthorizedException.class);
+
+        assertThat(verifications.get()).isEqualTo(2);
+        assertThat(verifier.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("the cache stays within its size bound")
+    void verify_bounded() {
+        for (int i = 0; i < 500; i++) {
+            verifier.verify("user" + i + ":3600");
+        }
+
+        assertThat(verifier.size()).isLessThanOrEqualTo(100);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}
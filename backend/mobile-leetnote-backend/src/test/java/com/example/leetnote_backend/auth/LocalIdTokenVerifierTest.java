@@ -0,0 +1,77 @@
+package com.example.leetnote_backend.auth;
+
+import com.example.leetnote_backend.exception.UnauthorizedException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalIdTokenVerifierTest {
+
+    private static LocalIdTokenVerifier verifier;
+
+    @BeforeAll
+    static void setUp() {
+        verifier = LocalIdTokenVerifier.withGeneratedKey("leetnote-test");
+    }
+
+    @Test
+    @DisplayName("issued tokens verify to their claims")
+    void verify_roundTrip() {
+        String token = verifier.issue("firebase-123", "test@example.com", Duration.ofHours(1));
+
+        VerifiedToken verified = verifier.verify(token);
+
+        assertThat(verified.uid()).isEqualTo("firebase-123");
+        assertThat(verified.email()).isEqualTo("test@example.com");
+    }
+
+    @Test
+    @DisplayName("tampered payloads fail the signature check")
+    void verify_tampered() {
+        String token = verifier.issue("firebase-123", "test@example.com", Duration.ofHours(1));
+        String[] parts = token.split("\\.");
+        String forged = verifier.issue("firebase-999", "evil@example.com", Duration.ofHours(1)).split("\\.")[1];
+
+        assertThatThrownBy(() -> verifier.verify(parts[0] + "." + forged + "." + parts[2]))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    @DisplayName("tokens from another key or project are rejected")
+    void verify_foreignToken() {
+        String foreign = LocalIdTokenVerifier.withGeneratedKey("leetnote-test")
+                .issue("firebase-123", "test@example.com", Duration.ofHours(1));
+
+        assertThatThrownBy(() -> verifier.verify(foreign)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> verifier.verify("not-a-jwt")).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> verifier.verify(null)).isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    @DisplayName("expired tokens are rejected")
+    void verify_expired() {
+        String token = verifier.issue("firebase-123", "test@example.com", Duration.ofSeconds(-1));
+
+        assertThatThrownBy(() -> verifier.verify(token))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    @DisplayName("a verifier given only the public key accepts the issuer's tokens but cannot issue")
+    void verify_publicKeyOnly() {
+        LocalIdTokenVerifier verifyOnly = new LocalIdTokenVerifier(
+                LocalIdTokenVerifier.decodePublicKey(verifier.encodedPublicKey()), "leetnote-test", Clock.systemUTC());
+        String token = verifier.issue("firebase-123", "test@example.com", Duration.ofHours(1));
+
+        assertThat(verifyOnly.verify(token).uid()).isEqualTo("firebase-123");
+        assertThatThrownBy(() -> verifyOnly.issue("firebase-123", "test@example.com", Duration.ofHours(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
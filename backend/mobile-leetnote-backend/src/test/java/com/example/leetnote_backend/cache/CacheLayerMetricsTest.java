@@ -0,0 +1,56 @@
+package com.example.leetnote_backend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CacheLayerMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager("problemDetails", "users");
+        cacheManager = new TwoLevelCacheManager(
+                remote,
+                Map.of("problemDetails", new L1CacheSpec(Duration.ofMinutes(1), 100)),
+                mock(StringRedisTemplate.class));
+        new CacheLayerMetrics(cacheManager).bindTo(registry);
+    }
+
+    @Test
+    @DisplayName("near-cache hits and misses are published per cache")
+    void bindTo_l1HitsAndMisses() {
+        Cache cache = cacheManager.getCache("problemDetails");
+
+        cache.get("1_1");
+        cache.put("1_1", "detail");
+        cache.get("1_1");
+        cache.get("1_1");
+
+        assertThat(registry.get("cache.gets").tags("cache", "problemDetails", "layer", "l1", "result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tags("cache", "problemDetails", "layer", "l1", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").tags("cache", "problemDetails", "layer", "l1")
+                .gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("caches without a near-cache or Redis backing publish no layer meters")
+    void bindTo_plainRemoteCache() {
+        assertThat(registry.find("cache.gets").tag("cache", "users").meters()).isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.leetnote_backend.cache;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservedCacheManagerTest {
+
+    private final List<Observation.Context> stopped = new ArrayList<>();
+    private ObservationRegistry observationRegistry;
+    private ConcurrentMapCacheManager delegate;
+    private ObservedCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+        });
+        delegate = new ConcurrentMapCacheManager("problemDetails");
+        cacheManager = new ObservedCacheManager(delegate, observationRegistry);
+    }
+
+    @Test
+    @DisplayName("each lookup is observed with the cache name and hit or miss")
+    void get_observedAsHitOrMiss() {
+        Cache cache = cacheManager.getCache("problemDetails");
+        assertThat(cache).isSameAs(cacheManager.getCache("problemDetails"));
+        assertThat(cacheManager.getCache("unknown")).isNull();
+
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, "Two Sum");
+        assertThat(cache.get(1L).get()).isEqualTo("Two Sum");
+        // Writes pass straight through
+        assertThat(delegate.getCache("problemDetails").get(1L).get()).isEqualTo("Two Sum");
+
+        assertThat(stopped).hasSize(2);
+        assertThat(stopped).allSatisfy(context -> {
+            assertThat(context.getName()).isEqualTo(ObservedCacheManager.OBSERVATION_NAME);
+            assertThat(context.getLowCardinalityKeyValue("cache").getValue()).isEqualTo("problemDetails");
+            assertThat(context.getHighCardinalityKeyValue("cache.key").getValue()).isEqualTo("1");
+        });
+        assertThat(stopped).extracting(context -> context.getLowCardinalityKeyValue("result"))
+                .containsExactly(KeyValue.of("result", "miss"), KeyValue.of("result", "hit"));
+    }
+
+    @Test
+    @DisplayName("a synchronized lookup runs its loader inside the observation")
+    void getWithLoader_loaderIsChild() {
+        Cache cache = cacheManager.getCache("problemDetails");
+        AtomicReference<Observation> loadingUnder = new AtomicReference<>();
+
+        assertThat(cache.get(2L, () -> {
+            loadingUnder.set(observationRegistry.getCurrentObservation());
+            return "Add Two Numbers";
+        })).isEqualTo("Add Two Numbers");
+        assertThat(cache.get(2L, () -> "not called")).isEqualTo("Add Two Numbers");
+
+        assertThat(loadingUnder.get()).isNotNull();
+        assertThat(loadingUnder.get().getContext()).isSameAs(stopped.get(0));
+        assertThat(stopped).extracting(context -> context.getLowCardinalityKeyValue("result").getValue())
+                .containsExactly("miss", "hit");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.leetnote_backend.cache;
+
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.SolutionDTO;
+import com.example.leetnote_backend.model.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SmileRedisSerializerTest {
+
+    @Test
+    void roundTrip_problemDetail() {
+        SmileRedisSerializer<ProblemDetailDTO> serializer = new SmileRedisSerializer<>(ProblemDetailDTO.class, 1024);
+        ProblemDetailDTO detail = new ProblemDetailDTO(1L, "Two Sum", "Easy", "desc", true, false,
+                new SolutionDTO("Hash map", "code", "O(n)", "O(n)"));
+
+        byte[] bytes = serializer.serialize(detail);
+        ProblemDetailDTO result = serializer.deserialize(bytes);
+
+        assertThat(bytes[0]).isEqualTo(SmileRedisSerializer.FORMAT_RAW);
+        assertThat(result.getTitle()).isEqualTo("Two Sum");
+        assertThat(result.isFavorite()).isTrue();
+        assertThat(result.getSolution().getTimeComplexity()).isEqualTo("O(n)");
+    }
+
+    @Test
+    void roundTrip_largePayloadIsCompressed() {
+        SmileRedisSerializer<ProblemDetailDTO> serializer = new SmileRedisSerializer<>(ProblemDetailDTO.class, 256);
+        String description = "Return indices of the two numbers such that they add up to target. ".repeat(50);
+        ProblemDetailDTO detail = new ProblemDetailDTO(1L, "Two Sum", "Easy", description, false, true, null);
+
+        byte[] bytes = serializer.serialize(detail);
+
+        assertThat(bytes[0]).isEqualTo(SmileRedisSerializer.FORMAT_LZ4);
+        assertThat(bytes.length).isLessThan(description.length());
+        assertThat(serializer.deserialize(bytes).getDescription()).isEqualTo(description);
+    }
+
+    @Test
+    void roundTrip_page() {
+        PageRedisSerializer<ProblemListDTO> serializer = new PageRedisSerializer<>(ProblemListDTO.class, 1024);
+        Page<ProblemListDTO> page = new PageImpl<>(
+                List.of(new ProblemListDTO(1L, "Two Sum", "Easy", true, false)),
+                PageRequest.of(2, 20),
+                41
+        );
+
+        Page<ProblemListDTO> result = serializer.deserialize(serializer.serialize(page));
+
+        assertThat(result.getNumber()).isEqualTo(2);
+        assertThat(result.getSize()).isEqualTo(20);
+        assertThat(result.getTotalElements()).isEqualTo(41);
+        assertThat(result.getContent().get(0).getTitle()).isEqualTo("Two Sum");
+        assertThat(result.getContent().get(0).isFavorite()).isTrue();
+    }
+
+    @Test
+    void roundTrip_userWithTimestamp() {
+        SmileRedisSerializer<User> serializer = new SmileRedisSerializer<>(User.class, 1024);
+        User user = new User(1L, "uid", "name", "a@b.c", LocalDateTime.of(2024, 1, 2, 3, 4), null);
+
+        User result = serializer.deserialize(serializer.serialize(user));
+
+        assertThat(result.getCreatedAt()).isEqualTo(user.getCreatedAt());
+        assertThat(result.getFirebaseUid()).isEqualTo("uid");
+    }
+
+    @Test
+    void deserialize_rejectsOversizedOrCorruptLz4() {
+        SmileRedisSerializer<ProblemDetailDTO> serializer = new SmileRedisSerializer<>(ProblemDetailDTO.class, 256);
+        byte[] valid = serializer.serialize(new ProblemDetailDTO(1L, "Two Sum", "Easy",
+                "Return indices of the two numbers such that they add up to target. ".repeat(50), false, true, null));
+
+        byte[] huge = valid.clone();
+        ByteBuffer.wrap(huge, 1, 4).putInt(Integer.MAX_VALUE);
+        assertThatThrownBy(() -> serializer.deserialize(huge)).isInstanceOf(SerializationException.class);
+
+        byte[] truncated = Arrays.copyOf(valid, valid.length / 2);
+        assertThatThrownBy(() -> serializer.deserialize(truncated)).isInstanceOf(SerializationException.class);
+
+        assertThatThrownBy(() -> serializer.deserialize(new byte[]{SmileRedisSerializer.FORMAT_LZ4, 0, 0}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void deserialize_legacyJsonValueIsAMiss() {
+        byte[] legacy = new GenericJackson2JsonRedisSerializer()
+                .serialize(new ProblemListDTO(1L, "Two Sum", "Easy", false, false));
+
+        assertThat(new SmileRedisSerializer<>(ProblemDetailDTO.class, 1024).deserialize(legacy)).isNull();
+    }
+}
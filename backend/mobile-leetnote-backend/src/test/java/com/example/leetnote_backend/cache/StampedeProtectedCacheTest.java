@@ -0,0 +1,215 @@
+package com.example.leetnote_backend.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StampedeProtectedCacheTest {
+
+    private ConcurrentMapCache shared;
+    private InMemoryLeases leases;
+    private ExecutorService herd;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // One backing store and one lease table shared by two "instances"
+        shared = new ConcurrentMapCache("problemDetails", false);
+        leases = new InMemoryLeases();
+        herd = Executors.newFixedThreadPool(32);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        herd.shutdownNow();
+    }
+
+    private StampedeProtectedCache instance(Duration ttl, double beta, Executor refreshExecutor) {
+        return new StampedeProtectedCache(shared, leases, ttl, Duration.ofSeconds(2), beta, refreshExecutor, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("a thundering herd across two instances runs the loader once per key")
+    void syncLoad_thunderingHerd_singleLoader() throws Exception {
+        StampedeProtectedCache first = instance(Duration.ZERO, 1.0, Runnable::run);
+        StampedeProtectedCache second = instance(Duration.ZERO, 1.0, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            Thread.sleep(200);
+            return "detail";
+        };
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Cache cache = i % 2 == 0 ? first : second;
+            results.add(herd.submit(() -> {
+                start.await();
+                return cache.get("1_1", loader);
+            }));
+        }
+        start.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("detail");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.load").tag("result", "success").timer().count()).isEqualTo(1);
+        // Callers that started after the value landed are plain hits, so only a lower bound is exact
+        assertThat(meterRegistry.get("cache.load.coalesced").counter().count()).isGreaterThanOrEqualTo(31);
+    }
+
+    @Test
+    @DisplayName("plain lookups pass through, so a miss that is never put does not stall the next caller")
+    void plainLookup_missWithoutPut_doesNotBlock() {
+        StampedeProtectedCache cache = instance(Duration.ZERO, 1.0, Runnable::run);
+
+        // What @Cacheable does without sync when the method throws: get, miss, no put
+        assertThat(cache.get("page_0")).isNull();
+        long startNanos = System.nanoTime();
+        assertThat(cache.get("page_0")).isNull();
+        assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofMillis(500));
+
+        cache.put("page_0", "page");
+        assertThat(cache.get("page_0").get()).isEqualTo("page");
+        assertThat(cache.get("page_0", String.class)).isEqualTo("page");
+        // No lease was taken, so a synchronized load elsewhere is not held up either
+        assertThat(leases.held).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a failing loader propagates its error to waiting callers")
+    void syncLoad_failurePropagates() {
+        StampedeProtectedCache cache = instance(Duration.ZERO, 1.0, Runnable::run);
+
+        assertThatThrownBy(() -> cache.get("1_1", () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("cache.load").tag("result", "failure").timer().count()).isEqualTo(1);
+
+        // The failed flight does not block the next load
+        assertThat(cache.get("1_1", () -> "detail")).isEqualTo("detail");
+    }
+
+    @Test
+    @DisplayName("hot keys near expiry are refreshed in the background while callers keep the old value")
+    void syncLoad_earlyRefresh() throws Exception {
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        try {
+            // A huge beta makes the refresh certain once a compute time has been recorded
+            StampedeProtectedCache cache = instance(Duration.ofMinutes(10), 1e12, refresher);
+            AtomicInteger version = new AtomicInteger();
+            Callable<Integer> loader = () -> {
+                Thread.sleep(5);
+                return version.incrementAndGet();
+            };
+
+            assertThat(cache.get("hot", loader)).isEqualTo(1);
+            assertThat(cache.get("hot", loader)).isEqualTo(1);
+
+            refresher.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            assertThat(shared.get("hot").get()).isEqualTo(2);
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("early refreshes run the loader inside their own transaction")
+    void syncLoad_earlyRefreshInTransaction() throws Exception {
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        ThreadLocal<Boolean> inTransaction = ThreadLocal.withInitial(() -> false);
+        TransactionOperations transaction = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                inTransaction.set(true);
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    inTransaction.remove();
+                }
+            }
+        };
+        try {
+            StampedeProtectedCache cache = new StampedeProtectedCache(shared, leases, Duration.ofMinutes(10),
+                    Duration.ofSeconds(2), 1e12, refresher, transaction, meterRegistry);
+            List<Boolean> transactional = new CopyOnWriteArrayList<>();
+            Callable<String> loader = () -> {
+                Thread.sleep(5);
+                transactional.add(inTransaction.get());
+                return "detail";
+            };
+
+            cache.get("hot", loader);
+            cache.get("hot", loader);
+
+            refresher.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            // The caller's own load is left to its @Transactional; only the refresh opens one
+            assertThat(transactional).containsExactly(false, true);
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("a null result reaches the caller without being stored")
+    void syncLoad_nullIsNotStored() {
+        ConcurrentMapCache rejectsNulls = new ConcurrentMapCache("userLeetcodeStats", false);
+        StampedeProtectedCache cache = new StampedeProtectedCache(rejectsNulls, leases, Duration.ZERO,
+                Duration.ofSeconds(2), 1.0, Runnable::run, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.<String>get("7", () -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(rejectsNulls.get("7")).isNull();
+
+        assertThat(cache.get("7", () -> "stats")).isEqualTo("stats");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("early refresh is off for caches without a TTL")
+    void shouldRefreshEarly_withoutTtl() {
+        StampedeProtectedCache cache = instance(Duration.ZERO, 1e12, Runnable::run);
+        cache.get("key", () -> "value");
+
+        assertThat(cache.shouldRefreshEarly("key")).isFalse();
+    }
+
+    private static final class InMemoryLeases implements CacheLeases {
+        private final Map<String, String> held = new ConcurrentHashMap<>();
+
+        @Override
+        public String tryAcquire(String leaseKey, Duration leaseTime) {
+            String token = UUID.randomUUID().toString();
+            return held.putIfAbsent(leaseKey, token) == null ? token : null;
+        }
+
+        @Override
+        public void release(String leaseKey, String token) {
+            held.remove(leaseKey, token);
+        }
+    }
+}
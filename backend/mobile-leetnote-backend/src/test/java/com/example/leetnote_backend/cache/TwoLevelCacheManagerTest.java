@@ -0,0 +1,121 @@
+package com.example.leetnote_backend.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("problemDetails", "users");
+        cacheManager = new TwoLevelCacheManager(
+                remoteCacheManager,
+                Map.of("problemDetails", new L1CacheSpec(Duration.ofMinutes(1), 100)),
+                redisTemplate
+        );
+    }
+
+    @Test
+    @DisplayName("caches without an L1 spec are plain remote caches")
+    void getCache_withoutSpec_returnsRemote() {
+        assertThat(cacheManager.getCache("users")).isSameAs(remoteCacheManager.getCache("users"));
+        assertThat(cacheManager.getCache("problemDetails")).isInstanceOf(TwoLevelCache.class);
+        assertThat(cacheManager.getCache("problemDetails")).isSameAs(cacheManager.getCache("problemDetails"));
+    }
+
+    @Test
+    @DisplayName("a remote hit is kept locally and later reads skip the remote cache")
+    void get_populatesLocalFromRemote() {
+        remoteCacheManager.getCache("problemDetails").put("1_1", "detail");
+        Cache cache = cacheManager.getCache("problemDetails");
+
+        assertThat(cache.get("1_1").get()).isEqualTo("detail");
+
+        // Remove it from Redis behind the near-cache's back; L1 still answers
+        remoteCacheManager.getCache("problemDetails").evict("1_1");
+        assertThat(cache.get("1_1").get()).isEqualTo("detail");
+    }
+
+    @Test
+    @DisplayName("loader results are written to both levels")
+    void getWithLoader_writesBothLevels() {
+        Cache cache = cacheManager.getCache("problemDetails");
+
+        assertThat(cache.get(7L, () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get(7L, () -> "reloaded")).isEqualTo("loaded");
+        assertThat(remoteCacheManager.getCache("problemDetails").get(7L).get()).isEqualTo("loaded");
+    }
+
+    @Test
+    @DisplayName("evict and clear are broadcast to other instances")
+    void evictAndClear_arePublished() {
+        Cache cache = cacheManager.getCache("problemDetails");
+        cache.put(7L, "detail");
+        cache.evict(7L);
+        cache.clear();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(3)).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), payload.capture());
+        assertThat(payload.getAllValues().get(1)).endsWith("\tE\tproblemDetails\t7");
+        assertThat(payload.getAllValues().get(2)).endsWith("\tC\tproblemDetails");
+        assertThat(cache.get(7L)).isNull();
+    }
+
+    @Test
+    @DisplayName("invalidations from another instance drop the local entry only")
+    void onMessage_fromOtherInstance_evictsLocal() {
+        Cache cache = cacheManager.getCache("problemDetails");
+        cache.put(7L, "stale");
+        remoteCacheManager.getCache("problemDetails").put(7L, "fresh");
+
+        cacheManager.onMessage(message("other-instance\tE\tproblemDetails\t7"), null);
+
+        assertThat(cache.get(7L).get()).isEqualTo("fresh");
+    }
+
+    @Test
+    @DisplayName("invalidations published by this instance are ignored")
+    void onMessage_fromSelf_isIgnored() {
+        Cache cache = cacheManager.getCache("problemDetails");
+        cache.put(7L, "local");
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), payload.capture());
+        remoteCacheManager.getCache("problemDetails").put(7L, "remote");
+
+        String ownInstanceId = payload.getValue().split("\t")[0];
+        cacheManager.onMessage(message(ownInstanceId + "\tC\tproblemDetails"), null);
+
+        assertThat(cache.get(7L).get()).isEqualTo("local");
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+                TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
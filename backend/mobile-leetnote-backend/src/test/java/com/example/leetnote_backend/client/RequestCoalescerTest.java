@@ -0,0 +1,116 @@
+package com.example.leetnote_backend.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    private Map<String, String> upperCase(List<String> keys) {
+        batches.add(keys);
+        Map<String, String> results = new HashMap<>();
+        for (String key : keys) {
+            if (!key.startsWith("missing")) {
+                results.put(key, key.toUpperCase());
+            }
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("concurrent lookups within the window share one batch call")
+    void get_coalescesConcurrentCallers() throws Exception {
+        RequestCoalescer<String, String> coalescer =
+                new RequestCoalescer<>(this::upperCase, Duration.ofMillis(200), 50);
+
+        List<String> keys = List.of("a", "b", "c", "a", "missing-d");
+        List<String> results = runConcurrently(coalescer, keys);
+
+        assertThat(results).containsExactly("A", "B", "C", "A", null);
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder("a", "b", "c", "missing-d");
+    }
+
+    @Test
+    @DisplayName("a full batch is dispatched immediately without waiting for the window")
+    void get_dispatchesFullBatchEarly() throws Exception {
+        RequestCoalescer<String, String> coalescer =
+                new RequestCoalescer<>(this::upperCase, Duration.ofSeconds(10), 2);
+
+        long started = System.nanoTime();
+        List<String> results = runConcurrently(coalescer, List.of("a", "b"));
+
+        assertThat(results).containsExactly("A", "B");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(5_000);
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("a loader failure reaches every caller in the batch")
+    void get_propagatesLoaderFailure() {
+        RequestCoalescer<String, String> coalescer = new RequestCoalescer<>(keys -> {
+            throw new IllegalStateException("upstream down");
+        }, Duration.ofMillis(10), 10);
+
+        assertThatThrownBy(() -> coalescer.get("a"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("upstream down");
+    }
+
+    @Test
+    @DisplayName("a zero window calls the loader directly for each key")
+    void get_unbatchedWithZeroWindow() {
+        RequestCoalescer<String, String> coalescer = new RequestCoalescer<>(this::upperCase, Duration.ZERO, 10);
+
+        assertThat(coalescer.get("a")).isEqualTo("A");
+        assertThat(coalescer.get("b")).isEqualTo("B");
+        assertThat(batches).containsExactly(List.of("a"), List.of("b"));
+    }
+
+    private static List<String> runConcurrently(RequestCoalescer<String, String> coalescer, List<String> keys)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(keys.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (String key : keys) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    return coalescer.get(key);
+                }, pool));
+            }
+            start.countDown();
+            List<String> results = new ArrayList<>();
+            for (CompletableFuture<String> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.leetnote_backend.controller;
+
+import com.example.leetnote_backend.config.DatabaseInstrumentationConfig;
+import com.example.leetnote_backend.config.UserPrincipal;
+import com.example.leetnote_backend.db.QueryBudgetFilter;
+import com.example.leetnote_backend.db.QueryBudgetFilter.QueryBudgetExceededException;
+import com.example.leetnote_backend.db.QueryStats;
+import com.example.leetnote_backend.service.EvaluationService;
+import com.example.leetnote_backend.service.TogetherAiService;
+import com.example.leetnote_backend.util.PromptBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Evaluation endpoints against a real (embedded) database with statement instrumentation on,
+ * so N+1 regressions show up as query counts and budget failures
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:querybudget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DatabaseInstrumentationConfig.class, EvaluationService.class})
+public class EvaluationQueryBudgetTest {
+
+    @Autowired
+    private EvaluationService evaluationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private TogetherAiService togetherAiService;
+
+    @MockitoBean
+    private PromptBuilder promptBuilder;
+
+    @BeforeEach
+    void authenticate() {
+        UserPrincipal principal = new UserPrincipal(1L, "firebase-1", "one@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+        jdbcTemplate.update("INSERT INTO users (id, firebase_uid, username, email, created_at) "
+                + "VALUES (1, 'firebase-1', 'one', 'one@example.com', CURRENT_TIMESTAMP)");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testEvaluationListQueryCountDoesNotGrowWithRows() throws Exception {
+        MockMvc mockMvc = mockMvc(new QueryBudgetFilter(new SimpleMeterRegistry(), 30, 5, true));
+
+        seedEvaluations(1);
+        int single = countQueries(mockMvc, 1);
+
+        seedEvaluations(12);
+        int many = countQueries(mockMvc, 12);
+
+        assertThat(many).isEqualTo(single).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testOverBudgetRequestFailsWhenEnforced() {
+        seedEvaluations(3);
+        // Nothing fits in a budget of zero
+        MockMvc mockMvc = mockMvc(new QueryBudgetFilter(new SimpleMeterRegistry(), 0, 5, true));
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/evaluations/new").param("problemId", "1")))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("GET /evaluations/new executed")
+                .hasMessageContaining("budget is 0");
+    }
+
+    private int countQueries(MockMvc mockMvc, int expectedRows) throws Exception {
+        try (QueryStats stats = QueryStats.open()) {
+            mockMvc.perform(get("/evaluations/all"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(expectedRows))
+                    .andExpect(jsonPath("$[0].problemTitle").isNotEmpty());
+            return stats.getCount();
+        }
+    }
+
+    private MockMvc mockMvc(QueryBudgetFilter filter) {
+        return MockMvcBuilders.standaloneSetup(new EvaluationController(evaluationService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .addFilters(filter)
+                .build();
+    }
+
+    /**
+     * One problem, submission and evaluation per row, continuing from what is already there
+     */
+    private void seedEvaluations(int total) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM problems", Integer.class);
+        for (int id = existing + 1; id <= total; id++) {
+            jdbcTemplate.update("INSERT INTO problems (id, title, slug, difficulty, description) VALUES (?, ?, ?, 'Easy', '...')",
+                    id, "Problem " + id, "problem-" + id);
+            jdbcTemplate.update("INSERT INTO submissions (id, user_id, problem_id, solution_text) VALUES (?, 1, ?, 'x')",
+                    id, id);
+            jdbcTemplate.update("INSERT INTO evaluations (id, user_id, submission_id, version, created_at) "
+                    + "VALUES (?, 1, ?, 1, CURRENT_TIMESTAMP)", id, id);
+        }
+    }
+}
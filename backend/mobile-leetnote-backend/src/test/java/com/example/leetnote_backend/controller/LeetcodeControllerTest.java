@@ -2,7 +2,9 @@ package com.example.leetnote_backend.controller;
 
 import com.example.leetnote_backend.config.FirebaseAuthenticationFilter;
 import com.example.leetnote_backend.config.UserPrincipal;
+import com.example.leetnote_backend.model.DTO.HeatmapDTO;
 import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.model.DTO.StatsHistoryDTO;
 import com.example.leetnote_backend.service.LeetcodeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -18,6 +20,9 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneOffset;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -192,4 +197,61 @@ public class LeetcodeControllerTest {
                 .andExpect(jsonPath("$.mediumSolved").value(0))
                 .andExpect(jsonPath("$.hardSolved").value(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getHeatmap_ReturnsDenseCountsForRequestedYear() throws Exception {
+        int[] counts = new int[366];
+        counts[0] = 2;
+        counts[59] = 5;
+        when(leetcodeService.getHeatmap(1L, 2024))
+                .thenReturn(new HeatmapDTO("testuser", 2024, counts, 7, 2, 5));
+
+        mockMvc.perform(get("/api/leetcode/heatmap")
+                        .param("year", "2024")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.year").value(2024))
+                .andExpect(jsonPath("$.counts.length()").value(366))
+                .andExpect(jsonPath("$.counts[59]").value(5))
+                .andExpect(jsonPath("$.totalSubmissions").value(7))
+                .andExpect(jsonPath("$.activeDays").value(2));
+    }
+
+    @Test
+    void getHeatmap_DefaultsToCurrentYear() throws Exception {
+        int year = Year.now(ZoneOffset.UTC).getValue();
+        when(leetcodeService.getHeatmap(1L, year))
+                .thenReturn(new HeatmapDTO("testuser", year, new int[Year.of(year).length()], 0, 0, 0));
+
+        mockMvc.perform(get("/api/leetcode/heatmap")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.year").value(year));
+    }
+
+    @Test
+    void getStatsHistory_ReturnsSeriesForDateRange() throws Exception {
+        Instant from = Instant.parse("2025-01-01T00:00:00Z");
+        Instant to = Instant.parse("2025-01-31T23:59:59Z");
+        when(leetcodeService.getStatsHistory(1L, from, to)).thenReturn(new StatsHistoryDTO("testuser",
+                new long[]{1735689600L, 1736294400L}, new int[]{10, 12}, new int[]{5, 6},
+                new int[]{3, 4}, new int[]{2, 2}));
+
+        mockMvc.perform(get("/api/leetcode/history")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.timestamps.length()").value(2))
+                .andExpect(jsonPath("$.totalSolved[1]").value(12));
+    }
+
+    @Test
+    void getStatsHistory_Returns400_WhenRangeIsInverted() throws Exception {
+        mockMvc.perform(get("/api/leetcode/history")
+                        .param("from", "2025-02-01")
+                        .param("to", "2025-01-01")
+                        .with(authenticated()))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -4,7 +4,11 @@ import com.example.leetnote_backend.config.FirebaseAuthenticationFilter;
 import com.example.leetnote_backend.config.UserPrincipal;
 import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
 import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.ProblemStatusUpdateRequest;
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
 import com.example.leetnote_backend.service.ProblemService;
+import com.example.leetnote_backend.service.ProblemStatusWriteBuffer;
+import com.example.leetnote_backend.service.ProblemViewTracker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,6 +16,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,9 +27,12 @@ import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -42,6 +50,12 @@ public class ProblemControllerTest {
     @MockitoBean
     private ProblemService problemService;
 
+    @MockitoBean
+    private ProblemStatusWriteBuffer problemStatusWriteBuffer;
+
+    @MockitoBean
+    private ProblemViewTracker problemViewTracker;
+
     @MockitoBean
     private FirebaseAuthenticationFilter firebaseAuthenticationFilter;
 
@@ -93,6 +107,8 @@ public class ProblemControllerTest {
                 .andExpect(jsonPath("$.description").value("Find indices..."))
                 .andExpect(jsonPath("$.solved").value(false))
                 .andExpect(jsonPath("$.favorite").value(false));
+
+        verify(problemViewTracker).recordView(1L);
     }
 
     @Test
@@ -102,6 +118,8 @@ public class ProblemControllerTest {
         mockMvc.perform(get("/problems/1")
                         .with(authenticated()))
                 .andExpect(status().isNotFound());
+
+        verify(problemViewTracker, never()).recordView(any());
     }
 
     @Test
@@ -119,4 +137,41 @@ public class ProblemControllerTest {
                 .andExpect(jsonPath("$.solved").value(true))
                 .andExpect(jsonPath("$.favorite").value(true));
     }
+
+    @Test
+    void updateStatuses_ReturnsStagedProblems() throws Exception {
+        ProblemListDTO first = new ProblemListDTO(1L, "Two Sum", "Easy", false, true);
+        ProblemListDTO second = new ProblemListDTO(2L, "Add Two Numbers", "Medium", true, false);
+
+        when(problemService.updateProblemStatuses(eq(1L), any())).thenReturn(List.of(first, second));
+
+        mockMvc.perform(put("/problems/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"problemId\":1,\"solved\":true,\"favorite\":false}," +
+                                "{\"problemId\":2,\"solved\":false,\"favorite\":true}]")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].problemId").value(1L))
+                .andExpect(jsonPath("$[0].solved").value(true))
+                .andExpect(jsonPath("$[1].favorite").value(true));
+    }
+
+    @Test
+    void getProblemById_AppliesStagedStatus() throws Exception {
+        ProblemDetailDTO detail = new ProblemDetailDTO();
+        detail.setId(1L);
+        detail.setTitle("Two Sum");
+        detail.setSolved(false);
+        detail.setFavorite(false);
+
+        when(problemService.getProblemDetail(1L, 1L)).thenReturn(detail);
+        when(problemStatusWriteBuffer.pendingFor(1L))
+                .thenReturn(Map.of(1L, new UserProblemStatus(1L, 1L, true, true)));
+
+        mockMvc.perform(get("/problems/1")
+                        .with(authenticated()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.solved").value(true))
+                .andExpect(jsonPath("$.favorite").value(true));
+    }
 }
@@ -0,0 +1,256 @@
+package com.example.leetnote_backend.db;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReplicaLagMonitor lagMonitor;
+    private final AtomicReference<Object> currentUser = new AtomicReference<>(1L);
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.getState()).thenReturn(ReplicaLagMonitor.State.OK);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+                new ReadYourWrites(Duration.ofMinutes(1), 100, currentUser::get), 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the replica, everything else to the primary")
+    void getConnection_readOnlyToReplica() throws SQLException {
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+
+        beginTransaction(false);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        assertThat(routed("replica", "read")).isEqualTo(1);
+        assertThat(routed("primary", "read-write")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a user's reads stay on the primary after a committed write, other users still use the replica")
+    void getConnection_readYourWrites() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routed("primary", "read-your-writes")).isEqualTo(1);
+
+        currentUser.set(2L);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("read-your-writes windows are shared through Redis, including ones started off the request")
+    void getConnection_readYourWritesAcrossInstances() throws SQLException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.hasKey(ReadYourWrites.KEY_PREFIX + 3L)).thenReturn(true);
+        ReadYourWrites shared = new ReadYourWrites(Duration.ofMinutes(1), 100, currentUser::get, redisTemplate,
+                Duration.ZERO);
+        ReplicaRoutingDataSource otherInstance = new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+                shared, 1, meterRegistry);
+        beginTransaction(true);
+
+        // User 3 wrote through another instance
+        currentUser.set(3L);
+        assertThat(otherInstance.getConnection()).isSameAs(primaryConnection);
+        currentUser.set(4L);
+        assertThat(otherInstance.getConnection()).isSameAs(replicaConnection);
+
+        // Background writes name their users and are published as well
+        shared.recordWrites(List.of(4L));
+        assertThat(otherInstance.getConnection()).isSameAs(primaryConnection);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+
+        // Without Redis the local windows still apply
+        when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+        currentUser.set(3L);
+        assertThat(otherInstance.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("a user's \"no recent write\" from Redis is reused briefly, and a local write overrides it")
+    void getConnection_readYourWritesNegativeCache() throws SQLException {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ReadYourWrites shared = new ReadYourWrites(Duration.ofMinutes(1), 100, currentUser::get, redisTemplate,
+                Duration.ofMinutes(1));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor,
+                shared, 1, meterRegistry);
+        beginTransaction(true);
+
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        verify(redisTemplate, times(1)).hasKey(anyString());
+
+        shared.recordWrites(List.of(1L));
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("a rolled back write does not pin the user to the primary")
+    void getConnection_rollbackIsNotAWrite() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+        // afterCommit never runs
+
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("while the replica lags, fallback reads to the primary are capped and the permit returns on close")
+    void getConnection_lagFallbackCapped() throws SQLException {
+        when(lagMonitor.getState()).thenReturn(ReplicaLagMonitor.State.LAGGING);
+        beginTransaction(true);
+
+        Connection fallback = dataSource.getConnection();
+        when(primaryConnection.isReadOnly()).thenReturn(true);
+        assertThat(fallback.isReadOnly()).isTrue();
+        assertThat(dataSource.getAvailableFallbackPermits()).isZero();
+
+        // The cap is reached: the next read takes the stale replica rather than another primary connection
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        assertThat(routed("replica", "fallback-full")).isEqualTo(1);
+
+        fallback.close();
+        fallback.close();
+        verify(primaryConnection, times(2)).close();
+        assertThat(dataSource.getAvailableFallbackPermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("the admission limit covers primary checkouts only; replica reads do not take its slots")
+    void admitToPrimary_replicaReadsNotCounted() throws SQLException {
+        assertThat(dataSource.getPrimaryAdmission()).isNull();
+        dataSource.admitToPrimary(1, Duration.ofMillis(10));
+        AdmissionControlledDataSource admission = dataSource.getPrimaryAdmission();
+
+        beginTransaction(false);
+        Connection write = dataSource.getConnection();
+        assertThat(admission.getAvailablePermits()).isZero();
+
+        beginTransaction(true);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        assertThat(admission.getAvailablePermits()).isZero();
+
+        beginTransaction(false);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        write.close();
+        assertThat(admission.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a failed fallback checkout does not leak the permit")
+    void getConnection_lagFallbackFailure() throws SQLException {
+        when(lagMonitor.getState()).thenReturn(ReplicaLagMonitor.State.LAGGING);
+        when(primary.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        beginTransaction(true);
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(dataSource.getAvailableFallbackPermits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("reads go to the primary while the replica is down, and a failed replica checkout marks it down")
+    void getConnection_replicaDown() throws SQLException {
+        beginTransaction(true);
+        SQLException failure = new SQLException("connection refused");
+        when(replica.getConnection()).thenThrow(failure);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(lagMonitor).markDown(failure);
+
+        when(lagMonitor.getState()).thenReturn(ReplicaLagMonitor.State.DOWN);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replica, times(1)).getConnection();
+        assertThat(routed("primary", "replica-down")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("the lag monitor reports lag beyond the threshold and marks the replica down when the check fails")
+    void lagMonitor_states() throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.getDouble(1)).thenReturn(0.5, 3.0);
+
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(2));
+        assertThat(monitor.getState()).isEqualTo(ReplicaLagMonitor.State.DOWN);
+
+        monitor.check();
+        assertThat(monitor.getState()).isEqualTo(ReplicaLagMonitor.State.OK);
+
+        monitor.check();
+        assertThat(monitor.getState()).isEqualTo(ReplicaLagMonitor.State.LAGGING);
+        assertThat(monitor.getLagSeconds()).isEqualTo(3.0);
+
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.check();
+        assertThat(monitor.getState()).isEqualTo(ReplicaLagMonitor.State.DOWN);
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private double routed(String route, String reason) {
+        var counter = meterRegistry.find("db.routing").tag("route", route).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
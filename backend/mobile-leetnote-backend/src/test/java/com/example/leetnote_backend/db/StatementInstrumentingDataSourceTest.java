@@ -0,0 +1,152 @@
+package com.example.leetnote_backend.db;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.ScopedSpan;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class StatementInstrumentingDataSourceTest {
+
+    private SimpleMeterRegistry registry;
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(h2).execute("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(200))");
+    }
+
+    @Test
+    @DisplayName("statements are timed by operation and counted in the open scope, batches included")
+    void statements_timedAndCounted() {
+        JdbcTemplate jdbc = new JdbcTemplate(
+                new StatementInstrumentingDataSource(h2, () -> registry, Duration.ofSeconds(10)));
+
+        try (QueryStats stats = QueryStats.open()) {
+            jdbc.batchUpdate("INSERT INTO items (id, name) VALUES (?, ?)",
+                    List.of(new Object[]{1, "a"}, new Object[]{2, "b"}));
+            jdbc.queryForObject("SELECT name FROM items WHERE id = ?", String.class, 1);
+            jdbc.queryForObject("SELECT name FROM items WHERE id = ?", String.class, 2);
+
+            assertThat(stats.getCount()).isEqualTo(3);
+            assertThat(stats.mostRepeated()).hasValueSatisfying(repeated -> {
+                assertThat(repeated.getKey()).startsWith("SELECT name");
+                assertThat(repeated.getValue()).isEqualTo(2);
+            });
+        }
+
+        assertThat(registry.get("db.statement").tag("operation", "select").timer().count()).isEqualTo(2);
+        assertThat(registry.get("db.statement").tag("operation", "insert").timer().count()).isEqualTo(1);
+        assertThat(registry.find("db.statement.slow").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("slow statements are logged with their bind parameters")
+    void slowStatement_loggedWithParameters(CapturedOutput output) {
+        JdbcTemplate jdbc = new JdbcTemplate(
+                new StatementInstrumentingDataSource(h2, () -> registry, Duration.ZERO));
+
+        jdbc.update("INSERT INTO items (id, name) VALUES (?, ?)", 7, "x".repeat(150));
+        jdbc.update("UPDATE items SET name = ? WHERE id = ?", null, 7);
+
+        assertThat(output.getOut())
+                .contains("Slow statement")
+                .contains("INSERT INTO items (id, name) VALUES (?, ?) [1=7, 2='" + "x".repeat(99) + "...]")
+                .contains("UPDATE items SET name = ? WHERE id = ? [1=null, 2=7]");
+        assertThat(registry.get("db.statement.slow").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("statements inside a trace become child spans with the SQL but not the bind values")
+    void statements_tracedWithinTrace() {
+        List<SpanData> finished = new CopyOnWriteArrayList<>();
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(collecting(finished)))
+                .build();
+        Tracer tracer = new OtelTracer(tracerProvider.get("test"), new OtelCurrentTraceContext(), event -> {
+        });
+        JdbcTemplate jdbc = new JdbcTemplate(
+                new StatementInstrumentingDataSource(h2, () -> registry, () -> tracer, Duration.ofSeconds(10)));
+
+        // No trace in progress: nothing is started
+        jdbc.update("INSERT INTO items (id, name) VALUES (?, ?)", 1, "secret");
+        assertThat(finished).isEmpty();
+
+        ScopedSpan request = tracer.startScopedSpan("request");
+        try {
+            jdbc.queryForObject("SELECT name FROM items WHERE id = ?", String.class, 1);
+        } finally {
+            request.end();
+        }
+
+        assertThat(finished).hasSize(2);
+        SpanData statement = finished.get(0);
+        assertThat(statement.getName()).isEqualTo("db select");
+        assertThat(statement.getParentSpanId()).isEqualTo(finished.get(1).getSpanId());
+        assertThat(statement.getAttributes().get(AttributeKey.stringKey("db.statement")))
+                .isEqualTo("SELECT name FROM items WHERE id = ?");
+        assertThat(statement.getAttributes().asMap().values()).doesNotContain("secret");
+        tracerProvider.close();
+    }
+
+    @Test
+    @DisplayName("scopes nest: inner statements also count towards the outer scope")
+    void scopes_nest() {
+        JdbcTemplate jdbc = new JdbcTemplate(
+                new StatementInstrumentingDataSource(h2, () -> registry, Duration.ofSeconds(10)));
+
+        try (QueryStats outer = QueryStats.open()) {
+            jdbc.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+            try (QueryStats inner = QueryStats.open()) {
+                jdbc.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+                assertThat(inner.getCount()).isEqualTo(1);
+            }
+            assertThat(outer.getCount()).isEqualTo(2);
+        }
+    }
+
+    private static SpanExporter collecting(List<SpanData> finished) {
+        return new SpanExporter() {
+            @Override
+            public CompletableResultCode export(Collection<SpanData> spans) {
+                finished.addAll(spans);
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode flush() {
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode shutdown() {
+                return CompletableResultCode.ofSuccess();
+            }
+        };
+    }
+}
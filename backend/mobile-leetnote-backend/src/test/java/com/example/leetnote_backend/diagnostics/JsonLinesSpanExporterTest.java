@@ -0,0 +1,64 @@
+package com.example.leetnote_backend.diagnostics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesSpanExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("finished spans are appended one JSON object per line, linked to their parent")
+    void export_writesOneLinePerSpan() throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new JsonLinesSpanExporter(file, objectMapper)))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        Span parent = tracer.spanBuilder("http post /evaluations").startSpan();
+        try (Scope scope = parent.makeCurrent()) {
+            tracer.spanBuilder("db select")
+                    .setAttribute("db.statement", "SELECT 1")
+                    .startSpan()
+                    .setStatus(StatusCode.ERROR, "timeout")
+                    .end();
+        } finally {
+            parent.end();
+        }
+        tracerProvider.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        JsonNode child = objectMapper.readTree(lines.get(0));
+        JsonNode root = objectMapper.readTree(lines.get(1));
+
+        assertThat(child.get("name").asText()).isEqualTo("db select");
+        assertThat(child.get("traceId").asText()).isEqualTo(root.get("traceId").asText());
+        assertThat(child.get("parentSpanId").asText()).isEqualTo(root.get("spanId").asText());
+        assertThat(child.get("status").asText()).isEqualTo("ERROR");
+        assertThat(child.get("error").asText()).isEqualTo("timeout");
+        assertThat(child.get("attributes").get("db.statement").asText()).isEqualTo("SELECT 1");
+        assertThat(child.get("durationMicros").asLong()).isNotNegative();
+        assertThat(root.has("parentSpanId")).isFalse();
+        assertThat(root.get("kind").asText()).isEqualTo("INTERNAL");
+    }
+}
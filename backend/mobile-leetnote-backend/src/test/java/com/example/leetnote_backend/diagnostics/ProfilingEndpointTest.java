@@ -0,0 +1,78 @@
+package com.example.leetnote_backend.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProfilingEndpointTest {
+
+    private final ProfilingEndpoint endpoint = new ProfilingEndpoint(Duration.ofSeconds(60), 50L * 1024 * 1024);
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    @DisplayName("a recording captures the app's events and is returned as a file when stopped")
+    void startAndStop_returnsRecordingWithAppEvents() throws Exception {
+        assertThat(endpoint.stop().getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+
+        WebEndpointResponse<ProfilingEndpoint.ProfilingStatus> started = endpoint.start(600L, null);
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(started.getBody().state()).isEqualTo("recording");
+        assertThat(started.getBody().settings()).isEqualTo("default");
+        // Capped at the configured maximum
+        assertThat(started.getBody().durationSeconds()).isEqualTo(60);
+        // Only one at a time
+        WebEndpointResponse<ProfilingEndpoint.ProfilingStatus> second = endpoint.start(10L, "profile");
+        assertThat(second.getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(second.getBody().settings()).isEqualTo("default");
+
+        EvaluationStageEvent.record(EvaluationStageEvent.MODEL_WAIT, 7L, 42L, () -> "response");
+        CacheLoadEvent cacheLoad = new CacheLoadEvent();
+        cacheLoad.begin();
+        cacheLoad.complete("problemContent", "1", true, false);
+
+        WebEndpointResponse<Resource> stopped = endpoint.stop();
+        assertThat(stopped.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(endpoint.status().state()).isEqualTo("finished");
+        assertThat(endpoint.status().sizeBytes()).isPositive();
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(stopped.getBody().getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().startsWith("leetnote."))
+                .toList();
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("leetnote.EvaluationStage");
+            assertThat(event.getString("stage")).isEqualTo("model-wait");
+            assertThat(event.getLong("userId")).isEqualTo(7L);
+            assertThat(event.getLong("problemId")).isEqualTo(42L);
+            assertThat(event.getBoolean("failed")).isFalse();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("leetnote.CacheLoad");
+            assertThat(event.getString("cache")).isEqualTo("problemContent");
+            assertThat(event.getBoolean("refresh")).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("only the JDK's default and profile settings are accepted")
+    void start_rejectsUnknownSettings() {
+        assertThatThrownBy(() -> endpoint.start(10L, "/etc/custom.jfc"))
+                .isInstanceOf(InvalidEndpointRequestException.class);
+        assertThat(endpoint.status().state()).isEqualTo("idle");
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.Submission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that every submission and evaluation query reads a single hash partition of each table
+ *
+ * Partitioning only exists on PostgreSQL, so this runs when TEST_POSTGRES_URL points at a scratch
+ * database (the migrations are applied to it and the test data is rolled back).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=${TEST_POSTGRES_URL}",
+        "spring.datasource.username=${TEST_POSTGRES_USERNAME:postgres}",
+        "spring.datasource.password=${TEST_POSTGRES_PASSWORD:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.leetnote_backend.repository.QueryPlanTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "TEST_POSTGRES_URL", matches = ".+")
+public class PartitionPruningTest {
+
+    private static final Pattern PARTITION = Pattern.compile("\\b(submissions|evaluations)_p\\d+\\b");
+    private static final long USER = 3L;
+    private static final long PROBLEM = 5L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (id, firebase_uid, username, email) "
+                + "SELECT g, 'pruning-' || g, 'pruning-' || g, 'pruning-' || g FROM generate_series(1, 40) g");
+        jdbcTemplate.update("INSERT INTO problems (id, title, slug, description) "
+                + "SELECT g, 'Problem ' || g, 'problem-' || g, '...' FROM generate_series(1, 10) g");
+        // Two submissions per user and problem, each evaluated once, spread over every partition
+        jdbcTemplate.update("INSERT INTO submissions (user_id, problem_id, solution_text) "
+                + "SELECT u, p, 'x' FROM generate_series(1, 40) u, generate_series(1, 10) p, generate_series(1, 2)");
+        jdbcTemplate.update("INSERT INTO evaluations (user_id, submission_id, version) "
+                + "SELECT user_id, id, 1 FROM submissions");
+        jdbcTemplate.execute("ANALYZE submissions");
+        jdbcTemplate.execute("ANALYZE evaluations");
+        QueryPlanTest.RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    public void testSubmissionQueriesReadOnePartition() {
+        List<Long> ids = submissionRepository.findByUserIdAndProblemIdOrderByCreatedAtDesc(USER, PROBLEM).stream()
+                .map(Submission::getId)
+                .toList();
+        assertThat(ids).hasSize(2);
+        assertThat(submissionRepository.findTopByUserIdAndProblemIdOrderByCreatedAtDesc(USER, PROBLEM)).isPresent();
+        evaluationRepository.deleteAllByUserIdAndSubmissionIdIn(USER, ids);
+        submissionRepository.deleteAllByUserIdAndIdIn(USER, ids);
+
+        assertEachStatementPrunes(4);
+    }
+
+    @Test
+    public void testEvaluationQueriesReadOnePartition() {
+        var latest = evaluationRepository.findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(
+                USER, PROBLEM).orElseThrow();
+        assertThat(evaluationRepository.findBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(USER, PROBLEM))
+                .hasSize(2);
+        assertThat(evaluationRepository.findByIdAndUserId(latest.getId(), USER)).isPresent();
+        assertThat(evaluationRepository.findLatestEvaluationsByUserId(USER)).hasSize(10);
+
+        assertEachStatementPrunes(4);
+    }
+
+    private void assertEachStatementPrunes(int expectedStatements) {
+        List<String> statements = new ArrayList<>(QueryPlanTest.RecordingInspector.STATEMENTS);
+        assertThat(statements).hasSize(expectedStatements);
+        for (String sql : statements) {
+            Map<String, Set<String>> partitionsByTable = new TreeMap<>();
+            Matcher matcher = PARTITION.matcher(explain(sql));
+            while (matcher.find()) {
+                partitionsByTable.computeIfAbsent(matcher.group(1), table -> new TreeSet<>()).add(matcher.group());
+            }
+            assertThat(partitionsByTable).as("partitions read by %s", sql).isNotEmpty();
+            partitionsByTable.forEach((table, partitions) ->
+                    assertThat(partitions).as("%s partitions read by %s", table, sql).hasSize(1));
+        }
+    }
+
+    /**
+     * Plan with every parameter bound to the test user's id: the user, problem and row ids all
+     * take that value, so the planner prunes exactly as it would for a real request
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setLong(i, USER);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+}
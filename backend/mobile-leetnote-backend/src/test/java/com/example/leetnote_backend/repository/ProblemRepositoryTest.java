@@ -0,0 +1,66 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.ProblemSolution;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The solution column is not mapped on Problem, so the schema comes from the migrations
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:problems;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ProblemRepositoryTest {
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testFindSolutionReadsTypedSolution() {
+        insertProblem(1L, """
+                {"approach": "Hash map", "code": "return seen", "time_complexity": "O(n)",
+                 "space_complexity": "O(n)", "notes": "ignored"}
+                """);
+
+        assertThat(problemRepository.findSolution(1L))
+                .contains(new ProblemSolution("Hash map", "return seen", "O(n)", "O(n)"));
+        // Loading the entity is unaffected by the column
+        assertThat(problemRepository.findById(1L)).get()
+                .satisfies(problem -> assertThat(problem.getTitle()).isEqualTo("Problem 1"));
+    }
+
+    @Test
+    public void testFindSolutionDefaultsMissingFields() {
+        insertProblem(2L, """
+                {"approach": "Two pointers"}
+                """);
+
+        assertThat(problemRepository.findSolution(2L))
+                .contains(new ProblemSolution("Two pointers", "", "", ""));
+    }
+
+    @Test
+    public void testFindSolutionEmptyWithoutSolution() {
+        insertProblem(3L, null);
+
+        assertThat(problemRepository.findSolution(3L)).isEmpty();
+        assertThat(problemRepository.findSolution(404L)).isEmpty();
+    }
+
+    private void insertProblem(Long id, String solution) {
+        jdbcTemplate.update("INSERT INTO problems (id, title, slug, difficulty, description, solution) "
+                        + "VALUES (?, ?, ?, 'Easy', '...', ? FORMAT JSON)",
+                id, "Problem " + id, "problem-" + id, solution);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.leetnote_backend.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations (not Hibernate DDL) against an embedded database, seeds it, and checks
+ * that the SQL each hot repository method actually issues is answered from an index
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplans;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.leetnote_backend.repository.QueryPlanTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class QueryPlanTest {
+
+    private static final int USERS = 20;
+    private static final int PROBLEMS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private EvaluationRepository evaluationRepository;
+
+    @Autowired
+    private UserProblemStatusRepository userProblemStatusRepository;
+
+    @Autowired
+    private UserLeetcodeProfileRepository userLeetcodeProfileRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProblemRepository problemRepository;
+
+    @BeforeEach
+    void seed() {
+        RecordingInspector.STATEMENTS.clear();
+        // ANALYZE commits, so the seed outlives the test transaction and is loaded once
+        Integer seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (seeded != null && seeded > 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> profiles = new ArrayList<>();
+        for (int u = 1; u <= USERS; u++) {
+            users.add(new Object[]{u, "uid-" + u, "user" + u, "user" + u + "@example.com"});
+            profiles.add(new Object[]{u, u, "lc" + u, Timestamp.valueOf(now.minusHours(u))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, firebase_uid, username, email) VALUES (?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_leetcode_profiles (id, user_id, leetcode_username, last_updated) VALUES (?, ?, ?, ?)",
+                profiles);
+
+        List<Object[]> problems = new ArrayList<>();
+        List<Object[]> details = new ArrayList<>();
+        for (int p = 1; p <= PROBLEMS; p++) {
+            problems.add(new Object[]{p, "Problem " + p, "problem-" + p, "Easy", "..."});
+            details.add(new Object[]{p, p});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO problems (id, title, slug, difficulty, description) VALUES (?, ?, ?, ?, ?)", problems);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO examples (id, problem_id, input, output) VALUES (?, ?, 'in', 'out')", details);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO constraints (id, problem_id, constraint_text) VALUES (?, ?, 'n > 0')", details);
+
+        List<Object[]> statuses = new ArrayList<>();
+        List<Object[]> submissions = new ArrayList<>();
+        List<Object[]> evaluations = new ArrayList<>();
+        int id = 0;
+        for (int u = 1; u <= USERS; u++) {
+            for (int p = 1; p <= PROBLEMS; p += 2) {
+                statuses.add(new Object[]{u, p, true});
+                for (int attempt = 0; attempt < 2; attempt++) {
+                    id++;
+                    submissions.add(new Object[]{id, u, p, Timestamp.valueOf(now.minusMinutes(id))});
+                    evaluations.add(new Object[]{id, u, id});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_problem_status (user_id, problem_id, is_solved) VALUES (?, ?, ?)", statuses);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO submissions (id, user_id, problem_id, solution_text, created_at) VALUES (?, ?, ?, 'x', ?)",
+                submissions);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO evaluations (id, user_id, submission_id, version) VALUES (?, ?, ?, 1)", evaluations);
+        // Give the planner real selectivity instead of its defaults
+        jdbcTemplate.execute("ANALYZE");
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    public void testSubmissionHistoryUsesCompositeIndex() {
+        assertThat(submissionRepository.findByUserIdAndProblemIdOrderByCreatedAtDesc(3L, 5L)).hasSize(2);
+        assertThat(submissionRepository.findTopByUserIdAndProblemIdOrderByCreatedAtDesc(3L, 5L)).isPresent();
+
+        assertThat(recordedPlans())
+                .hasSize(2)
+                .allSatisfy(plan -> assertThat(plan).contains("IDX_SUBMISSIONS_USER_PROBLEM_CREATED"))
+                .allSatisfy(QueryPlanTest::assertNoTableScan);
+    }
+
+    @Test
+    public void testEvaluationHistoryUsesIndexes() {
+        assertThat(evaluationRepository.findBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(3L, 5L))
+                .hasSize(2);
+        assertThat(evaluationRepository.findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(3L, 5L))
+                .isPresent();
+
+        assertThat(recordedPlans())
+                .hasSize(2)
+                .allSatisfy(plan -> assertThat(plan).contains("IDX_SUBMISSIONS_USER_PROBLEM_CREATED"))
+                .allSatisfy(QueryPlanTest::assertNoTableScan);
+    }
+
+    @Test
+    public void testProblemStatusLookupsUsePrimaryKey() {
+        assertThat(userProblemStatusRepository.findAllByUserId(3L)).hasSize(PROBLEMS / 2);
+        assertThat(userProblemStatusRepository.findByUserIdAndProblemId(3L, 5L)).isPresent();
+
+        assertThat(recordedPlans())
+                .hasSize(2)
+                .allSatisfy(QueryPlanTest::assertNoTableScan);
+    }
+
+    @Test
+    public void testLeetcodeProfileLookupsUseIndexes() {
+        assertThat(userLeetcodeProfileRepository.findByUserId(3L)).isPresent();
+        assertThat(userLeetcodeProfileRepository.findByUsername("lc3")).isPresent();
+
+        List<String> plans = recordedPlans();
+        assertThat(plans).anySatisfy(plan -> assertThat(plan).contains("UQ_USER_LEETCODE_PROFILES_USER"));
+        assertThat(plans).anySatisfy(plan -> assertThat(plan).contains("UQ_USER_LEETCODE_PROFILES_USERNAME"));
+        assertThat(plans).allSatisfy(QueryPlanTest::assertNoTableScan);
+
+        // The refresher's JDBC writes go by id
+        assertNoTableScan(explain("UPDATE user_leetcode_profiles SET last_updated = ? WHERE id = ?"));
+    }
+
+    @Test
+    public void testUserAndProblemDetailLookupsUseIndexes() {
+        assertThat(userRepository.findByFirebaseUid("uid-3")).isPresent();
+        var problem = problemRepository.findById(5L).orElseThrow();
+        assertThat(problem.getExamples()).hasSize(1);
+        assertThat(problem.getConstraints()).hasSize(1);
+
+        List<String> plans = recordedPlans();
+        assertThat(plans).anySatisfy(plan -> assertThat(plan).contains("IDX_EXAMPLES_PROBLEM"));
+        assertThat(plans).anySatisfy(plan -> assertThat(plan).contains("IDX_CONSTRAINTS_PROBLEM"));
+        assertThat(plans).allSatisfy(QueryPlanTest::assertNoTableScan);
+    }
+
+    private List<String> recordedPlans() {
+        // Only what the repositories issued after seeding
+        List<String> plans = new ArrayList<>();
+        for (String sql : RecordingInspector.STATEMENTS) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                plans.add(explain(sql));
+            }
+        }
+        return plans;
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    private static void assertNoTableScan(String plan) {
+        assertThat(plan).as("query plan").doesNotContain("tableScan");
+    }
+
+    /**
+     * Hibernate instantiates this by class name, so the statements it sees are kept statically
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
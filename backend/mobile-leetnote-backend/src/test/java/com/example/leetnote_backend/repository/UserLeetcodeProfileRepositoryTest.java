@@ -0,0 +1,210 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.User;
+import com.example.leetnote_backend.model.entity.UserLeetcodeProfile;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ColumnSwap;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ProfileStats;
+import com.example.leetnote_backend.util.StatsHistory;
+import com.example.leetnote_backend.util.SubmissionHeatmap;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase
+public class UserLeetcodeProfileRepositoryTest {
+
+    @Autowired
+    private UserLeetcodeProfileRepository userLeetcodeProfileRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    public void testFindStaleProfilesOldestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        UserLeetcodeProfile fresh = saveProfile("fresh", now.minusMinutes(5));
+        UserLeetcodeProfile old = saveProfile("old", now.minusDays(1));
+        UserLeetcodeProfile older = saveProfile("older", now.minusDays(2));
+        entityManager.flush();
+
+        List<ProfileStats> stale = userLeetcodeProfileRepository.findStaleProfiles(now.minusHours(1), 10);
+
+        assertThat(stale).extracting(ProfileStats::id).containsExactly(older.getId(), old.getId());
+        assertThat(stale.get(0).userId()).isEqualTo(older.getUser().getId());
+        assertThat(stale).extracting(ProfileStats::id).doesNotContain(fresh.getId());
+
+        assertThat(userLeetcodeProfileRepository.findStaleProfiles(now.minusHours(1), 1))
+                .extracting(ProfileStats::username)
+                .containsExactly("older");
+    }
+
+    @Test
+    public void testUpdateStatsBatchAndTouchAll() {
+        LocalDateTime now = LocalDateTime.now();
+        UserLeetcodeProfile changed = saveProfile("changed", now.minusDays(1));
+        UserLeetcodeProfile unchanged = saveProfile("unchanged", now.minusDays(1));
+        entityManager.flush();
+
+        userLeetcodeProfileRepository.updateStatsBatch(
+                List.of(new ProfileStats(changed.getId(), changed.getUser().getId(), "changed", 12, 5, 4, 3)),
+                now);
+        userLeetcodeProfileRepository.touchAll(List.of(unchanged.getId()), now);
+        entityManager.clear();
+
+        UserLeetcodeProfile reloadedChanged = userLeetcodeProfileRepository.findById(changed.getId()).orElseThrow();
+        assertThat(reloadedChanged.getTotalSolved()).isEqualTo(12);
+        assertThat(reloadedChanged.getHardSolved()).isEqualTo(3);
+        assertThat(reloadedChanged.getLastUpdated()).isAfter(now.minusSeconds(1));
+
+        UserLeetcodeProfile reloadedUnchanged = userLeetcodeProfileRepository.findById(unchanged.getId()).orElseThrow();
+        assertThat(reloadedUnchanged.getTotalSolved()).isEqualTo(10);
+        assertThat(reloadedUnchanged.getLastUpdated()).isAfter(now.minusSeconds(1));
+
+        assertThat(userLeetcodeProfileRepository.findStaleProfiles(now.minusHours(1), 10)).isEmpty();
+    }
+
+    @Test
+    public void testHeatmapsRoundTripThroughBatchUpdate() {
+        UserLeetcodeProfile withHeatmap = saveProfile("with-heatmap", LocalDateTime.now());
+        UserLeetcodeProfile without = saveProfile("without", LocalDateTime.now());
+        entityManager.flush();
+
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        heatmap.merge(Map.of(LocalDate.of(2024, 5, 1), 7));
+        assertThat(userLeetcodeProfileRepository.updateHeatmapsBatch(
+                Map.of(stats(withHeatmap), new ColumnSwap(null, heatmap.encode())))).isEmpty();
+        entityManager.clear();
+
+        Map<Long, byte[]> stored = userLeetcodeProfileRepository.findHeatmaps(List.of(withHeatmap.getId(), without.getId()));
+        assertThat(stored).containsOnlyKeys(withHeatmap.getId());
+        assertThat(SubmissionHeatmap.decode(stored.get(withHeatmap.getId()))).isEqualTo(heatmap);
+
+        // The entity mapping reads the same encoding
+        assertThat(userLeetcodeProfileRepository.findById(withHeatmap.getId()).orElseThrow().getSubmissionHeatmap())
+                .isEqualTo(heatmap);
+    }
+
+    @Test
+    public void testBatchWritesSkipProfilesRelinkedSinceRead() {
+        UserLeetcodeProfile profile = saveProfile("old-account", LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        ProfileStats read = stats(profile);
+
+        // The user links another LeetCode account while the refresher is fetching the old one
+        profile.setUsername("new-account");
+        entityManager.flush();
+
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        heatmap.merge(Map.of(LocalDate.of(2024, 5, 1), 7));
+        userLeetcodeProfileRepository.updateStatsBatch(
+                List.of(new ProfileStats(read.id(), read.userId(), read.username(), 99, 50, 40, 9)),
+                LocalDateTime.now());
+        assertThat(userLeetcodeProfileRepository.updateHeatmapsBatch(
+                Map.of(read, new ColumnSwap(null, heatmap.encode())))).containsExactly(read);
+        assertThat(userLeetcodeProfileRepository.updateHistoriesBatch(
+                Map.of(read, new ColumnSwap(null, new byte[]{1})))).containsExactly(read);
+        entityManager.clear();
+
+        UserLeetcodeProfile reloaded = userLeetcodeProfileRepository.findById(profile.getId()).orElseThrow();
+        assertThat(reloaded.getUsername()).isEqualTo("new-account");
+        assertThat(reloaded.getTotalSolved()).isEqualTo(10);
+        assertThat(userLeetcodeProfileRepository.findHeatmaps(List.of(profile.getId()))).isEmpty();
+        assertThat(userLeetcodeProfileRepository.findHistories(List.of(profile.getId()))).isEmpty();
+    }
+
+    @Test
+    public void testBatchWritesMissWhenValueChangedSinceRead() {
+        UserLeetcodeProfile profile = saveProfile("raced", LocalDateTime.now());
+        entityManager.flush();
+        ProfileStats read = stats(profile);
+
+        SubmissionHeatmap first = new SubmissionHeatmap();
+        first.merge(Map.of(LocalDate.of(2024, 5, 1), 3));
+        SubmissionHeatmap second = new SubmissionHeatmap();
+        second.merge(Map.of(LocalDate.of(2024, 5, 2), 5));
+        assertThat(userLeetcodeProfileRepository.updateHeatmapsBatch(
+                Map.of(read, new ColumnSwap(null, first.encode())))).isEmpty();
+
+        // Still expects the empty column it read, but another writer stored one meanwhile
+        assertThat(userLeetcodeProfileRepository.updateHeatmapsBatch(
+                Map.of(read, new ColumnSwap(null, second.encode())))).containsExactly(read);
+        assertThat(SubmissionHeatmap.decode(userLeetcodeProfileRepository.findHeatmaps(List.of(profile.getId()))
+                .get(profile.getId()))).isEqualTo(first);
+
+        assertThat(userLeetcodeProfileRepository.updateHeatmapsBatch(
+                Map.of(read, new ColumnSwap(first.encode(), second.encode())))).isEmpty();
+        assertThat(SubmissionHeatmap.decode(userLeetcodeProfileRepository.findHeatmaps(List.of(profile.getId()))
+                .get(profile.getId()))).isEqualTo(second);
+    }
+
+    @Test
+    public void testFillHeatmapKeepsOneStoredMeanwhile() {
+        UserLeetcodeProfile profile = saveProfile("heatmap", LocalDateTime.now());
+        entityManager.flush();
+
+        SubmissionHeatmap refreshed = new SubmissionHeatmap();
+        refreshed.merge(Map.of(LocalDate.of(2024, 5, 1), 7));
+        SubmissionHeatmap firstFill = new SubmissionHeatmap();
+        firstFill.merge(Map.of(LocalDate.of(2024, 5, 1), 3));
+
+        assertThat(userLeetcodeProfileRepository.fillHeatmap(profile.getId(), "heatmap", refreshed.encode())).isTrue();
+        assertThat(userLeetcodeProfileRepository.fillHeatmap(profile.getId(), "heatmap", firstFill.encode())).isFalse();
+
+        assertThat(SubmissionHeatmap.decode(userLeetcodeProfileRepository.findHeatmaps(List.of(profile.getId()))
+                .get(profile.getId()))).isEqualTo(refreshed);
+    }
+
+    @Test
+    public void testRecordHistoryAppendsToStoredPoints() {
+        UserLeetcodeProfile profile = saveProfile("history", LocalDateTime.now());
+        entityManager.flush();
+        ProfileStats read = stats(profile);
+        Instant now = Instant.now();
+
+        // A point written by the refresher, then one from a manual refresh
+        assertThat(userLeetcodeProfileRepository.recordHistory(read, now.minusSeconds(7_200))).isTrue();
+        assertThat(userLeetcodeProfileRepository.recordHistory(
+                new ProfileStats(read.id(), read.userId(), read.username(), 12, 6, 4, 2), now)).isTrue();
+        // Relinked profiles are left alone
+        assertThat(userLeetcodeProfileRepository.recordHistory(
+                new ProfileStats(read.id(), read.userId(), "someone-else", 20, 10, 8, 2), now)).isFalse();
+
+        StatsHistory history = StatsHistory.decode(userLeetcodeProfileRepository.findHistories(List.of(profile.getId()))
+                .get(profile.getId()));
+        assertThat(history.points()).extracting(StatsHistory.Point::total).containsExactly(10, 12);
+    }
+
+    private static ProfileStats stats(UserLeetcodeProfile profile) {
+        return new ProfileStats(profile.getId(), profile.getUser().getId(), profile.getUsername(),
+                profile.getTotalSolved(), profile.getEasySolved(), profile.getMediumSolved(), profile.getHardSolved());
+    }
+
+    private UserLeetcodeProfile saveProfile(String username, LocalDateTime lastUpdated) {
+        User user = new User();
+        user.setEmail(username + "@example.com");
+        user.setFirebaseUid("firebase-" + username);
+        user.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUser(user);
+        profile.setUsername(username);
+        profile.setTotalSolved(10);
+        profile.setEasySolved(5);
+        profile.setMediumSolved(3);
+        profile.setHardSolved(2);
+        profile.setLastUpdated(lastUpdated);
+        return entityManager.persist(profile);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.leetnote_backend.repository;
+
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * upsertAll relies on the primary key the migrations add, so the schema comes from them
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statuses;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class UserProblemStatusRepositoryTest {
+
+    @Autowired
+    private UserProblemStatusRepository userProblemStatusRepository;
+
+    @Test
+    public void testUpsertAllInsertsNewAndUpdatesExistingRows() {
+        userProblemStatusRepository.upsertAll(List.of(new UserProblemStatus(1L, 10L, true, false)));
+        userProblemStatusRepository.upsertAll(List.of(
+                new UserProblemStatus(1L, 10L, false, true),
+                new UserProblemStatus(1L, 11L, true, true)));
+
+        assertThat(userProblemStatusRepository.findAllByUserId(1L))
+                .extracting(UserProblemStatus::getProblemId, UserProblemStatus::isSolved, UserProblemStatus::isFavorited)
+                .containsExactlyInAnyOrder(
+                        tuple(10L, false, true),
+                        tuple(11L, true, true));
+    }
+}
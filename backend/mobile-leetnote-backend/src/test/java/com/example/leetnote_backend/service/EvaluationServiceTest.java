@@ -14,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -107,6 +108,7 @@ class EvaluationServiceTest {
         assertNotNull(savedEval.getCreatedAt());
         assertNotNull(savedEval.getSubmission());
         assertEquals(savedSubmission.getId(), savedEval.getSubmission().getId());
+        assertEquals(userId, savedEval.getUserId());
         assertNotNull(savedEval.getEvaluation());
         assertEquals(3, savedEval.getEvaluation().getRating());
 
@@ -115,7 +117,7 @@ class EvaluationServiceTest {
         verify(togetherAiService).parseResponse(anyString());
 
         // Since we returned 3 submissions total, no deletion should happen
-        verify(submissionRepository, never()).deleteAll(anyList());
+        verify(submissionRepository, never()).deleteAllByUserIdAndIdIn(anyLong(), anyList());
     }
 
     @Test
@@ -153,7 +155,7 @@ class EvaluationServiceTest {
         // Assert
         assertEquals(5, dto.getRating());
         verify(promptBuilder).buildPrompt("No problem found.", request.getSolutionText());
-        verify(submissionRepository, never()).deleteAll(anyList());
+        verify(submissionRepository, never()).deleteAllByUserIdAndIdIn(anyLong(), anyList());
     }
 
     @Test
@@ -186,11 +188,10 @@ class EvaluationServiceTest {
         // Act
         evaluationService.createSubmissionWithEvaluation(userId, request);
 
-        // Assert: capture deletions
-        ArgumentCaptor<List<Submission>> toDeleteCaptor = ArgumentCaptor.forClass((Class<List<Submission>>) (Class<?>) List.class);
-        verify(submissionRepository).deleteAll(toDeleteCaptor.capture());
-        List<Submission> toDelete = toDeleteCaptor.getValue();
-        assertThat(toDelete).extracting(Submission::getId).containsExactly(104L, 105L);
+        // Assert: the two oldest go, evaluations first, both scoped to the user
+        InOrder inOrder = inOrder(evaluationRepository, submissionRepository);
+        inOrder.verify(evaluationRepository).deleteAllByUserIdAndSubmissionIdIn(userId, List.of(104L, 105L));
+        inOrder.verify(submissionRepository).deleteAllByUserIdAndIdIn(userId, List.of(104L, 105L));
     }
 
     @Test
@@ -207,7 +208,7 @@ class EvaluationServiceTest {
         assertTrue(ex.getMessage().contains("Failed to connect to the evaluation service"));
 
         // No cleanup should be attempted if upstream call failed before deletion
-        verify(submissionRepository, never()).deleteAll(anyList());
+        verify(submissionRepository, never()).deleteAllByUserIdAndIdIn(anyLong(), anyList());
     }
 
     @Test
@@ -260,7 +261,7 @@ class EvaluationServiceTest {
 
         when(evaluationRepository.findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(userId, problemId))
                 .thenReturn(Optional.of(ev));
-        when(evaluationRepository.findById(evalId)).thenReturn(Optional.of(ev));
+        when(evaluationRepository.findByIdAndUserId(evalId, userId)).thenReturn(Optional.of(ev));
         when(problemRepository.findById(problemId)).thenReturn(Optional.of(p));
 
         // Act
@@ -277,7 +278,7 @@ class EvaluationServiceTest {
         assertEquals("solution", detail.getSolutionText());
 
         verify(evaluationRepository).findTopBySubmission_UserIdAndSubmission_ProblemIdOrderByCreatedAtDesc(userId, problemId);
-        verify(evaluationRepository).findById(evalId);
+        verify(evaluationRepository).findByIdAndUserId(evalId, userId);
         verify(problemRepository).findById(problemId);
     }
 
@@ -303,7 +304,7 @@ class EvaluationServiceTest {
         Problem p = new Problem();
         p.setId(problemId);
         p.setTitle("Two Sum");
-        when(problemRepository.findById(problemId)).thenReturn(Optional.of(p));
+        when(problemRepository.findAllById(Set.of(problemId))).thenReturn(List.of(p));
 
         // Act
         List<EvaluationListItemDTO> result = evaluationService.getAllEvaluations(userId);
@@ -317,7 +318,7 @@ class EvaluationServiceTest {
         assertEquals(e1.getCreatedAt(), item.getCreatedAt());
 
         verify(evaluationRepository).findLatestEvaluationsByUserId(userId);
-        verify(problemRepository).findById(problemId);
+        verify(problemRepository).findAllById(Set.of(problemId));
     }
 
     @Test
@@ -0,0 +1,364 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.cache.NegativeLookupCache;
+import com.example.leetnote_backend.config.AppConfig;
+import com.example.leetnote_backend.exception.ResourceNotFoundException;
+import com.example.leetnote_backend.exception.UpstreamException;
+import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises the pooled LeetCode client against a local stub of the GraphQL endpoint
+ */
+class LeetcodeCacheServiceTest {
+
+    private static final String STATS_BODY = """
+            {"data":{"matchedUser":{"submitStats":{"acSubmissionNum":[
+              {"difficulty":"All","count":60,"submissions":90},
+              {"difficulty":"Easy","count":30,"submissions":40},
+              {"difficulty":"Medium","count":20,"submissions":35},
+              {"difficulty":"Hard","count":10,"submissions":15}]}}}}
+            """;
+
+    // Aliases follow first-seen order: u0 = alice, u1 = ghost (unknown), u2 = bob
+    private static final String BATCH_BODY = """
+            {"data":{
+              "u0":{"submitStats":{"acSubmissionNum":[
+                {"difficulty":"All","count":60,"submissions":90},
+                {"difficulty":"Easy","count":30,"submissions":40},
+                {"difficulty":"Medium","count":20,"submissions":35},
+                {"difficulty":"Hard","count":10,"submissions":15}]}},
+              "u1":null,
+              "u2":{"submitStats":{"acSubmissionNum":[
+                {"difficulty":"All","count":3,"submissions":5},
+                {"difficulty":"Easy","count":1,"submissions":1},
+                {"difficulty":"Medium","count":1,"submissions":2},
+                {"difficulty":"Hard","count":1,"submissions":2}]}}},
+             "errors":[{"message":"That user does not exist.","path":["u1"]}]}
+            """;
+
+    private HttpServer server;
+    private final ConcurrentLinkedQueue<Responder> responders = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private HttpComponentsClientHttpRequestFactory requestFactory;
+    private RestTemplate restTemplate;
+    private LeetcodeCacheService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/graphql", exchange -> {
+            hits.incrementAndGet();
+            Responder responder = responders.size() > 1 ? responders.poll() : responders.peek();
+            responder.respond(exchange);
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        AppConfig config = new AppConfig();
+        ReflectionTestUtils.setField(config, "leetcodeBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 500L);
+        ReflectionTestUtils.setField(config, "readTimeoutMs", 200L);
+        ReflectionTestUtils.setField(config, "poolAcquireTimeoutMs", 100L);
+        ReflectionTestUtils.setField(config, "maxConnections", 1);
+        ReflectionTestUtils.setField(config, "maxAttempts", 3);
+        ReflectionTestUtils.setField(config, "backoffBaseMs", 10L);
+        ReflectionTestUtils.setField(config, "backoffMaxMs", 50L);
+        ReflectionTestUtils.setField(config, "retryDeadlineMs", 2_000L);
+
+        requestFactory = config.leetcodeRequestFactory(meterRegistry);
+        restTemplate = config.restTemplate(new RestTemplateBuilder(), requestFactory, meterRegistry);
+        service = new LeetcodeCacheService(restTemplate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        requestFactory.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("parses accepted submission counts from the GraphQL response")
+    void fetchStats_success() {
+        responders.add(json(200, STATS_BODY));
+
+        LeetcodeStatsDTO stats = service.fetchStatsFromLeetcodeAPI("alice");
+
+        assertThat(stats.getTotalSolved()).isEqualTo(60);
+        assertThat(stats.getEasySolved()).isEqualTo(30);
+        assertThat(stats.getHardSolved()).isEqualTo(10);
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("transient 503s are retried until the upstream recovers")
+    void fetchStats_retriesTransientErrors() {
+        responders.add(json(503, "{}"));
+        responders.add(json(503, "{}"));
+        responders.add(json(200, STATS_BODY));
+
+        LeetcodeStatsDTO stats = service.fetchStatsFromLeetcodeAPI("alice");
+
+        assertThat(stats.getTotalSolved()).isEqualTo(60);
+        assertThat(hits.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("http.client.retries").tag("reason", "503").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("gives up after the attempt budget when the upstream keeps failing")
+    void fetchStats_persistentFailure() {
+        responders.add(json(502, "{}"));
+
+        assertThatThrownBy(() -> service.fetchStatsFromLeetcodeAPI("alice"))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThat(hits.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a slow upstream is cut off by the read timeout instead of hanging the caller")
+    void fetchStats_slowUpstreamTimesOut() {
+        responders.add(exchange -> {
+            sleep(1_000);
+            json(200, STATS_BODY).respond(exchange);
+        });
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> service.fetchStatsFromLeetcodeAPI("alice"))
+                .isInstanceOf(ResourceAccessException.class);
+
+        // 3 attempts x 200 ms read timeout plus small backoffs - never the full second per call
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1_500);
+        assertThat(hits.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("client errors and unknown users are not retried")
+    void fetchStats_noRetryOnClientErrors() {
+        responders.add(json(400, "{}"));
+        assertThatThrownBy(() -> service.fetchStatsFromLeetcodeAPI("alice"))
+                .isInstanceOf(HttpClientErrorException.class);
+        assertThat(hits.get()).isEqualTo(1);
+
+        responders.clear();
+        responders.add(json(200, "{\"data\":{\"matchedUser\":null}}"));
+        assertThatThrownBy(() -> service.fetchStatsFromLeetcodeAPI("ghost"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(hits.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("callers beyond the pool limit fail fast rather than queueing or retrying")
+    void fetchStats_boundedConcurrency() throws Exception {
+        responders.add(exchange -> {
+            sleep(150);
+            json(200, STATS_BODY).respond(exchange);
+        });
+
+        CompletableFuture<LeetcodeStatsDTO> first =
+                CompletableFuture.supplyAsync(() -> service.fetchStatsFromLeetcodeAPI("alice"));
+        sleep(30);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> service.fetchStatsFromLeetcodeAPI("bob"))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(140);
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getTotalSolved()).isEqualTo(60);
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("many usernames are fetched with one aliased query; unknown users are left out")
+    void fetchStatsBatch_singleAliasedQuery() {
+        List<String> requestBodies = new CopyOnWriteArrayList<>();
+        responders.add(exchange -> {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            json(200, BATCH_BODY).respond(exchange);
+        });
+
+        Map<String, LeetcodeStatsDTO> stats = service.fetchStatsBatch(List.of("alice", "ghost", "bob", "alice"));
+
+        assertThat(hits.get()).isEqualTo(1);
+        assertThat(stats).containsOnlyKeys("alice", "bob");
+        assertThat(stats.get("alice").getTotalSolved()).isEqualTo(60);
+        assertThat(stats.get("bob").getHardSolved()).isEqualTo(1);
+        assertThat(requestBodies.get(0))
+                .contains("u0: matchedUser(username: $u0)")
+                .contains("u2: matchedUser(username: $u2)")
+                .doesNotContain("u3");
+    }
+
+    @Test
+    @DisplayName("concurrent lookups inside the batch window go out as one request")
+    void fetchStats_coalescesConcurrentLookups() throws Exception {
+        // Aliases follow arrival order here, so answer per alias from the request variables
+        responders.add(exchange -> {
+            JsonNode variables = new ObjectMapper().readTree(exchange.getRequestBody()).get("variables");
+            StringBuilder data = new StringBuilder();
+            variables.properties().forEach(alias -> {
+                String stats = switch (alias.getValue().asText()) {
+                    case "alice" -> "{\"submitStats\":{\"acSubmissionNum\":[{\"difficulty\":\"All\",\"count\":60,\"submissions\":90}]}}";
+                    case "bob" -> "{\"submitStats\":{\"acSubmissionNum\":[{\"difficulty\":\"All\",\"count\":3,\"submissions\":5}]}}";
+                    default -> "null";
+                };
+                data.append(data.isEmpty() ? "" : ",").append('"').append(alias.getKey()).append("\":").append(stats);
+            });
+            json(200, "{\"data\":{" + data + "}}").respond(exchange);
+        });
+        LeetcodeCacheService batched = new LeetcodeCacheService(restTemplate, 200, 20, NegativeLookupCache.disabled());
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Object>> lookups = new ArrayList<>();
+        for (String username : List.of("alice", "ghost", "bob")) {
+            lookups.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                try {
+                    return batched.fetchStatsFromLeetcodeAPI(username);
+                } catch (ResourceNotFoundException e) {
+                    return e;
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Object> results = new ArrayList<>();
+        for (CompletableFuture<Object> lookup : lookups) {
+            results.add(lookup.get(5, TimeUnit.SECONDS));
+        }
+
+        assertThat(hits.get()).isEqualTo(1);
+        assertThat(((LeetcodeStatsDTO) results.get(0)).getTotalSolved()).isEqualTo(60);
+        assertThat(results.get(1)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(((LeetcodeStatsDTO) results.get(2)).getTotalSolved()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("profile batches carry the submission calendar keyed by UTC day")
+    void fetchProfilesBatch_parsesCalendar() {
+        // 1704067200 = 2024-01-01T00:00:00Z, 1704153600 = 2024-01-02T00:00:00Z
+        responders.add(json(200, """
+                {"data":{"u0":{
+                  "submitStats":{"acSubmissionNum":[{"difficulty":"All","count":5,"submissions":9}]},
+                  "userCalendar":{"submissionCalendar":"{\\"1704067200\\": 3, \\"1704153600\\": 1}"}}}}
+                """));
+
+        Map<String, LeetcodeCacheService.ProfileData> profiles = service.fetchProfilesBatch(List.of("alice"));
+
+        assertThat(profiles.get("alice").stats().getTotalSolved()).isEqualTo(5);
+        assertThat(profiles.get("alice").calendar())
+                .containsEntry(LocalDate.of(2024, 1, 1), 3)
+                .containsEntry(LocalDate.of(2024, 1, 2), 1);
+    }
+
+    @Test
+    @DisplayName("a username LeetCode rejected is not looked up again while negatively cached")
+    void fetchStats_negativeCachesUnknownUsers() {
+        responders.add(json(200, "{\"data\":{\"matchedUser\":null}}"));
+        NegativeLookupCache missingUsers =
+                new NegativeLookupCache(new ConcurrentMapCache("leetcodeMissingUsers"), meterRegistry);
+        LeetcodeCacheService negativeCaching = new LeetcodeCacheService(restTemplate, 0, 1, missingUsers);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertThatThrownBy(() -> negativeCaching.fetchStatsFromLeetcodeAPI("ghost"))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        assertThat(hits.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.negative.hits").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.negative.stores").counter().count()).isEqualTo(1);
+
+        // Existing users are unaffected
+        responders.clear();
+        responders.add(json(200, STATS_BODY));
+        assertThat(negativeCaching.fetchStatsFromLeetcodeAPI("alice").getTotalSolved()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("a response without data fails the lookup instead of marking the users missing")
+    void fetchStats_noDataIsNotNegativelyCached() {
+        responders.add(json(200, "{\"errors\":[{\"message\":\"Too many requests\"}]}"));
+        responders.add(json(200, "{\"data\":{\"u0\":null}}"));
+        responders.add(json(200, STATS_BODY));
+        NegativeLookupCache missingUsers =
+                new NegativeLookupCache(new ConcurrentMapCache("leetcodeMissingUsers"), meterRegistry);
+        LeetcodeCacheService negativeCaching = new LeetcodeCacheService(restTemplate, 0, 1, missingUsers);
+
+        assertThatThrownBy(() -> negativeCaching.fetchStatsFromLeetcodeAPI("alice"))
+                .isInstanceOf(UpstreamException.class);
+        // An answer that leaves out one of the requested aliases is no verdict on the others either
+        assertThatThrownBy(() -> negativeCaching.fetchProfilesBatch(List.of("alice", "bob")))
+                .isInstanceOf(UpstreamException.class);
+
+        assertThat(meterRegistry.get("cache.negative.stores").counter().count()).isZero();
+        assertThat(negativeCaching.fetchStatsFromLeetcodeAPI("alice").getTotalSolved()).isEqualTo(60);
+    }
+
+    private static Responder json(int status, String body) {
+        return exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        };
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Responder {
+        void respond(HttpExchange exchange) throws IOException;
+    }
+}
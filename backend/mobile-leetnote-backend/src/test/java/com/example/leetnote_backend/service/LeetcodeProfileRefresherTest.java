@@ -0,0 +1,229 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.cache.CacheLeases;
+import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepository;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ColumnSwap;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ProfileStats;
+import com.example.leetnote_backend.service.LeetcodeCacheService.ProfileData;
+import com.example.leetnote_backend.util.StatsHistory;
+import com.example.leetnote_backend.util.SubmissionHeatmap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LeetcodeProfileRefresherTest {
+
+    @Mock
+    private UserLeetcodeProfileRepository userLeetcodeProfileRepository;
+    @Mock
+    private LeetcodeCacheService leetcodeApiService;
+    @Mock
+    private CacheLeases cacheLeases;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private LeetcodeProfileRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cacheManager = new ConcurrentMapCacheManager("userLeetcodeStats", "leetcodeHeatmap");
+        refresher = new LeetcodeProfileRefresher(userLeetcodeProfileRepository, leetcodeApiService,
+                cacheLeases, cacheManager);
+        ReflectionTestUtils.setField(refresher, "enabled", true);
+        ReflectionTestUtils.setField(refresher, "staleAfterMinutes", 360L);
+        ReflectionTestUtils.setField(refresher, "batchSize", 10);
+        // One worker keeps fetch order deterministic for the circuit-breaking test
+        ReflectionTestUtils.setField(refresher, "parallelism", 1);
+        ReflectionTestUtils.setField(refresher, "usersPerRequest", 20);
+        ReflectionTestUtils.setField(refresher, "requestsPerSecond", 1_000.0);
+        ReflectionTestUtils.setField(refresher, "runTimeoutMs", 5_000L);
+    }
+
+    @Test
+    @DisplayName("only profiles whose stats changed are rewritten; the rest just get last_updated bumped")
+    void refreshBatch_writesChangedAndTouchesUnchanged() {
+        ProfileStats alice = new ProfileStats(1L, 11L, "alice", 10, 5, 3, 2);
+        ProfileStats bob = new ProfileStats(2L, 12L, "bob", 20, 10, 6, 4);
+        ProfileStats gone = new ProfileStats(3L, 13L, "gone", 1, 1, 0, 0);
+        when(userLeetcodeProfileRepository.findStaleProfiles(any(), eq(10))).thenReturn(List.of(alice, bob, gone));
+        // "gone" no longer exists, so it is missing from the batch result
+        when(leetcodeApiService.fetchProfilesBatch(List.of("alice", "bob", "gone"))).thenReturn(Map.of(
+                "alice", profile(new LeetcodeStatsDTO("alice", 11, 5, 4, 2)),
+                "bob", profile(new LeetcodeStatsDTO("bob", 20, 10, 6, 4))));
+        cacheManager.getCache("userLeetcodeStats").put(11L, "stale alice");
+        cacheManager.getCache("userLeetcodeStats").put(12L, "bob");
+
+        int changed = refresher.refreshBatch();
+
+        assertThat(changed).isEqualTo(1);
+        verify(leetcodeApiService, times(1)).fetchProfilesBatch(any());
+        verify(userLeetcodeProfileRepository).updateStatsBatch(
+                eq(List.of(new ProfileStats(1L, 11L, "alice", 11, 5, 4, 2))), any());
+        verify(userLeetcodeProfileRepository).touchAll(eq(List.of(2L, 3L)), any());
+        assertThat(cacheManager.getCache("userLeetcodeStats").get(11L)).isNull();
+        assertThat(cacheManager.getCache("userLeetcodeStats").get(12L)).isNotNull();
+
+        // Only the changed profile gets a history point
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<ProfileStats, ColumnSwap>> histories = ArgumentCaptor.forClass(Map.class);
+        verify(userLeetcodeProfileRepository).updateHistoriesBatch(histories.capture());
+        ProfileStats updatedAlice = new ProfileStats(1L, 11L, "alice", 11, 5, 4, 2);
+        assertThat(histories.getValue()).containsOnlyKeys(updatedAlice);
+        assertThat(histories.getValue().get(updatedAlice).expected()).isNull();
+        assertThat(StatsHistory.decode(histories.getValue().get(updatedAlice).replacement()).points())
+                .extracting(StatsHistory.Point::total)
+                .containsExactly(11);
+    }
+
+    @Test
+    @DisplayName("fetched calendars are merged into stored heatmaps and only grown ones are written")
+    void refreshBatch_mergesHeatmaps() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        ProfileStats alice = new ProfileStats(1L, 11L, "alice", 10, 5, 3, 2);
+        ProfileStats bob = new ProfileStats(2L, 12L, "bob", 20, 10, 6, 4);
+        SubmissionHeatmap bobStored = new SubmissionHeatmap();
+        bobStored.merge(Map.of(today, 2));
+
+        when(userLeetcodeProfileRepository.findStaleProfiles(any(), anyInt())).thenReturn(List.of(alice, bob));
+        when(leetcodeApiService.fetchProfilesBatch(List.of("alice", "bob"))).thenReturn(Map.of(
+                "alice", new ProfileData(new LeetcodeStatsDTO("alice", 10, 5, 3, 2), Map.of(today, 4)),
+                "bob", new ProfileData(new LeetcodeStatsDTO("bob", 20, 10, 6, 4), Map.of(today, 2))));
+        when(userLeetcodeProfileRepository.findHeatmaps(any())).thenReturn(Map.of(2L, bobStored.encode()));
+        cacheManager.getCache("leetcodeHeatmap").put("11_" + today.getYear(), "stale");
+
+        refresher.refreshBatch();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<ProfileStats, ColumnSwap>> written = ArgumentCaptor.forClass(Map.class);
+        verify(userLeetcodeProfileRepository).updateHeatmapsBatch(written.capture());
+        assertThat(written.getValue()).containsOnlyKeys(alice);
+        assertThat(SubmissionHeatmap.decode(written.getValue().get(alice).replacement()).count(today)).isEqualTo(4);
+        assertThat(cacheManager.getCache("leetcodeHeatmap").get("11_" + today.getYear())).isNull();
+    }
+
+    @Test
+    @DisplayName("a history changed since it was read is re-read and merged instead of overwritten")
+    void refreshBatch_remergesHistoryChangedMeanwhile() {
+        ProfileStats alice = new ProfileStats(1L, 11L, "alice", 10, 5, 3, 2);
+        ProfileStats updatedAlice = new ProfileStats(1L, 11L, "alice", 11, 5, 4, 2);
+        // A manual refresh appends its own point between the refresher's read and write
+        StatsHistory manual = new StatsHistory();
+        manual.record(Instant.now().minus(Duration.ofDays(1)), 10, 5, 3, 2);
+
+        when(userLeetcodeProfileRepository.findStaleProfiles(any(), anyInt())).thenReturn(List.of(alice));
+        when(leetcodeApiService.fetchProfilesBatch(List.of("alice"))).thenReturn(Map.of(
+                "alice", profile(new LeetcodeStatsDTO("alice", 11, 5, 4, 2))));
+        when(userLeetcodeProfileRepository.findHistories(any()))
+                .thenReturn(Map.of())
+                .thenReturn(Map.of(1L, manual.encode()));
+        when(userLeetcodeProfileRepository.updateHistoriesBatch(any()))
+                .thenReturn(List.of(updatedAlice))
+                .thenReturn(List.of());
+
+        refresher.refreshBatch();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<ProfileStats, ColumnSwap>> swaps = ArgumentCaptor.forClass(Map.class);
+        verify(userLeetcodeProfileRepository, times(2)).updateHistoriesBatch(swaps.capture());
+        ColumnSwap retry = swaps.getAllValues().get(1).get(updatedAlice);
+        assertThat(retry.expected()).isEqualTo(manual.encode());
+        assertThat(StatsHistory.decode(retry.replacement()).points())
+                .extracting(StatsHistory.Point::total)
+                .containsExactly(10, 11);
+    }
+
+    @Test
+    @DisplayName("a profile that keeps missing its swap is given up on after a bounded number of rounds")
+    void refreshBatch_givesUpOnProfileRelinkedMeanwhile() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        ProfileStats alice = new ProfileStats(1L, 11L, "alice", 10, 5, 3, 2);
+        when(userLeetcodeProfileRepository.findStaleProfiles(any(), anyInt())).thenReturn(List.of(alice));
+        when(leetcodeApiService.fetchProfilesBatch(List.of("alice"))).thenReturn(Map.of(
+                "alice", new ProfileData(new LeetcodeStatsDTO("alice", 10, 5, 3, 2), Map.of(today, 4))));
+        when(userLeetcodeProfileRepository.updateHeatmapsBatch(any())).thenReturn(List.of(alice));
+        cacheManager.getCache("leetcodeHeatmap").put("11_" + today.getYear(), "cached");
+
+        refresher.refreshBatch();
+
+        verify(userLeetcodeProfileRepository, times(LeetcodeProfileRefresher.MERGE_ATTEMPTS))
+                .updateHeatmapsBatch(any());
+        assertThat(cacheManager.getCache("leetcodeHeatmap").get("11_" + today.getYear())).isNotNull();
+    }
+
+    @Test
+    @DisplayName("once LeetCode fails, the remaining profiles are deferred to the next run untouched")
+    void refreshBatch_stopsOnUpstreamFailure() {
+        ProfileStats first = new ProfileStats(1L, 11L, "first", 10, 5, 3, 2);
+        ProfileStats second = new ProfileStats(2L, 12L, "second", 10, 5, 3, 2);
+        ProfileStats third = new ProfileStats(3L, 13L, "third", 10, 5, 3, 2);
+        when(userLeetcodeProfileRepository.findStaleProfiles(any(), anyInt())).thenReturn(List.of(first, second, third));
+        ReflectionTestUtils.setField(refresher, "usersPerRequest", 1);
+        when(leetcodeApiService.fetchProfilesBatch(List.of("first")))
+                .thenReturn(Map.of("first", profile(new LeetcodeStatsDTO("first", 10, 5, 3, 2))));
+        when(leetcodeApiService.fetchProfilesBatch(List.of("second")))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "down", null, null, null));
+
+        refresher.refreshBatch();
+
+        verify(leetcodeApiService, never()).fetchProfilesBatch(List.of("third"));
+        verify(userLeetcodeProfileRepository).updateStatsBatch(eq(List.of()), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> touched = ArgumentCaptor.forClass(Collection.class);
+        verify(userLeetcodeProfileRepository).touchAll(touched.capture(), any());
+        assertThat(touched.getValue()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("the run is skipped when another instance holds the lease")
+    void refreshStaleProfiles_skipsWithoutLease() {
+        when(cacheLeases.tryAcquire(eq(LeetcodeProfileRefresher.LEASE_KEY), any(Duration.class))).thenReturn(null);
+
+        refresher.refreshStaleProfiles();
+
+        verify(userLeetcodeProfileRepository, never()).findStaleProfiles(any(), anyInt());
+        verify(cacheLeases, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("the lease is released after the run even when LeetCode is unreachable")
+    void refreshStaleProfiles_releasesLease() {
+        ProfileStats profile = new ProfileStats(1L, 11L, "alice", 10, 5, 3, 2);
+        when(cacheLeases.tryAcquire(eq(LeetcodeProfileRefresher.LEASE_KEY), any(Duration.class))).thenReturn("token");
+        when(userLeetcodeProfileRepository.findStaleProfiles(any(), anyInt())).thenReturn(List.of(profile));
+        when(leetcodeApiService.fetchProfilesBatch(List.of("alice")))
+                .thenThrow(new ResourceAccessException("connect timed out"));
+
+        refresher.refreshStaleProfiles();
+
+        verify(userLeetcodeProfileRepository).touchAll(eq(List.of()), any());
+        verify(cacheLeases).release(LeetcodeProfileRefresher.LEASE_KEY, "token");
+    }
+
+    private static ProfileData profile(LeetcodeStatsDTO stats) {
+        return new ProfileData(stats, Map.of());
+    }
+}
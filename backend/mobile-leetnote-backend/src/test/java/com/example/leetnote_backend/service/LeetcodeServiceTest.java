@@ -1,10 +1,16 @@
 package com.example.leetnote_backend.service;
 
+import com.example.leetnote_backend.exception.BadRequestException;
+import com.example.leetnote_backend.model.DTO.HeatmapDTO;
 import com.example.leetnote_backend.model.DTO.LeetcodeStatsDTO;
+import com.example.leetnote_backend.model.DTO.StatsHistoryDTO;
 import com.example.leetnote_backend.model.entity.User;
 import com.example.leetnote_backend.model.entity.UserLeetcodeProfile;
 import com.example.leetnote_backend.repository.UserLeetcodeProfileRepository;
+import com.example.leetnote_backend.repository.UserLeetcodeProfileRepositoryCustom.ProfileStats;
 import com.example.leetnote_backend.repository.UserRepository;
+import com.example.leetnote_backend.util.StatsHistory;
+import com.example.leetnote_backend.util.SubmissionHeatmap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,12 +18,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,11 +47,15 @@ public class LeetcodeServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    private ConcurrentMapCacheManager cacheManager;
+
     private LeetcodeService service;
 
     @BeforeEach
     void setUp() {
-        this.service = new LeetcodeService(leetcodeCacheService, userLeetcodeProfileRepository, userRepository);
+        this.cacheManager = new ConcurrentMapCacheManager("userLeetcodeStats", "leetcodeHeatmap");
+        this.service = new LeetcodeService(leetcodeCacheService, userLeetcodeProfileRepository, userRepository,
+                cacheManager);
     }
 
     // ========== getUserStats (from database) tests ==========
@@ -218,8 +237,6 @@ public class LeetcodeServiceTest {
 
         when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
         when(leetcodeCacheService.fetchStatsFromLeetcodeAPI(username)).thenReturn(mockStats);
-        when(userLeetcodeProfileRepository.save(any(UserLeetcodeProfile.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
 
         LeetcodeStatsDTO result = service.refreshStats(userId);
 
@@ -230,9 +247,11 @@ public class LeetcodeServiceTest {
         assertEquals(36, result.getMediumSolved());
         assertEquals(27, result.getHardSolved());
 
-        verify(userLeetcodeProfileRepository).save(profile);
-        assertEquals(105, profile.getTotalSolved());
-        assertEquals(42, profile.getEasySolved());
+        // Only the stats columns are written; the entity (with its heatmap and history) is not saved
+        ProfileStats written = new ProfileStats(5L, userId, username, 105, 42, 36, 27);
+        verify(userLeetcodeProfileRepository).updateStatsBatch(eq(List.of(written)), any());
+        verify(userLeetcodeProfileRepository).recordHistory(eq(written), any());
+        verify(userLeetcodeProfileRepository, never()).save(any());
 
         verify(leetcodeCacheService).fetchStatsFromLeetcodeAPI(username);
     }
@@ -252,6 +271,232 @@ public class LeetcodeServiceTest {
         verify(leetcodeCacheService, never()).fetchStatsFromLeetcodeAPI(any());
     }
 
+    @Test
+    @DisplayName("refreshStats returns stored stats without calling LeetCode during cooldown")
+    void refreshStats_ReturnsStoredStats_WithinCooldown() {
+        Long userId = 1L;
+        ReflectionTestUtils.setField(service, "manualRefreshCooldownSeconds", 300L);
+
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUsername("testuser");
+        profile.setTotalSolved(100);
+        profile.setEasySolved(40);
+        profile.setMediumSolved(35);
+        profile.setHardSolved(25);
+        profile.setLastUpdated(LocalDateTime.now().minusSeconds(30));
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+
+        LeetcodeStatsDTO result = service.refreshStats(userId);
+
+        assertEquals("testuser", result.getUsername());
+        assertEquals(100, result.getTotalSolved());
+        assertEquals(25, result.getHardSolved());
+        verify(leetcodeCacheService, never()).fetchStatsFromLeetcodeAPI(any());
+        verify(userLeetcodeProfileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("refreshStats only bumps last_updated, without a stats write or cache eviction, when stats are unchanged")
+    void refreshStats_SkipsWrite_WhenStatsUnchanged() {
+        Long userId = 1L;
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setId(7L);
+        profile.setUsername("testuser");
+        profile.setTotalSolved(100);
+        profile.setEasySolved(40);
+        profile.setMediumSolved(35);
+        profile.setHardSolved(25);
+        profile.setLastUpdated(LocalDateTime.now().minusDays(1));
+        LeetcodeStatsDTO cached = new LeetcodeStatsDTO("testuser", 100, 40, 35, 25);
+        cacheManager.getCache("userLeetcodeStats").put(userId, cached);
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+        when(leetcodeCacheService.fetchStatsFromLeetcodeAPI("testuser"))
+                .thenReturn(new LeetcodeStatsDTO("testuser", 100, 40, 35, 25));
+
+        LeetcodeStatsDTO result = service.refreshStats(userId);
+
+        assertEquals(100, result.getTotalSolved());
+        verify(userLeetcodeProfileRepository, never()).save(any());
+        verify(userLeetcodeProfileRepository, never()).updateStatsBatch(any(), any());
+        // The cooldown starts from this refresh, so repeated taps stop reaching LeetCode
+        verify(userLeetcodeProfileRepository).touchAll(eq(List.of(7L)), any());
+        assertNotNull(cacheManager.getCache("userLeetcodeStats").get(userId));
+    }
+
+    @Test
+    @DisplayName("refreshStats evicts the cached stats when they changed")
+    void refreshStats_EvictsCache_WhenStatsChanged() {
+        Long userId = 1L;
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUsername("testuser");
+        profile.setTotalSolved(100);
+        cacheManager.getCache("userLeetcodeStats").put(userId, new LeetcodeStatsDTO("testuser", 100, 0, 0, 0));
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+        when(leetcodeCacheService.fetchStatsFromLeetcodeAPI("testuser"))
+                .thenReturn(new LeetcodeStatsDTO("testuser", 101, 1, 0, 0));
+
+        service.refreshStats(userId);
+
+        verify(userLeetcodeProfileRepository).updateStatsBatch(any(), any());
+        assertNull(cacheManager.getCache("userLeetcodeStats").get(userId));
+    }
+
+    @Test
+    @DisplayName("saveLeetcodeUsername with the same username and stats does not write")
+    void saveLeetcodeUsername_SkipsWrite_WhenNothingChanged() {
+        Long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUser(user);
+        profile.setUsername("testuser");
+        profile.setTotalSolved(10);
+        profile.setEasySolved(5);
+        profile.setMediumSolved(3);
+        profile.setHardSolved(2);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+        when(leetcodeCacheService.fetchStatsFromLeetcodeAPI("testuser"))
+                .thenReturn(new LeetcodeStatsDTO("testuser", 10, 5, 3, 2));
+
+        service.saveLeetcodeUsername(userId, "testuser");
+
+        verify(userLeetcodeProfileRepository, never()).save(any());
+    }
+
+    // ========== getHeatmap tests ==========
+
+    @Test
+    @DisplayName("getHeatmap fills the heatmap from LeetCode on first request")
+    void getHeatmap_FillsFromLeetcode_WhenMissing() {
+        Long userId = 1L;
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUsername("testuser");
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+        when(leetcodeCacheService.fetchCalendar("testuser")).thenReturn(Map.of(
+                LocalDate.of(2024, 1, 1), 3,
+                LocalDate.of(2024, 1, 3), 1));
+
+        HeatmapDTO result = service.getHeatmap(userId, 2024);
+
+        assertEquals(366, result.getCounts().length);
+        assertEquals(3, result.getCounts()[0]);
+        assertEquals(1, result.getCounts()[2]);
+        assertEquals(4, result.getTotalSubmissions());
+        assertEquals(2, result.getActiveDays());
+        assertEquals(3, result.getMaxCount());
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(userLeetcodeProfileRepository).fillHeatmap(any(), eq("testuser"), stored.capture());
+        assertEquals(3, SubmissionHeatmap.decode(stored.getValue()).count(LocalDate.of(2024, 1, 1)));
+        verify(userLeetcodeProfileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("getHeatmap serves the stored heatmap without calling LeetCode")
+    void getHeatmap_UsesStoredHeatmap() {
+        Long userId = 1L;
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        heatmap.merge(Map.of(LocalDate.of(2023, 6, 1), 2));
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUsername("testuser");
+        profile.setSubmissionHeatmap(heatmap);
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+
+        HeatmapDTO result = service.getHeatmap(userId, 2023);
+
+        assertEquals(365, result.getCounts().length);
+        assertEquals(2, result.getCounts()[LocalDate.of(2023, 6, 1).getDayOfYear() - 1]);
+        verify(leetcodeCacheService, never()).fetchCalendar(any());
+        verify(userLeetcodeProfileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("getHeatmap rejects years outside LeetCode's lifetime")
+    void getHeatmap_RejectsOutOfRangeYear() {
+        int nextYear = Year.now(ZoneOffset.UTC).getValue() + 1;
+
+        assertThrows(BadRequestException.class, () -> service.getHeatmap(1L, 1_000_000_000));
+        assertThrows(BadRequestException.class, () -> service.getHeatmap(1L, 2014));
+        assertThrows(BadRequestException.class, () -> service.getHeatmap(1L, nextYear));
+        verifyNoInteractions(userLeetcodeProfileRepository, leetcodeCacheService);
+    }
+
+    // ========== stats history tests ==========
+
+    @Test
+    @DisplayName("refreshStats appends a history point when stats change")
+    void refreshStats_RecordsHistory_WhenStatsChanged() {
+        Long userId = 1L;
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUsername("testuser");
+        profile.setTotalSolved(100);
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+        when(leetcodeCacheService.fetchStatsFromLeetcodeAPI("testuser"))
+                .thenReturn(new LeetcodeStatsDTO("testuser", 101, 41, 35, 25));
+
+        service.refreshStats(userId);
+
+        ArgumentCaptor<ProfileStats> recorded = ArgumentCaptor.forClass(ProfileStats.class);
+        verify(userLeetcodeProfileRepository).recordHistory(recorded.capture(), any());
+        assertEquals(101, recorded.getValue().totalSolved());
+        assertEquals(41, recorded.getValue().easySolved());
+    }
+
+    @Test
+    @DisplayName("saveLeetcodeUsername with the same username writes only the changed stats")
+    void saveLeetcodeUsername_WritesStatsOnly_WhenUsernameUnchanged() {
+        Long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setId(7L);
+        profile.setUser(user);
+        profile.setUsername("testuser");
+        profile.setTotalSolved(100);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+        when(leetcodeCacheService.fetchStatsFromLeetcodeAPI("testuser"))
+                .thenReturn(new LeetcodeStatsDTO("testuser", 102, 50, 40, 12));
+
+        service.saveLeetcodeUsername(userId, "testuser");
+
+        ProfileStats written = new ProfileStats(7L, userId, "testuser", 102, 50, 40, 12);
+        verify(userLeetcodeProfileRepository).updateStatsBatch(eq(List.of(written)), any());
+        verify(userLeetcodeProfileRepository).recordHistory(eq(written), any());
+        verify(userLeetcodeProfileRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("getStatsHistory returns parallel arrays for the requested range")
+    void getStatsHistory_ReturnsColumns() {
+        Long userId = 1L;
+        Instant now = Instant.now();
+        StatsHistory history = new StatsHistory();
+        history.record(now.minusSeconds(7_200), 10, 5, 3, 2);
+        history.record(now.minusSeconds(60), 12, 6, 4, 2);
+        UserLeetcodeProfile profile = new UserLeetcodeProfile();
+        profile.setUsername("testuser");
+        profile.setStatsHistory(history);
+
+        when(userLeetcodeProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
+
+        StatsHistoryDTO result = service.getStatsHistory(userId, now.minusSeconds(3_600), now);
+
+        // Baseline before the window plus the point inside it
+        assertEquals(2, result.getTimestamps().length);
+        assertEquals(10, result.getTotalSolved()[0]);
+        assertEquals(12, result.getTotalSolved()[1]);
+        assertEquals(4, result.getMediumSolved()[1]);
+    }
+
     // ========== updateLeetcodeUsername tests ==========
 
     @Test
@@ -0,0 +1,109 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ProblemCacheWarmerTest {
+
+    @Mock
+    private ProblemCatalogService problemCatalogService;
+    @Mock
+    private ProblemViewTracker problemViewTracker;
+    @InjectMocks
+    private ProblemCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(warmer, "enabled", true);
+        ReflectionTestUtils.setField(warmer, "pages", 2);
+        ReflectionTestUtils.setField(warmer, "pageSize", 2);
+        ReflectionTestUtils.setField(warmer, "topProblems", 3);
+        ReflectionTestUtils.setField(warmer, "concurrency", 2);
+        ReflectionTestUtils.setField(warmer, "timeoutMs", 5_000L);
+
+        when(problemCatalogService.getCatalogPage(PageRequest.of(0, 2))).thenReturn(page(1L, 2L));
+        when(problemCatalogService.getCatalogPage(PageRequest.of(1, 2))).thenReturn(page(3L, 4L));
+        when(problemCatalogService.getProblemContent(anyLong())).thenReturn(new ProblemDetailDTO());
+    }
+
+    @Test
+    @DisplayName("warm-up loads catalog pages, then the most viewed problems topped up from the catalog")
+    void warm_pagesThenTopProblems() {
+        when(problemViewTracker.topProblemIds(3)).thenReturn(List.of(42L));
+
+        int loaded = warmer.warm(false);
+
+        assertThat(loaded).isEqualTo(5);
+        verify(problemCatalogService).getProblemContent(42L);
+        verify(problemCatalogService).getProblemContent(1L);
+        verify(problemCatalogService).getProblemContent(2L);
+        verify(problemCatalogService, never()).getProblemContent(3L);
+        verify(problemCatalogService, never()).refreshCatalogPage(any());
+    }
+
+    @Test
+    @DisplayName("refresh overwrites entries instead of only filling missing ones")
+    void warm_refreshUsesCachePut() {
+        when(problemCatalogService.refreshCatalogPage(any())).thenReturn(page(1L));
+        when(problemViewTracker.topProblemIds(3)).thenReturn(List.of());
+
+        warmer.warm(true);
+
+        verify(problemCatalogService, times(2)).refreshCatalogPage(any());
+        verify(problemCatalogService).refreshProblemContent(1L);
+        verify(problemCatalogService, never()).getCatalogPage(any());
+    }
+
+    @Test
+    @DisplayName("failed or slow loads are skipped without failing startup")
+    void warm_timeoutAndFailures() {
+        ReflectionTestUtils.setField(warmer, "timeoutMs", 300L);
+        when(problemViewTracker.topProblemIds(3)).thenReturn(List.of(7L, 8L));
+        when(problemCatalogService.getProblemContent(7L)).thenThrow(new RuntimeException("Problem not found"));
+        when(problemCatalogService.getProblemContent(8L)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return new ProblemDetailDTO();
+        });
+
+        long started = System.currentTimeMillis();
+        int loaded = warmer.warm(false);
+
+        assertThat(System.currentTimeMillis() - started).isLessThan(3_000);
+        // Two pages plus problem 1; 7 failed and 8 was cut off by the deadline
+        assertThat(loaded).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("nothing is loaded when warm-up is disabled")
+    void run_disabled() {
+        ReflectionTestUtils.setField(warmer, "enabled", false);
+
+        warmer.run(null);
+
+        verifyNoInteractions(problemCatalogService, problemViewTracker);
+    }
+
+    private static PageImpl<ProblemListDTO> page(Long... ids) {
+        return new PageImpl<>(Arrays.stream(ids)
+                .map(id -> new ProblemListDTO(id, "Problem " + id, "Easy", false, false))
+                .toList());
+    }
+}
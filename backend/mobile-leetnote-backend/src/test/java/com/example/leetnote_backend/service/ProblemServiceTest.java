@@ -2,7 +2,9 @@ package com.example.leetnote_backend.service;
 
 import com.example.leetnote_backend.model.DTO.ProblemDetailDTO;
 import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.DTO.ProblemStatusUpdateRequest;
 import com.example.leetnote_backend.model.entity.Problem;
+import com.example.leetnote_backend.model.entity.ProblemSolution;
 import com.example.leetnote_backend.model.entity.UserProblemStatus;
 import com.example.leetnote_backend.repository.ProblemRepository;
 import com.example.leetnote_backend.repository.UserProblemStatusRepository;
@@ -17,6 +19,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -30,12 +33,19 @@ class ProblemServiceTest {
     private ProblemRepository problemRepository;
     @Mock
     private UserProblemStatusRepository userProblemStatusRepository;
+    @Mock
+    private ProblemStatusWriteBuffer problemStatusWriteBuffer;
     @InjectMocks
     private ProblemService problemService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        doAnswer(i -> {
+            i.<Runnable>getArgument(2).run();
+            return null;
+        }).when(problemStatusWriteBuffer).writeThrough(anyLong(), anyLong(), any());
+        ReflectionTestUtils.setField(problemService, "problemCatalogService", new ProblemCatalogService(problemRepository));
     }
 
     @Test
@@ -48,7 +58,7 @@ class ProblemServiceTest {
         problem.setDifficulty("Easy");
         Page<Problem> page = new PageImpl<>(List.of(problem));
 
-        when(problemRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        when(problemRepository.findAll(any(Pageable.class))).thenReturn(page);
         UserProblemStatus status = new UserProblemStatus(userId, 10L, false, true);
         when(userProblemStatusRepository.findAllByUserId(userId)).thenReturn(List.of(status));
 
@@ -61,6 +71,28 @@ class ProblemServiceTest {
         assertThat(dto.isSolved()).isFalse();
     }
 
+    @Test
+    @DisplayName("getAllProblems with filters queries by specification instead of the shared catalog")
+    void getAllProblems_filtered() {
+        Long userId = 1L;
+        Problem problem = new Problem();
+        problem.setId(10L);
+        problem.setTitle("Two Sum");
+        problem.setDifficulty("Easy");
+
+        when(problemRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(problem)));
+        when(userProblemStatusRepository.findAllByUserId(userId))
+                .thenReturn(List.of(new UserProblemStatus(userId, 10L, true, false)));
+
+        Page<ProblemListDTO> result = problemService.getAllProblems(
+                userId, "two", List.of("Easy"), null, null, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).extracting(ProblemListDTO::getProblemId).containsExactly(10L);
+        assertThat(result.getContent().get(0).isSolved()).isTrue();
+        verify(problemRepository, never()).findAll(any(Pageable.class));
+    }
+
     @Test
     @DisplayName("getProblemDetail returns detail with solution and user status")
     void getProblemDetail_withSolutionAndStatus() {
@@ -71,15 +103,9 @@ class ProblemServiceTest {
         problem.setDifficulty("Medium");
         problem.setDescription("desc");
 
-        Map<String, Object> solution = new HashMap<>();
-        solution.put("approach", "Greedy");
-        solution.put("code", "code");
-        solution.put("time_complexity", "O(n)");
-        solution.put("space_complexity", "O(1)");
-
-        problem.setSolution(solution);
-
         when(problemRepository.findById(problemId)).thenReturn(Optional.of(problem));
+        when(problemRepository.findSolution(problemId))
+                .thenReturn(Optional.of(new ProblemSolution("Greedy", "code", "O(n)", "O(1)")));
         UserProblemStatus status = new UserProblemStatus(userId, problemId, true, true);
         when(userProblemStatusRepository.findByUserIdAndProblemId(userId, problemId)).thenReturn(Optional.of(status));
 
@@ -89,6 +115,7 @@ class ProblemServiceTest {
         assertThat(dto.isSolved()).isTrue();
         assertThat(dto.getSolution()).isNotNull();
         assertThat(dto.getSolution().getApproach()).isEqualTo("Greedy");
+        assertThat(dto.getSolution().getSpaceComplexity()).isEqualTo("O(1)");
     }
 
     @Test
@@ -110,13 +137,14 @@ class ProblemServiceTest {
         problem.setDifficulty("Easy");
 
         when(problemRepository.findById(problemId)).thenReturn(Optional.of(problem));
-        when(userProblemStatusRepository.findByUserIdAndProblemId(userId, problemId)).thenReturn(Optional.empty());
-        when(userProblemStatusRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
         ProblemListDTO dto = problemService.updateProblemStatus(userId, problemId, true, false);
         assertThat(dto.getProblemId()).isEqualTo(problemId);
         assertThat(dto.isSolved()).isTrue();
         assertThat(dto.isFavorite()).isFalse();
+        verify(problemStatusWriteBuffer).writeThrough(eq(userId), eq(problemId), any());
+        verify(userProblemStatusRepository).upsertAll(argThat(statuses -> statuses.size() == 1
+                && statuses.iterator().next().isSolved() && !statuses.iterator().next().isFavorited()));
     }
 
     @Test
@@ -128,15 +156,14 @@ class ProblemServiceTest {
         problem.setTitle("Test");
         problem.setDifficulty("Easy");
 
-        UserProblemStatus status = new UserProblemStatus(userId, problemId, false, false);
-
         when(problemRepository.findById(problemId)).thenReturn(Optional.of(problem));
-        when(userProblemStatusRepository.findByUserIdAndProblemId(userId, problemId)).thenReturn(Optional.of(status));
-        when(userProblemStatusRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
         ProblemListDTO dto = problemService.updateProblemStatus(userId, problemId, true, true);
         assertThat(dto.isSolved()).isTrue();
         assertThat(dto.isFavorite()).isTrue();
+        // Both flags are replaced, so the existing row is not read first
+        verify(userProblemStatusRepository, never()).findByUserIdAndProblemId(any(), any());
+        verify(userProblemStatusRepository).upsertAll(any());
     }
 
     @Test
@@ -147,4 +174,51 @@ class ProblemServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Problem not found");
     }
+
+    @Test
+    @DisplayName("updateProblemStatuses validates in one query and stages the last change per problem")
+    void updateProblemStatuses_coalescesAndStages() {
+        Long userId = 1L;
+        Problem first = new Problem();
+        first.setId(2L);
+        first.setTitle("Two Sum");
+        first.setDifficulty("Easy");
+        Problem second = new Problem();
+        second.setId(3L);
+        second.setTitle("Add Two Numbers");
+        second.setDifficulty("Medium");
+
+        when(problemRepository.findAllById(any())).thenReturn(List.of(first, second));
+
+        List<ProblemListDTO> result = problemService.updateProblemStatuses(userId, List.of(
+                new ProblemStatusUpdateRequest(2L, true, false),
+                new ProblemStatusUpdateRequest(3L, false, true),
+                new ProblemStatusUpdateRequest(2L, true, true)
+        ));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getProblemId()).isEqualTo(2L);
+        assertThat(result.get(0).isFavorite()).isTrue();
+        verify(problemRepository, times(1)).findAllById(any());
+        verify(problemStatusWriteBuffer).stage(userId, 2L, true, true);
+        verify(problemStatusWriteBuffer).stage(userId, 3L, false, true);
+        verify(problemStatusWriteBuffer, never()).stage(userId, 2L, true, false);
+        verify(userProblemStatusRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("updateProblemStatuses stages nothing if any problem is missing")
+    void updateProblemStatuses_problemNotFound() {
+        Problem problem = new Problem();
+        problem.setId(2L);
+        when(problemRepository.findAllById(any())).thenReturn(List.of(problem));
+
+        assertThatThrownBy(() -> problemService.updateProblemStatuses(1L, List.of(
+                new ProblemStatusUpdateRequest(2L, true, false),
+                new ProblemStatusUpdateRequest(99L, true, false)
+        )))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("99");
+        verifyNoInteractions(problemStatusWriteBuffer);
+    }
 }
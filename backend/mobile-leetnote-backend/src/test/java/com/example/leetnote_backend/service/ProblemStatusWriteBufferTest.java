@@ -0,0 +1,234 @@
+package com.example.leetnote_backend.service;
+
+import com.example.leetnote_backend.db.ReadYourWrites;
+import com.example.leetnote_backend.model.DTO.ProblemListDTO;
+import com.example.leetnote_backend.model.entity.UserProblemStatus;
+import com.example.leetnote_backend.repository.UserProblemStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProblemStatusWriteBufferTest {
+
+    @Mock
+    private UserProblemStatusRepository userProblemStatusRepository;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
+    @Mock
+    private ObjectProvider<ReadYourWrites> readYourWritesProvider;
+
+    private ProblemStatusWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ProblemStatusWriteBuffer(userProblemStatusRepository, cacheManager, readYourWritesProvider);
+    }
+
+    @Test
+    @DisplayName("stage coalesces repeated changes for the same user and problem")
+    void stage_coalescesPerUserAndProblem() {
+        buffer.stage(1L, 10L, true, false);
+        buffer.stage(1L, 10L, true, true);
+        buffer.stage(1L, 11L, false, true);
+        buffer.stage(2L, 10L, false, false);
+
+        assertThat(buffer.size()).isEqualTo(3);
+        Map<Long, UserProblemStatus> pending = buffer.pendingFor(1L);
+        assertThat(pending).hasSize(2);
+        assertThat(pending.get(10L).isFavorited()).isTrue();
+        assertThat(buffer.pendingFor(3L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("flush upserts everything in one batch, evicts caches and empties the buffer")
+    @SuppressWarnings("unchecked")
+    void flush_writesSingleBatch() {
+        when(cacheManager.getCache(any())).thenReturn(cache);
+        buffer.stage(1L, 10L, true, false);
+        buffer.stage(2L, 10L, false, true);
+
+        buffer.flush();
+
+        ArgumentCaptor<Collection<UserProblemStatus>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(userProblemStatusRepository, times(1)).upsertAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        verify(cache, times(2)).clear();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("flush starts the read-your-writes window of every user in the batch")
+    @SuppressWarnings("unchecked")
+    void flush_recordsWritersForReplicaRouting() {
+        ReadYourWrites readYourWrites = mock(ReadYourWrites.class);
+        when(readYourWritesProvider.getIfAvailable()).thenReturn(readYourWrites);
+        when(cacheManager.getCache(any())).thenReturn(cache);
+        buffer.stage(1L, 10L, true, false);
+        buffer.stage(1L, 11L, true, false);
+        buffer.stage(2L, 10L, false, true);
+
+        buffer.flush();
+
+        ArgumentCaptor<Collection<Long>> users = ArgumentCaptor.forClass(Collection.class);
+        verify(readYourWrites).recordWrites(users.capture());
+        assertThat(users.getValue()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("flush keeps staged changes when the batch fails")
+    void flush_keepsChangesOnFailure() {
+        doThrow(new QueryTimeoutException("timeout")).when(userProblemStatusRepository).upsertAll(any());
+        buffer.stage(1L, 10L, true, false);
+
+        buffer.flush();
+
+        assertThat(buffer.pendingFor(1L)).containsKey(10L);
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    @DisplayName("flush on an empty buffer does not touch the database")
+    void flush_emptyBuffer() {
+        buffer.flush();
+
+        verifyNoInteractions(userProblemStatusRepository, cacheManager);
+    }
+
+    @Test
+    @DisplayName("discard removes a staged change")
+    void discard_removesStagedChange() {
+        buffer.stage(1L, 10L, true, false);
+
+        buffer.discard(1L, 10L);
+
+        assertThat(buffer.pendingFor(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("writeThrough drops the staged change and waits for an in-flight flush")
+    void writeThrough_waitsForFlush() throws Exception {
+        when(cacheManager.getCache(any())).thenReturn(cache);
+        CountDownLatch upserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            upserting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userProblemStatusRepository).upsertAll(any());
+        buffer.stage(1L, 10L, true, false);
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(buffer::flush);
+        assertThat(upserting.await(5, TimeUnit.SECONDS)).isTrue();
+        AtomicBoolean written = new AtomicBoolean();
+        CompletableFuture<Void> write = CompletableFuture.runAsync(
+                () -> buffer.writeThrough(1L, 10L, () -> written.set(true)));
+
+        Thread.sleep(100);
+        assertThat(written).isFalse();
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        write.get(5, TimeUnit.SECONDS);
+        assertThat(written).isTrue();
+        assertThat(buffer.pendingFor(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("writeThrough does not wait for a flush of other problems")
+    void writeThrough_otherProblemsDoNotWait() throws Exception {
+        when(cacheManager.getCache(any())).thenReturn(cache);
+        CountDownLatch upserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            upserting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(userProblemStatusRepository).upsertAll(any());
+        buffer.stage(1L, 10L, true, false);
+
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(buffer::flush);
+        assertThat(upserting.await(5, TimeUnit.SECONDS)).isTrue();
+        try {
+            AtomicBoolean written = new AtomicBoolean();
+            CompletableFuture.runAsync(() -> buffer.writeThrough(1L, 11L, () -> written.set(true)))
+                    .get(1, TimeUnit.SECONDS);
+            CompletableFuture.runAsync(() -> buffer.writeThrough(2L, 10L, () -> written.set(true)))
+                    .get(1, TimeUnit.SECONDS);
+            assertThat(written).isTrue();
+        } finally {
+            release.countDown();
+        }
+        flush.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("writeThrough starts the user's read-your-writes window")
+    void writeThrough_recordsWriter() {
+        ReadYourWrites readYourWrites = mock(ReadYourWrites.class);
+        when(readYourWritesProvider.getIfAvailable()).thenReturn(readYourWrites);
+
+        buffer.writeThrough(1L, 10L, () -> { });
+
+        verify(readYourWrites).recordWrites(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("staged changes are only visible on the staging instance until they are flushed")
+    void pendingFor_isPerInstance() {
+        ProblemStatusWriteBuffer otherInstance =
+                new ProblemStatusWriteBuffer(userProblemStatusRepository, cacheManager, readYourWritesProvider);
+        when(cacheManager.getCache(any())).thenReturn(cache);
+        buffer.stage(1L, 10L, true, false);
+
+        assertThat(buffer.pendingFor(1L)).containsKey(10L);
+        assertThat(otherInstance.pendingFor(1L)).isEmpty();
+
+        // After the flush both read the row (and the evicted caches are shared)
+        buffer.flush();
+        verify(userProblemStatusRepository).upsertAll(any());
+        verify(cache, times(2)).clear();
+        assertThat(buffer.pendingFor(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("overlay replaces the status of staged problems only")
+    void overlay_appliesStagedStatus() {
+        Page<ProblemListDTO> page = new PageImpl<>(List.of(
+                new ProblemListDTO(10L, "Two Sum", "Easy", false, false),
+                new ProblemListDTO(11L, "Add Two Numbers", "Medium", false, false)
+        ));
+
+        Page<ProblemListDTO> result = ProblemStatusWriteBuffer.overlay(page,
+                Map.of(10L, new UserProblemStatus(1L, 10L, true, true)));
+
+        assertThat(result.getContent().get(0).isSolved()).isTrue();
+        assertThat(result.getContent().get(0).isFavorite()).isTrue();
+        assertThat(result.getContent().get(1).isSolved()).isFalse();
+        // The cached page itself is left untouched
+        assertThat(page.getContent().get(0).isSolved()).isFalse();
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.leetnote_backend.service;
 
+import com.example.leetnote_backend.util.PayloadLogPolicy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFunction;
@@ -12,6 +16,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith(OutputCaptureExtension.class)
 class TogetherAiServiceTest {
 
     private WebClient webClientWithResponse(String body, HttpStatus status) {
@@ -104,4 +109,18 @@ class TogetherAiServiceTest {
         assertEquals(List.of("Invalid JSON"), parsed.get("issue"));
         assertEquals(List.of("Please try again."), parsed.get("feedback"));
     }
+
+    @Test
+    void parseResponse_LogsCappedOutput_WhenInvalidJson(CapturedOutput output) {
+        TogetherAiService service = new TogetherAiService(WebClient.builder(), "http://localhost", "test-key",
+                new PayloadLogPolicy(0, 20));
+        String raw = "not json " + "x".repeat(5000);
+
+        service.parseResponse(raw);
+
+        assertTrue(output.getOut().contains("Model output is not valid JSON"));
+        assertTrue(output.getOut().contains("chars=5009"));
+        assertTrue(output.getOut().contains("output=not json xxxxxxxxxxx...[5009 chars]"));
+        assertFalse(output.getOut().contains("x".repeat(100)));
+    }
 }
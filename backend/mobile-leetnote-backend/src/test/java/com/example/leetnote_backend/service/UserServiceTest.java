@@ -85,6 +85,18 @@ public class UserServiceTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void testResolveUserId_HitsDatabaseOncePerUid() {
+        when(userRepository.findByFirebaseUid("firebase-123")).thenReturn(Optional.of(user));
+
+        Long first = userService.resolveUserId("firebase-123", "test@example.com");
+        Long second = userService.resolveUserId("firebase-123", "test@example.com");
+
+        assertThat(first).isEqualTo(1L);
+        assertThat(second).isEqualTo(1L);
+        verify(userRepository, times(1)).findByFirebaseUid("firebase-123");
+    }
+
     @Test
     void testUpdateUsername_UpdatesAndSaves() {
         when(userCacheService.findById(1L)).thenReturn(user);
@@ -0,0 +1,32 @@
+package com.example.leetnote_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadLogPolicyTest {
+
+    @Test
+    @DisplayName("fields over the limit are cut and keep their original length")
+    void cap_truncatesLongFields() {
+        PayloadLogPolicy policy = new PayloadLogPolicy(1.0, 5);
+
+        assertThat(policy.cap("short")).isEqualTo("short");
+        assertThat(policy.cap("longer value")).isEqualTo("longe...[12 chars]");
+        assertThat(policy.cap(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("sampling logs everything at 1, nothing at 0 and roughly the rate in between")
+    void sample_followsRate() {
+        assertThat(IntStream.range(0, 100).allMatch(i -> new PayloadLogPolicy(1.0, 10).sample())).isTrue();
+        assertThat(IntStream.range(0, 100).noneMatch(i -> new PayloadLogPolicy(0, 10).sample())).isTrue();
+
+        PayloadLogPolicy tenth = new PayloadLogPolicy(0.1, 10);
+        long sampled = IntStream.range(0, 10_000).filter(i -> tenth.sample()).count();
+        assertThat(sampled).isBetween(700L, 1300L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.leetnote_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsHistoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Test
+    @DisplayName("only changed counts are recorded")
+    void record_skipsUnchangedCounts() {
+        StatsHistory history = new StatsHistory();
+
+        assertThat(history.record(NOW.minusSeconds(600), 10, 5, 3, 2)).isTrue();
+        assertThat(history.record(NOW, 10, 5, 3, 2)).isFalse();
+        assertThat(history.record(NOW, 11, 6, 3, 2)).isTrue();
+
+        assertThat(history.points()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("delta encoding round-trips, including counts that go down")
+    void encode_roundTrips() {
+        StatsHistory history = new StatsHistory();
+        history.record(NOW.minus(Duration.ofHours(3)), 500, 200, 200, 100);
+        history.record(NOW.minus(Duration.ofHours(2)), 498, 199, 199, 100);
+        history.record(NOW, 520, 205, 210, 105);
+
+        StatsHistory decoded = StatsHistory.decode(history.encode());
+
+        assertThat(decoded).isEqualTo(history);
+        assertThat(decoded.points().get(1).total()).isEqualTo(498);
+        // Later points cost a handful of bytes each rather than full values
+        assertThat(history.encode().length).isLessThan(2 + 3 * 12);
+    }
+
+    @Test
+    @DisplayName("frequent changes stay bounded: hourly for a week, then daily, weekly and monthly")
+    void record_downsamplesOlderPoints() {
+        StatsHistory history = new StatsHistory();
+        Instant start = NOW.minus(Duration.ofDays(800));
+        int solved = 0;
+        // A change every 15 minutes for 800 days
+        for (Instant at = start; !at.isAfter(NOW); at = at.plus(Duration.ofMinutes(15))) {
+            history.record(at, ++solved, solved, 0, 0);
+        }
+
+        List<StatsHistory.Point> points = history.points();
+        // ~168 hourly + ~83 daily + ~40 weekly + ~15 monthly
+        assertThat(points.size()).isBetween(280, 330);
+        assertThat(points.get(points.size() - 1).total()).isEqualTo(solved);
+        assertThat(history.encode().length).isLessThan(4_000);
+
+        long lastDay = NOW.minus(Duration.ofDays(1)).getEpochSecond();
+        long pointsInLastDay = points.stream().filter(p -> p.epochSecond() > lastDay).count();
+        assertThat(pointsInLastDay).isBetween(23L, 25L);
+    }
+
+    @Test
+    @DisplayName("range starts with the last point before the window")
+    void range_includesBaseline() {
+        StatsHistory history = new StatsHistory();
+        history.record(NOW.minus(Duration.ofDays(3)), 10, 10, 0, 0);
+        history.record(NOW.minus(Duration.ofDays(2)), 12, 12, 0, 0);
+        history.record(NOW.minus(Duration.ofHours(1)), 15, 15, 0, 0);
+
+        List<StatsHistory.Point> range = history.range(NOW.minus(Duration.ofDays(1)), NOW);
+
+        assertThat(range).extracting(StatsHistory.Point::total).containsExactly(12, 15);
+        assertThat(StatsHistory.decode(null).isEmpty()).isTrue();
+    }
+}
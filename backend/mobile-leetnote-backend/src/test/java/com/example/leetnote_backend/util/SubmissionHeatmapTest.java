@@ -0,0 +1,76 @@
+package com.example.leetnote_backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubmissionHeatmapTest {
+
+    @Test
+    @DisplayName("encoding round-trips every stored day, including leap days")
+    void encode_roundTrips() {
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        heatmap.merge(Map.of(
+                LocalDate.of(2023, 12, 31), 4,
+                LocalDate.of(2024, 2, 29), 1,
+                LocalDate.of(2024, 12, 31), 300
+        ));
+
+        SubmissionHeatmap decoded = SubmissionHeatmap.decode(heatmap.encode());
+
+        assertThat(decoded).isEqualTo(heatmap);
+        assertThat(decoded.count(LocalDate.of(2024, 2, 29))).isEqualTo(1);
+        assertThat(decoded.count(LocalDate.of(2024, 12, 31))).isEqualTo(300);
+        assertThat(decoded.latestDay()).isEqualTo(LocalDate.of(2024, 12, 31));
+        assertThat(decoded.countsFor(2024)).hasSize(366);
+        assertThat(decoded.countsFor(2023)).hasSize(365);
+        assertThat(decoded.countsFor(2023)[364]).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("a full year of activity stays far smaller than the LeetCode JSON")
+    void encode_isCompact() {
+        Map<LocalDate, Integer> calendar = new HashMap<>();
+        for (LocalDate day = LocalDate.of(2024, 1, 1); day.getYear() == 2024; day = day.plusDays(1)) {
+            calendar.put(day, 1 + day.getDayOfMonth() % 5);
+        }
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        heatmap.merge(calendar);
+
+        // version + year count + year + 46-byte bitset + one byte per day
+        assertThat(heatmap.encode()).hasSizeLessThan(3 + 2 + 46 + 366 + 1);
+    }
+
+    @Test
+    @DisplayName("merging keeps stored history and only applies the latest stored day onwards")
+    void merge_onlyNewDays() {
+        SubmissionHeatmap heatmap = new SubmissionHeatmap();
+        heatmap.merge(Map.of(LocalDate.of(2025, 3, 1), 2, LocalDate.of(2025, 3, 2), 1));
+
+        boolean changed = heatmap.merge(Map.of(
+                LocalDate.of(2025, 3, 1), 9,
+                LocalDate.of(2025, 3, 2), 3,
+                LocalDate.of(2025, 3, 5), 1
+        ));
+
+        assertThat(changed).isTrue();
+        assertThat(heatmap.count(LocalDate.of(2025, 3, 1))).isEqualTo(2);
+        assertThat(heatmap.count(LocalDate.of(2025, 3, 2))).isEqualTo(3);
+        assertThat(heatmap.count(LocalDate.of(2025, 3, 5))).isEqualTo(1);
+
+        assertThat(heatmap.merge(Map.of(LocalDate.of(2025, 3, 5), 1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("empty or missing data decodes to an empty heatmap")
+    void decode_empty() {
+        assertThat(SubmissionHeatmap.decode(null).isEmpty()).isTrue();
+        assertThat(SubmissionHeatmap.decode(new SubmissionHeatmap().encode()).isEmpty()).isTrue();
+        assertThat(new SubmissionHeatmap().latestDay()).isNull();
+    }
+}